@@ -0,0 +1,183 @@
+package game.benchmarkClasses;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import game.controllerClasses.ActionResult;
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.primaryClasses.DistanceMatrix;
+import game.primaryClasses.Island;
+import game.primaryClasses.Item;
+import game.primaryClasses.Market;
+import game.primaryClasses.WorldGenerator;
+import game.primaryClasses.WorldTemplate;
+import game.shipClasses.RoutePlanner;
+import game.shipClasses.TravelTable;
+import game.shipClasses.Voyage;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+/**
+ * Measures generating large worlds with a {@link WorldGenerator}, starting a game in one,
+ * sailing along its routes, planning voyages through it and ticking its {@link Market}, to find
+ * costs that grow with the number of islands or items.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LargeWorldBenchmark
+{
+	/**
+	 * A game length that is not reached during a benchmark iteration.
+	 */
+	private static final int ENDLESS_GAME = 1000000;
+
+	private static final long SEED = 42L;
+	private static final int ROUTES_PER_ISLAND = 4;
+
+	/**
+	 * The number of islands in the generated world.
+	 */
+	@Param({"1000", "20000"})
+	public int islandCount;
+
+	/**
+	 * The number of items in the generated world.
+	 */
+	@Param({"20", "200"})
+	public int itemCount;
+
+	private WorldTemplate world;
+	private GameEnvironment gameController;
+	private GameState gameModel;
+	private ArrayList<Island> islands;
+	private int destination;
+
+	/**
+	 * Generates the world once for each combination of parameters.
+	 */
+	@Setup(Level.Trial)
+	public void generateWorld()
+	{
+		world = generate();
+	}
+
+	/**
+	 * Starts a new endless game in the generated world for each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void newGame()
+	{
+		GameSimulation game = new GameSimulation(WhitePearl::new, ENDLESS_GAME, SEED, world);
+		gameController = game.getGameController();
+		gameModel = game.getGameModel();
+		islands = gameModel.getIslandsList();
+	}
+
+	/**
+	 * Generates a world in parallel.
+	 *
+	 * @return world - the generated world.
+	 */
+	@Benchmark
+	public WorldTemplate generate()
+	{
+		return new WorldGenerator(SEED, islandCount, itemCount, ROUTES_PER_ISLAND).generate();
+	}
+
+	/**
+	 * Creates the islands and stores of a new game from the generated world.
+	 *
+	 * @return islands - the islands of the new game.
+	 */
+	@Benchmark
+	public ArrayList<Island> formIslands()
+	{
+		return new GameEnvironment(null, SEED, world).formIslands();
+	}
+
+	/**
+	 * Sails along the first route from the current island, topping up the players money so
+	 * the voyage can be afforded.
+	 *
+	 * @return result - the result of the voyage.
+	 */
+	@Benchmark
+	public ActionResult sail()
+	{
+		if (gameModel.getDaysRemaining() < 100)
+		{
+			newGame();
+		}
+		if (gameModel.getMoney() < 10000)
+		{
+			gameModel.receiveMoney(100000);
+		}
+		DistanceMatrix distances = gameModel.getCurrentIsland().getDistanceMatrix();
+		int route = distances.getFirstRoute(gameModel.getCurrentIsland().getId());
+		gameController.setViewedIsland(islands.get(distances.getDestination(route)));
+		return gameController.trySail();
+	}
+	
+	/**
+	 * Plans a voyage from the current island to the next island in turn, reading it back from
+	 * the planner's kept tree of voyages as bots and the map panel do.
+	 *
+	 * @return voyage - the planned voyage.
+	 */
+	@Benchmark
+	public Voyage planVoyage()
+	{
+		destination = (destination + 1) % islands.size();
+		TravelTable travelTable = gameModel.getShip().getTravelTable(islands);
+		return travelTable.getRoutePlanner().plan(gameModel.getCurrentIsland(), islands.get(destination),
+				RoutePlanner.Goal.CHEAPEST);
+	}
+	
+	/**
+	 * Plans a voyage with a new travel table and planner, so the search from the current island
+	 * is run every time, as after an upgrade changes the ships speed.
+	 *
+	 * @return voyage - the planned voyage.
+	 */
+	@Benchmark
+	public Voyage planVoyageAfterUpgrade()
+	{
+		destination = (destination + 1) % islands.size();
+		TravelTable travelTable = new TravelTable(islands, gameModel.getShip().getKmPerDay(),
+				gameModel.getShip().getCostPerDay());
+		return travelTable.getRoutePlanner().plan(gameModel.getCurrentIsland(), islands.get(destination),
+				RoutePlanner.Goal.CHEAPEST);
+	}
+	
+	/**
+	 * Trades at the next island in turn and ticks every store in the market by a day, so the
+	 * market always has a few stores away from their full stock and base prices.
+	 *
+	 * @return market - the ticked market.
+	 */
+	@Benchmark
+	public Market tickMarket()
+	{
+		destination = (destination + 1) % islands.size();
+		Item item = gameController.getItemsList().get(destination % itemCount);
+		islands.get(destination).getStore().incrementStock(item, 10);
+		Market market = gameController.getMarket();
+		market.tick(1);
+		return market;
+	}
+}
@@ -0,0 +1,101 @@
+package game.benchmarkClasses;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import game.controllerClasses.ActionResult;
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.primaryClasses.Island;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+/**
+ * Measures {@link GameEnvironment#sail()}, including the random event and market tick that
+ * follow every voyage.
+ * <br>
+ * The ship sails back and forth between two islands in a game long enough that it never
+ * ends, and is given money so it can always afford the voyage.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SailBenchmark
+{
+	/**
+	 * A game length that is not reached during a benchmark iteration.
+	 */
+	private static final int ENDLESS_GAME = 1000000;
+	
+	private GameEnvironment gameController;
+	private GameState gameModel;
+	private ArrayList<Island> islands;
+	private int voyage;
+	
+	/**
+	 * Starts a new endless game for each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void newGame()
+	{
+		GameSimulation game = new GameSimulation(WhitePearl::new, ENDLESS_GAME, 42L);
+		gameController = game.getGameController();
+		gameModel = game.getGameModel();
+		islands = gameModel.getIslandsList();
+	}
+	
+	/**
+	 * Sails to the next island with the exception throwing api.
+	 * 
+	 * @return currentDay - the day after the voyage.
+	 * @throws Exception - never, the voyage is always valid.
+	 */
+	@Benchmark
+	public int sail() throws Exception
+	{
+		prepareVoyage();
+		gameController.sail();
+		return gameModel.getCurrentDay();
+	}
+	
+	/**
+	 * Sails to the next island with {@link GameEnvironment#trySail()}.
+	 * 
+	 * @return result - the result of the voyage.
+	 */
+	@Benchmark
+	public ActionResult trySail()
+	{
+		prepareVoyage();
+		return gameController.trySail();
+	}
+	
+	/**
+	 * Views the next island and tops up the players money so the voyage can be afforded.
+	 */
+	private void prepareVoyage()
+	{
+		if (gameModel.getDaysRemaining() < 100)
+		{
+			newGame();
+		}
+		if (gameModel.getMoney() < 10000)
+		{
+			gameModel.receiveMoney(100000);
+		}
+		voyage++;
+		gameController.setViewedIsland(islands.get(1 + (voyage & 1)));
+	}
+}
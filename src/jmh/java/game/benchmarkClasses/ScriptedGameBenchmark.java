@@ -0,0 +1,47 @@
+package game.benchmarkClasses;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+import game.simulationClasses.GreedyTrader;
+
+/**
+ * Measures a whole 50 day game, from building the world to the final score, played
+ * headless by the {@link GreedyTrader}.
+ * <br>
+ * The seed fixes the random events, so every operation plays the same game.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScriptedGameBenchmark
+{
+	/**
+	 * The seed of the game played.
+	 */
+	private static final long SEED = 42L;
+	
+	private final GreedyTrader strategy = new GreedyTrader();
+	
+	/**
+	 * Plays a 50 day game with the White Pearl.
+	 * 
+	 * @return score - the final score of the game.
+	 */
+	@Benchmark
+	public int fiftyDayGame()
+	{
+		return new GameSimulation(WhitePearl::new, 50, SEED).play(strategy);
+	}
+}
@@ -0,0 +1,106 @@
+package game.benchmarkClasses;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import game.controllerClasses.ActionResult;
+import game.controllerClasses.GameEnvironment;
+import game.exceptions.ItemSaleException;
+import game.primaryClasses.Item;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+/**
+ * Measures buying and selling at a store.
+ * <br>
+ * Each successful benchmark buys and then sells the same units, so the stores stock and
+ * the players money are the same after every operation. The rejected benchmarks try to
+ * sell an item the player does not own, comparing the exception throwing api with the
+ * {@link ActionResult} api.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TradeBenchmark
+{
+	private GameEnvironment gameController;
+	private Item wood;
+	private Item diamond;
+	
+	/**
+	 * Starts a new game at the first island, which stocks wood.
+	 */
+	@Setup
+	public void newGame()
+	{
+		GameSimulation game = new GameSimulation(WhitePearl::new, 50, 42L);
+		gameController = game.getGameController();
+		wood = gameController.getItemsList().get(0);
+		diamond = gameController.getItemsList().get(9);
+	}
+	
+	/**
+	 * Buys and sells one unit of wood.
+	 * 
+	 * @throws ItemSaleException - never, the store has wood in stock.
+	 */
+	@Benchmark
+	public void buyAndSellOne() throws ItemSaleException
+	{
+		gameController.buyItem(wood);
+		gameController.sellItem(wood);
+	}
+	
+	/**
+	 * Buys and sells as much wood as the store has in one call each.
+	 * 
+	 * @return unitsSold - the units bought and sold.
+	 * @throws ItemSaleException - never, the store has wood in stock.
+	 */
+	@Benchmark
+	public int buyAndSellBulk() throws ItemSaleException
+	{
+		int unitsBought = gameController.buyItem(wood, Integer.MAX_VALUE);
+		return gameController.sellItem(wood, unitsBought);
+	}
+	
+	/**
+	 * Tries to sell an item the player does not own with the exception throwing api.
+	 * 
+	 * @return message - the message of the ItemSaleException.
+	 */
+	@Benchmark
+	public String rejectedSell()
+	{
+		try
+		{
+			gameController.sellItem(diamond);
+			return null;
+		}
+		catch (ItemSaleException exception)
+		{
+			return exception.getMessage();
+		}
+	}
+	
+	/**
+	 * Tries to sell an item the player does not own with {@link GameEnvironment#trySellItem(Item, int)}.
+	 * 
+	 * @return result - the rejection.
+	 */
+	@Benchmark
+	public ActionResult rejectedTrySell()
+	{
+		return gameController.trySellItem(diamond, 1);
+	}
+}
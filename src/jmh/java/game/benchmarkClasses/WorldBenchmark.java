@@ -0,0 +1,85 @@
+package game.benchmarkClasses;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameSnapshot;
+import game.controllerClasses.GameState;
+import game.primaryClasses.Island;
+import game.primaryClasses.Store;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+/**
+ * Measures building the world with {@link GameEnvironment#formIslands()}, restocking
+ * a {@link Store} and taking and restoring a {@link GameSnapshot} of a game.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WorldBenchmark
+{
+	private Store store;
+	private GameState gameModel;
+	private GameSnapshot snapshot;
+	
+	/**
+	 * Builds a world whose first store is restocked by {@link #restock()} and a game that
+	 * is snapshot by {@link #snapshotAndRestore()}.
+	 */
+	@Setup
+	public void newWorld()
+	{
+		store = new GameEnvironment().formIslands().get(0).getStore();
+		gameModel = new GameSimulation(WhitePearl::new, 50, 42L).getGameModel();
+		snapshot = gameModel.snapshot();
+	}
+	
+	/**
+	 * Builds the items, stores, islands and distances of a new game.
+	 * 
+	 * @return islands - the islands of the new world.
+	 */
+	@Benchmark
+	public ArrayList<Island> formIslands()
+	{
+		return new GameEnvironment().formIslands();
+	}
+	
+	/**
+	 * Restocks a store back to its full stock.
+	 * 
+	 * @return store - the restocked store.
+	 */
+	@Benchmark
+	public Store restock()
+	{
+		store.restock();
+		return store;
+	}
+	
+	/**
+	 * Takes a snapshot of a game into a reused snapshot and restores it.
+	 * 
+	 * @return gameModel - the restored game.
+	 */
+	@Benchmark
+	public GameState snapshotAndRestore()
+	{
+		gameModel.snapshot(snapshot);
+		gameModel.restore(snapshot);
+		return gameModel;
+	}
+}
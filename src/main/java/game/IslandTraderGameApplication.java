@@ -1,12 +1,25 @@
 package game;
 
+import java.util.Arrays;
+
 import game.controllerClasses.GuiManager;
+import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
 public class IslandTraderGameApplication {
 
+    /**
+     * The argument that starts the HTTP server instead of the Swing game.
+     */
+    static final String SERVER_ARGUMENT = "--server";
+
     public static void main(String[] args) {
-        GuiManager.main(new String[]{});
+        if (Arrays.asList(args).contains(SERVER_ARGUMENT)) {
+            String[] springArgs = Arrays.stream(args).filter(arg -> !arg.equals(SERVER_ARGUMENT)).toArray(String[]::new);
+            SpringApplication.run(IslandTraderGameApplication.class, springArgs);
+        } else {
+            GuiManager.main(new String[]{});
+        }
     }
 }
@@ -0,0 +1,365 @@
+package game.controllerClasses;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import game.exceptions.WalkThePlankException;
+import game.primaryClasses.Island;
+import game.primaryClasses.Item;
+import game.primaryClasses.Upgrade;
+import game.primaryClasses.WorldTemplate;
+
+/**
+ * An append-only journal of every action the player takes in an island trader game.
+ * <br>
+ * The journal starts with the game as it was when recording began, encoded the same way as a
+ * game in a {@link SaveFile}, which includes the seed of the games random events. Each action
+ * the {@link GameEnvironment} carries out is then appended as a fixed size entry of its type
+ * and two values: <br>
+ * - buy and sell: the item id and the units traded <br>
+ * - repair: nothing <br>
+ * - upgrade: the id of the island whose store sells the upgrade <br>
+ * - sail: the id of the island sailed to <br>
+ * - pirates: the players dice roll and the pirates dice roll
+ * <br>
+ * Random events are not recorded because they follow from the seed. Replaying a journal with
+ * {@link #replay(Path, GameListener, WorldTemplate)} runs each action through a headless
+ * GameEnvironment in the world the game was played in, so it rebuilds the game exactly, for
+ * post-mortems of surprising scores and for reproducible performance runs.
+ *
+ * @see GameEnvironment#setJournal(ActionJournal)
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class ActionJournal implements Closeable
+{
+	/**
+	 * The first four bytes of every journal, "ITJN".
+	 */
+	private static final int MAGIC = 0x49544A4E;
+
+	/**
+	 * The version of the format written by this class.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The size of each entry: its type and two values.
+	 */
+	private static final int ENTRY_SIZE = 1 + 2 * Integer.BYTES;
+
+	private static final byte BUY = 1;
+	private static final byte SELL = 2;
+	private static final byte REPAIR = 3;
+	private static final byte UPGRADE = 4;
+	private static final byte SAIL = 5;
+	private static final byte PIRATES = 6;
+
+	private DataOutputStream out;
+	private int actions;
+
+	/**
+	 * Starts a journal of a game written to an output stream and attaches it to the game.
+	 *
+	 * @param out - the stream the journal is written to.
+	 * @param game - the GameEnvironment whose actions are recorded, with its GameState set.
+	 * @throws IOException if the start of the journal can not be written.
+	 */
+	public ActionJournal(OutputStream out, GameEnvironment game) throws IOException
+	{
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.out.writeInt(MAGIC);
+		this.out.writeInt(VERSION);
+		ByteBuffer start = SaveFile.encode(game);
+		this.out.write(start.array(), start.arrayOffset() + start.position(), start.remaining());
+		game.setJournal(this);
+	}
+
+	/**
+	 * Starts a journal of a game in a new file and attaches it to the game.
+	 *
+	 * @param path - the path of the journal file, which must not already exist.
+	 * @param game - the GameEnvironment whose actions are recorded, with its GameState set.
+	 * @return journal - the started journal.
+	 * @throws IOException if the file exists or can not be written.
+	 */
+	public static ActionJournal start(Path path, GameEnvironment game) throws IOException
+	{
+		return new ActionJournal(Files.newOutputStream(path, StandardOpenOption.CREATE_NEW), game);
+	}
+
+	/**
+	 * Gets the number of actions recorded in this journal.
+	 *
+	 * @return actions - the number of actions recorded.
+	 */
+	public int getActions()
+	{
+		return actions;
+	}
+
+	/**
+	 * Records units of an item being bought.
+	 *
+	 * @param item - the item bought.
+	 * @param units - the number of units bought.
+	 */
+	void recordBuy(Item item, int units)
+	{
+		record(BUY, item.getId(), units);
+	}
+
+	/**
+	 * Records units of an item being sold.
+	 *
+	 * @param item - the item sold.
+	 * @param units - the number of units sold.
+	 */
+	void recordSell(Item item, int units)
+	{
+		record(SELL, item.getId(), units);
+	}
+
+	/**
+	 * Records the ship being repaired.
+	 */
+	void recordRepair()
+	{
+		record(REPAIR, 0, 0);
+	}
+
+	/**
+	 * Records an upgrade being bought.
+	 *
+	 * @param islandId - the id of the island whose store sells the upgrade.
+	 */
+	void recordUpgrade(int islandId)
+	{
+		record(UPGRADE, islandId, 0);
+	}
+
+	/**
+	 * Records the player sailing to an island.
+	 *
+	 * @param island - the island sailed to.
+	 */
+	void recordSail(Island island)
+	{
+		record(SAIL, island.getId(), 0);
+	}
+
+	/**
+	 * Records the dice rolled when the results of a pirates event are found.
+	 *
+	 * @param playersRoll - the players roll, before any bonus from cannons.
+	 * @param piratesRoll - the pirates roll.
+	 */
+	void recordPirates(int playersRoll, int piratesRoll)
+	{
+		record(PIRATES, playersRoll, piratesRoll);
+	}
+
+	/**
+	 * Appends an entry to the journal.
+	 *
+	 * @param type - the type of action.
+	 * @param first - the first value of the action.
+	 * @param second - the second value of the action.
+	 * @throws UncheckedIOException if the entry can not be written.
+	 */
+	private void record(byte type, int first, int second)
+	{
+		try
+		{
+			out.writeByte(type);
+			out.writeInt(first);
+			out.writeInt(second);
+			actions++;
+		}
+		catch (IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Writes any buffered entries to the journal's stream.
+	 *
+	 * @throws IOException if the entries can not be written.
+	 */
+	public void flush() throws IOException
+	{
+		out.flush();
+	}
+
+	/**
+	 * Writes any buffered entries and closes the journal's stream.
+	 *
+	 * @throws IOException if the entries can not be written.
+	 */
+	public void close() throws IOException
+	{
+		out.close();
+	}
+
+	/**
+	 * Replays a journal file of a game in the default world, see
+	 * {@link #replay(ByteBuffer, GameListener, WorldTemplate)}.
+	 *
+	 * @param path - the path of the journal file.
+	 * @param listener - the GameListener the replayed game reports to.
+	 * @return gameController - the GameEnvironment running the replayed game.
+	 * @throws IOException if the file can not be read, is damaged or does not match its game.
+	 */
+	public static GameEnvironment replay(Path path, GameListener listener) throws IOException
+	{
+		return replay(path, listener, WorldTemplate.getDefault());
+	}
+
+	/**
+	 * Replays a journal file, see {@link #replay(ByteBuffer, GameListener, WorldTemplate)}.
+	 *
+	 * @param path - the path of the journal file.
+	 * @param listener - the GameListener the replayed game reports to.
+	 * @param world - the world the game was played in.
+	 * @return gameController - the GameEnvironment running the replayed game.
+	 * @throws IOException if the file can not be read, is damaged or does not match its game.
+	 */
+	public static GameEnvironment replay(Path path, GameListener listener, WorldTemplate world) throws IOException
+	{
+		return replay(ByteBuffer.wrap(Files.readAllBytes(path)), listener, world);
+	}
+
+	/**
+	 * Replays a journal of a game in the default world, see
+	 * {@link #replay(ByteBuffer, GameListener, WorldTemplate)}.
+	 *
+	 * @param journal - the bytes of the journal.
+	 * @param listener - the GameListener the replayed game reports to.
+	 * @return gameController - the GameEnvironment running the replayed game.
+	 * @throws IOException if the journal is damaged, is from a different world or does not match its game.
+	 */
+	public static GameEnvironment replay(ByteBuffer journal, GameListener listener) throws IOException
+	{
+		return replay(journal, listener, WorldTemplate.getDefault());
+	}
+
+	/**
+	 * Rebuilds a game by replaying a journal through a new GameEnvironment.
+	 * <br>
+	 * Each action is carried out with the try methods of the GameEnvironment and must succeed
+	 * as it did when it was recorded, and each pirates event must roll the recorded dice, so a
+	 * replay that has drifted from the recorded game stops rather than playing on. A partly
+	 * written entry at the end of the journal, left when a game stops without closing its
+	 * journal, is ignored.
+	 *
+	 * @param journal - the bytes of the journal.
+	 * @param listener - the GameListener the replayed game reports to.
+	 * @param world - the world the game was played in.
+	 * @return gameController - the GameEnvironment running the replayed game.
+	 * @throws IOException if the journal is damaged, is from a different world or does not match its game.
+	 */
+	public static GameEnvironment replay(ByteBuffer journal, GameListener listener, WorldTemplate world)
+			throws IOException
+	{
+		if (journal.remaining() < 3 * Integer.BYTES || journal.getInt() != MAGIC)
+		{
+			throw new IOException("This is not an island trader journal");
+		}
+		int version = journal.getInt();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported journal version " + version);
+		}
+		int startLength = journal.getInt();
+		if (startLength < 0 || startLength > journal.remaining())
+		{
+			throw new IOException("The start of the journal is incomplete");
+		}
+		ByteBuffer start = journal.slice(journal.position(), startLength);
+		journal.position(journal.position() + startLength);
+		GameEnvironment gameController;
+		try
+		{
+			gameController = SaveFile.decode(start, listener, world);
+		}
+		catch (IOException exception)
+		{
+			throw new IOException("The start of the journal " + exception.getMessage());
+		}
+
+		GameState gameModel = gameController.getGameState();
+		ArrayList<Item> items = gameController.getItemsList();
+		ArrayList<Island> islands = gameModel.getIslandsList();
+		int action = 0;
+		while (journal.remaining() >= ENTRY_SIZE)
+		{
+			byte type = journal.get();
+			int first = journal.getInt();
+			int second = journal.getInt();
+			ActionResult result;
+			try
+			{
+				switch (type)
+				{
+				case BUY:
+					result = gameController.tryBuyItem(items.get(first), second);
+					break;
+				case SELL:
+					result = gameController.trySellItem(items.get(first), second);
+					break;
+				case REPAIR:
+					result = gameController.tryRepairShip();
+					break;
+				case UPGRADE:
+					Upgrade upgrade = islands.get(first).getStore().getUpgrade();
+					result = gameController.tryUpgradeShip(upgrade);
+					break;
+				case SAIL:
+					gameController.setViewedIsland(islands.get(first));
+					result = gameController.trySail();
+					break;
+				case PIRATES:
+					result = ActionResult.SUCCESS;
+					try
+					{
+						gameController.getPiratesResults();
+					}
+					catch (WalkThePlankException exception)
+					{
+						// The game is over, as it was when the action was recorded
+					}
+					if (gameController.getLastPlayersRoll() != first || gameController.getLastPiratesRoll() != second)
+					{
+						throw new IOException("Action " + action + " does not match the game: the dice rolled "
+								+ gameController.getLastPlayersRoll() + " and " + gameController.getLastPiratesRoll()
+								+ " but " + first + " and " + second + " were recorded");
+					}
+					break;
+				default:
+					throw new IOException("Unknown action " + type + " at action " + action);
+				}
+			}
+			catch (IndexOutOfBoundsException | IllegalArgumentException exception)
+			{
+				throw new IOException("Action " + action + " is damaged: " + exception.getMessage());
+			}
+			if (!result.isSuccess() || ((type == BUY || type == SELL) && gameController.getLastTradeQuantity() != second))
+			{
+				throw new IOException("Action " + action + " does not match the game: " + result);
+			}
+			action++;
+		}
+		return gameController;
+	}
+}
@@ -0,0 +1,112 @@
+package game.controllerClasses;
+
+/**
+ * The outcome of a player action in the island trader game.
+ * <br>
+ * The try methods of {@link GameEnvironment}, such as {@link GameEnvironment#trySail()}, return
+ * one of these instead of throwing an exception when the action is rejected. They are constants,
+ * so rejecting an action allocates nothing. The message for a rejection is only formatted when
+ * {@link #getMessage(Object...)} is called, for example by the {@link GuiManager} when it shows
+ * the player why the action failed.
+ *
+ * @see GameEnvironment
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public enum ActionResult
+{
+	/**
+	 * The action was carried out.
+	 */
+	SUCCESS(""),
+
+	/**
+	 * The player tried to sail to the island they are already at.
+	 */
+	ALREADY_AT_ISLAND("You are already at this island"),
+
+	/**
+	 * No route joins the player's island to the island they tried to sail to.
+	 */
+	NO_ROUTE("There is no route to this island"),
+
+	/**
+	 * The player can not afford to sail to the island.
+	 */
+	CANNOT_AFFORD_SAIL("Insufficient Funds to sail"),
+
+	/**
+	 * The ship is already at full health. Formatted with the ship's name.
+	 */
+	ALREADY_REPAIRED("%s is Already fully repaired"),
+
+	/**
+	 * The player can not afford to repair the ship. Formatted with the ship's name.
+	 */
+	CANNOT_AFFORD_REPAIR("You can't afford to repair %s"),
+
+	/**
+	 * The store has none of the item. Formatted with the store's name and the item's name.
+	 */
+	OUT_OF_STOCK("%s is out of %s"),
+
+	/**
+	 * The player can not afford one of the item. Formatted with the item's name.
+	 */
+	CANNOT_AFFORD_ITEM("You can not afford %s"),
+
+	/**
+	 * The ship does not have the capacity for one of the item. Formatted with the item's name.
+	 */
+	NO_CAPACITY("You don't have enough space for %s"),
+
+	/**
+	 * The player does not own any of the item. Formatted with the item's name.
+	 */
+	NOTHING_TO_SELL("You do not have any %s to sell"),
+
+	/**
+	 * The ship already has the upgrade.
+	 */
+	ALREADY_UPGRADED("Your ship already has this upgrade"),
+
+	/**
+	 * The player can not afford the upgrade.
+	 */
+	CANNOT_AFFORD_UPGRADE("You can't afford this upgrade");
+
+	private final String template;
+
+	/**
+	 * Creates an ActionResult with the template of its message.
+	 *
+	 * @param template - the message template, with a %s for each name it is formatted with.
+	 */
+	ActionResult(String template)
+	{
+		this.template = template;
+	}
+
+	/**
+	 * Checks if this result means the action was carried out.
+	 *
+	 * @return boolean - true if this is {@link #SUCCESS}, false if the action was rejected.
+	 */
+	public boolean isSuccess()
+	{
+		return this == SUCCESS;
+	}
+
+	/**
+	 * Formats the message telling the player about this result.
+	 *
+	 * @param names - the names this results message is formatted with, in the order given in
+	 * the description of the result.
+	 * @return message - the message for this result.
+	 */
+	public String getMessage(Object... names)
+	{
+		return names.length == 0 ? template : String.format(template, names);
+	}
+}
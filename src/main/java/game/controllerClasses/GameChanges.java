@@ -0,0 +1,150 @@
+package game.controllerClasses;
+
+import game.primaryClasses.Item;
+
+/**
+ * The parts of a {@link GameState} that have changed since a display last drew the game.
+ * <br>
+ * Each GameState marks its changes here as they happen: a flag for each kind of change to the
+ * whole game, such as the players money or the current island, and the id of each {@link Item}
+ * whose units owned or stock at the current store has changed. A display such as
+ * {@link GuiManager} reads the changes, redraws only the parts of the game they cover and then
+ * clears them, so one trade redraws one item however many items the game has. Each item is
+ * kept once however many times it changes, so a game that is never drawn keeps no more than
+ * one entry for each item.
+ *
+ * @see GameState#getChanges()
+ * @see GuiManager#updateGame()
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class GameChanges
+{
+	/**
+	 * The players money has changed.
+	 */
+	public static final int MONEY = 1;
+
+	/**
+	 * The day of the game has changed.
+	 */
+	public static final int DAY = 1 << 1;
+
+	/**
+	 * The players ship has changed: its health or its upgrades, and with them its speed and
+	 * cost per day.
+	 */
+	public static final int SHIP = 1 << 2;
+
+	/**
+	 * The player has moved to another island, so its store and every route from it are new.
+	 */
+	public static final int ISLAND = 1 << 3;
+
+	/**
+	 * The stock and prices of every store may have changed, as when the market is ticked.
+	 */
+	public static final int MARKET = 1 << 4;
+
+	/**
+	 * The player, their ship or the game length has been chosen, or the whole game restored.
+	 */
+	public static final int PLAYER = 1 << 5;
+
+	/**
+	 * The weight of the cargo on the players ship has changed, as with every trade.
+	 */
+	public static final int CARGO = 1 << 6;
+
+	/**
+	 * Every flag, marked when the whole game must be drawn again.
+	 */
+	public static final int ALL = (1 << 7) - 1;
+
+	private int flags;
+	private final boolean[] itemChanged;
+	private final int[] itemIds;
+	private int itemCount;
+
+	/**
+	 * Creates the changes of a game with every flag marked, since nothing has been drawn yet.
+	 *
+	 * @param items - the number of items in the game.
+	 */
+	GameChanges(int items)
+	{
+		flags = ALL;
+		itemChanged = new boolean[items];
+		itemIds = new int[items];
+	}
+
+	/**
+	 * Marks kinds of change to the whole game.
+	 *
+	 * @param flags - the flags of the changes, such as {@link #MONEY} or {@link #SHIP}.
+	 */
+	void mark(int flags)
+	{
+		this.flags |= flags;
+	}
+
+	/**
+	 * Marks an item whose units owned or stock at the current store have changed.
+	 *
+	 * @param item - the item changed.
+	 */
+	void markItem(Item item)
+	{
+		if (!itemChanged[item.getId()])
+		{
+			itemChanged[item.getId()] = true;
+			itemIds[itemCount++] = item.getId();
+		}
+	}
+
+	/**
+	 * Checks if any of the given kinds of change have been marked since the changes were cleared.
+	 *
+	 * @param flags - the flags of the changes.
+	 * @return boolean - true if any of the flags are marked.
+	 */
+	public boolean has(int flags)
+	{
+		return (this.flags & flags) != 0;
+	}
+
+	/**
+	 * Gets the number of items marked as changed.
+	 *
+	 * @return itemCount - the number of changed items.
+	 */
+	public int getItemCount()
+	{
+		return itemCount;
+	}
+
+	/**
+	 * Gets the id of a changed item, in the order they were first marked.
+	 *
+	 * @param index - the index of the changed item, less than {@link #getItemCount()}.
+	 * @return itemId - the id of the item.
+	 */
+	public int getItemId(int index)
+	{
+		return itemIds[index];
+	}
+
+	/**
+	 * Clears every change, once the display has drawn them.
+	 */
+	public void clear()
+	{
+		flags = 0;
+		for (int index = 0; index < itemCount; index++)
+		{
+			itemChanged[itemIds[index]] = false;
+		}
+		itemCount = 0;
+	}
+}
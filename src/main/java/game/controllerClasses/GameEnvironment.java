@@ -1,7 +1,7 @@
 package game.controllerClasses;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.SplittableRandom;
 
 import game.exceptions.IllegalNameException;
 import game.exceptions.ItemSaleException;
@@ -9,11 +9,16 @@ import game.exceptions.RepairIssueException;
 import game.exceptions.SailIssueException;
 import game.exceptions.ShipUpgradeException;
 import game.exceptions.WalkThePlankException;
+import game.primaryClasses.DistanceMatrix;
 import game.primaryClasses.Island;
 import game.primaryClasses.Item;
+import game.primaryClasses.ItemTable;
+import game.primaryClasses.Market;
 import game.primaryClasses.Store;
 import game.primaryClasses.Upgrade;
+import game.primaryClasses.WorldTemplate;
 import game.shipClasses.Ship;
+import game.shipClasses.TravelTable;
 
 /**
  * This is the main class that controls activity in the island trader game.
@@ -21,7 +26,11 @@ import game.shipClasses.Ship;
  * Game Environment creates the initial state of the game by initialising the
  * games {@link Island}s, {@link Store}s and {@link Item}s. This class along
  * with {@link GameState} determines the games GUI Display. 
+ * <br>
+ * Everything the player needs to be told about is reported through a {@link GameListener},
+ * so the game can run behind the {@link GuiManager} or headless with a {@link HeadlessGameListener}.
  *
+ * @see GameListener
  * @see GuiManager
  * @see GameState
  * 
@@ -31,36 +40,113 @@ import game.shipClasses.Ship;
 public class GameEnvironment 
 {
 	private GameState gameModel;
-	private GuiManager gui;
+	private GameListener listener;
 	
 	private Island viewedIsland;
 	private ArrayList<Item> items;
-	private RandomEvent random = new RandomEvent(this);
-	
-	private Item wood;
-	private Item charcoal;
-	private Item iron;
-	private Item steel;
-	private Item wool;
-	private Item silk;
-	private Item beef;
-	private Item lobster;
-	private Item gold;
-	private Item diamond;
-	
-	private Island axemansBay;
-	private Island moltenMonetain;
-	private Island cosyCove;
-	private Island richesResort;
-	private Island dinersDock;
+	private Market market;
+	private RandomEvent random;
+	private int lastTradeQuantity;
+	private int lastPlayersRoll;
+	private int lastPiratesRoll;
+	private GameMetrics metrics = GameMetrics.NONE;
+	private ActionJournal journal;
+	private WorldTemplate world;
 	
 	/**
 	 * Creates an instance of this GameEnvironment class.
 	 * 
-	 * @param gui - The {@link GuiManager} that this GameEnvironment is running.
+	 * @param listener - The {@link GameListener} this GameEnvironment reports to, such as the
+	 * {@link GuiManager} that is running it.
 	 */
-	public GameEnvironment(GuiManager gui) {
-		this.gui = gui;
+	public GameEnvironment(GameListener listener) {
+		this(listener, new SplittableRandom().nextLong());
+	}
+	
+	/**
+	 * Creates an instance of this GameEnvironment class whose random events are derived from
+	 * the given seed. Two games with the same seed and the same player actions have the same
+	 * random events.
+	 * 
+	 * @param listener - The {@link GameListener} this GameEnvironment reports to.
+	 * @param seed - The seed for this games {@link RandomEvent}s.
+	 */
+	public GameEnvironment(GameListener listener, long seed) {
+		this(listener, seed, WorldTemplate.getDefault());
+	}
+	
+	/**
+	 * Creates an instance of this GameEnvironment class that plays in the given world, with
+	 * random events derived from the given seed.
+	 * 
+	 * @param listener - The {@link GameListener} this GameEnvironment reports to.
+	 * @param seed - The seed for this games {@link RandomEvent}s.
+	 * @param world - The {@link WorldTemplate} the games islands are created from.
+	 */
+	public GameEnvironment(GameListener listener, long seed, WorldTemplate world) {
+		this.listener = listener;
+		random = new RandomEvent(this, seed);
+		this.world = world;
+	}
+	
+	/**
+	 * Creates an instance of this GameEnvironment class that runs headless, reporting to a
+	 * new {@link HeadlessGameListener}.
+	 */
+	public GameEnvironment() {
+		this(new HeadlessGameListener());
+	}
+	
+	/**
+	 * Gets the seed this games random events are derived from.
+	 * 
+	 * @return seed - the seed of this games {@link RandomEvent}s.
+	 */
+	public long getSeed()
+	{
+		return random.getSeed();
+	}
+	
+	/**
+	 * Gets the {@link RandomEvent} that rolls this games random events, so a {@link GameState}
+	 * snapshot can save and restore its position.
+	 * 
+	 * @return random - this games RandomEvent.
+	 */
+	RandomEvent getRandomEvent()
+	{
+		return random;
+	}
+	
+	/**
+	 * Sets the {@link GameMetrics} this game reports its actions and random events to. Games
+	 * report to {@link GameMetrics#NONE} until this is called.
+	 * 
+	 * @param metrics - the GameMetrics to report to.
+	 */
+	public void setMetrics(GameMetrics metrics)
+	{
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Gets the {@link GameMetrics} this game reports its actions and random events to.
+	 * 
+	 * @return metrics - the GameMetrics of this game.
+	 */
+	public GameMetrics getMetrics()
+	{
+		return metrics;
+	}
+	
+	/**
+	 * Gets the {@link GameListener} this GameEnvironment reports to.
+	 * 
+	 * @return listener - the listener told about changes to the game.
+	 */
+	public GameListener getListener()
+	{
+		return listener;
 	}
 
 	/**
@@ -76,6 +162,26 @@ public class GameEnvironment
 		this.gameModel = gameState;
 	}
 	
+	/**
+	 * Gets the state of the game run by this GameEnvironment.
+	 * 
+	 * @return gameModel - the GameState of the current island trader game.
+	 */
+	public GameState getGameState()
+	{
+		return gameModel;
+	}
+	
+	/**
+	 * Sets the {@link ActionJournal} every action carried out in this game is recorded in.
+	 * 
+	 * @param journal - the journal to record actions in, or null to stop recording.
+	 */
+	public void setJournal(ActionJournal journal)
+	{
+		this.journal = journal;
+	}
+	
 	/**
 	 * Gets the island that the player is viewing in the information panel of the island trader games guiManager.
 	 * <br>
@@ -118,7 +224,7 @@ public class GameEnvironment
 	 * @throws IllegalNameException if the name is invalid. This exception is built to tell
 	 * the player why their choose was illegal.
 	 */
-	public boolean checkValidName(String name) throws IllegalNameException
+	public static boolean checkValidName(String name) throws IllegalNameException
 	{
 		// Test if String length is valid
 		if (name.length() < 3 || name.length() > 15)
@@ -147,352 +253,161 @@ public class GameEnvironment
 	 * This method creates and returns the Arraylist of islands used in the island trader game. 
 	 * <br>
 	 * This method is called by the GameState class in it's constructor.
-	 * It uses a bottom up approach, first building the games Items, then
-	 * building the games stores before building the games islands.
+	 * The games {@link Item}s, {@link Store}s and {@link Island}s are created from this games
+	 * {@link WorldTemplate}, which is loaded from a world file once and shared by every game.
+	 * Each game gets its own stores and islands, whose prices and stock are kept by one new
+	 * {@link Market}.
 	 * 
-	 * @see #createItems()
-	 * @see #createStores()
-	 * @see #createIslands(ArrayList)
+	 * @see WorldTemplate#createIslands(Market)
 	 * @return islands - the arraylist of islands used in the island trader game.
 	 */
 	public ArrayList<Island> formIslands() 
 	{
-		createItems();
-		ArrayList<Store> stores = createStores();
-		ArrayList<Island> islands = createIslands(stores);
-		islands = setIslandDistances(islands);
-		
-		return islands;
+		items = new ArrayList<Item>(world.getItems());
+		market = world.createMarket();
+		return world.createIslands(market);
 	}
-
-	/**
-	 * This is a helper method for the {@link #formIslands()} method.
-	 * <br>
-	 * It creates the items used in the island trader game. Each {@link Item} has it's
-	 * attributes defined in this method. The items created are also added to an Arraylist
-	 * items, which is used for creating the players initial inventory in the
-	 * {@link #formInventory()} method and for creating the component hashtables
-	 * in the guiManager class.
-	 */
-	public void createItems() {
-		items = new ArrayList<Item>();
-		
-		wood = new Item("Wood", 3, 30);
-		charcoal = new Item("Charcoal", 5, 50);
-		iron = new Item("Iron", 10 , 80);
-		steel = new Item("Steel", 15, 200);
-		wool = new Item("Wool", 2, 50);
-		silk = new Item("Silk", 1, 100);
-		beef = new Item("Beef", 4, 20);
-		lobster = new Item("Lobster", 5, 70);
-		gold = new Item("Gold", 25, 300);
-		diamond = new Item("Diamond", 30, 1000);
-		
-		items.add(wood);
-		items.add(charcoal);
-		items.add(iron);
-		items.add(steel);
-		items.add(wool);
-		items.add(silk);
-		items.add(beef);
-		items.add(lobster);
-		items.add(gold);
-		items.add(diamond);
-	}	
 	
 	/**
-	 * Gets the arraylist of {@link Item}s bought and sold in the island trader game.
+	 * Gets the {@link WorldTemplate} this games islands are created from.
 	 * 
-	 * @return items - the arraylist of items used in the island trader game.
+	 * @return world - the world of this game.
 	 */
-	public ArrayList<Item> getItemsList()
+	public WorldTemplate getWorld()
 	{
-		return items;
+		return world;
 	}
 	
 	/**
-	 * This is a helper method for the {@link #formIslands()} method. 
-	 * <br>
-	 * It creates the stores used in the island trader game. Each {@link Store} has
-	 * it's attributes defined in this method. 
+	 * Gets the {@link Market} that keeps the prices and stock of every store in the game.
 	 * 
-	 * @return stores - An arraylist of {@link Store}s used to create the games islands.
+	 * @return market - the Market of the games stores.
 	 */
-	public ArrayList<Store> createStores() 
+	public Market getMarket()
 	{
-		Hashtable<Item, Integer> defaultStorePrices = new Hashtable<Item, Integer>();
-		Hashtable<Item, Integer> defaultStoreStock = new Hashtable<Item, Integer>();
-		for (Item item : items)
-		{
-			defaultStorePrices.put(item, item.getDefaultPrice());
-			defaultStoreStock.put(item, 0);
-		}
-		
-		String store1name = "The Lumber Yard";
-		Hashtable<Item, Integer> store1prices = new Hashtable<Item, Integer>(defaultStorePrices);
-		Hashtable<Item, Integer> store1stock = new Hashtable<Item, Integer>(defaultStoreStock);
-		store1prices.put(wood, 10);
-		store1prices.put(charcoal, 15);
-		store1prices.put(beef, 50);
-		store1prices.put(lobster, 300);
-		store1stock.put(wood, 10);
-		store1stock.put(charcoal, 8);
-		String upgrade1description = "Storage Boxes added to your ship increases the maximum capacity of the ship by 50%";
-		Upgrade store1upgrade = new Upgrade("Storage Boxes", 800, 4, upgrade1description, "/StorageBoxes.png");
-		Store store1 = new Store(store1name, store1prices, store1stock, store1upgrade);
-		
-		String store2name = "John Smith's";
-		Hashtable<Item, Integer> store2prices = new Hashtable<Item, Integer>(defaultStorePrices);
-		Hashtable<Item, Integer> store2stock = new Hashtable<Item, Integer>(defaultStoreStock);
-		store2prices.put(iron, 30);
-		store2prices.put(steel, 60);
-		store2prices.put(wood, 100);
-		store2prices.put(charcoal, 150);
-		store2stock.put(iron, 10);
-		store2stock.put(steel, 8);
-		String upgrade2description = "Sailers are equipped with better tools. The cost to repair damage is halved";
-		Upgrade store2upgrade = new Upgrade("Forged Tools", 400, 1, upgrade2description, "/ForgedTools.png");
-		Store store2 = new Store(store2name, store2prices, store2stock, store2upgrade);
-		
-		String store3name = "Sue's Sewing Supplies";
-		Hashtable<Item, Integer> store3prices = new Hashtable<Item, Integer>(defaultStorePrices);
-		Hashtable<Item, Integer> store3stock = new Hashtable<Item, Integer>(defaultStoreStock);
-		store3prices.put(wool, 20);
-		store3prices.put(silk, 40);
-		store3prices.put(iron, 200);
-		store3prices.put(steel, 500);
-		store3stock.put(wool, 10);
-		store3stock.put(silk, 8);
-		String upgrade3description = "Bigger sails are mounted to the ship. The ship's speed is increased by 75%";
-		Upgrade store3upgrade = new Upgrade("Bigger Sails", 800, 5, upgrade3description, "/BiggerSails.png");
-		Store store3 = new Store(store3name, store3prices, store3stock, store3upgrade);
-		
-		String store4name = "Jimmy's Jeweller";
-		Hashtable<Item, Integer> store4prices = new Hashtable<Item, Integer>(defaultStorePrices);
-		Hashtable<Item, Integer> store4stock = new Hashtable<Item, Integer>(defaultStoreStock);
-		store4prices.put(gold, 100);
-		store4prices.put(diamond, 300);
-		store4prices.put(wool, 150);
-		store4prices.put(silk, 300);
-		store4stock.put(gold, 10);
-		store4stock.put(diamond, 8);
-		String upgrade4description = "Cannons are mounted to the ship helping defend you from pirates. Provides +2 on defensive dice rolls";
-		Upgrade store4upgrade = new Upgrade("Cannons", 700, 2, upgrade4description, "/Cannons.png");
-		Store store4 = new Store(store4name, store4prices, store4stock, store4upgrade);
-		
-		String store5name = "Kungpo's Kitchen";
-		Hashtable<Item, Integer> store5prices =new Hashtable<Item, Integer>(defaultStorePrices);
-		Hashtable<Item, Integer> store5stock = new Hashtable<Item, Integer>(defaultStoreStock);
-		store5prices.put(beef, 10);
-		store5prices.put(lobster, 30);
-		store5prices.put(gold, 700);
-		store5prices.put(diamond, 2500);
-		store5stock.put(beef, 10);
-		store5stock.put(lobster, 8);
-		String upgrade5description = "Your sailors are more satisfied by their dinner. Decreases sail cost to 50%";
-		Upgrade store5upgrade = new Upgrade("Feast Table", 600, 3, upgrade5description, "/FeastTable.png");
-		Store store5 = new Store(store5name, store5prices, store5stock, store5upgrade);
-		
-		ArrayList<Store> stores = new ArrayList<Store>();
-		stores.add(store1);
-		stores.add(store2);
-		stores.add(store3);
-		stores.add(store4);
-		stores.add(store5);
-		return stores;
+		return market;
 	}
 	
 	/**
-	 * This is a helper method for the {@link #formIslands()} method.
-	 * <br>
-	 * createIslands sets the initial attributes of each Island in the game using the
-	 * {@link Island#Island(String, Store, String, String)} constructor. This method does not
-	 * set the distances between each of the islands. Each {@link Island} has it's attributes 
-	 * (besides distance) defined in this method. 
-	 * 
-	 * @param stores - The arraylist of stores created by {@link #createStores()} so that each
-	 * island has a store added to it.
-	 * @return islands - The arraylist of islands used in the island trader game, however these islands
-	 * do not have their distances set yet.
-	 */
-	public ArrayList<Island> createIslands(ArrayList<Store> stores) 
-	{
-		String island1name = "Axeman's Bay";
-		Store island1store = stores.get(0);
-		String island1supplies = "Lumber";
-		String island1demands = "Food";
-		axemansBay = new Island(island1name, island1store, island1supplies, island1demands);
-		
-		String island2name = "Molten Mountain";
-		Store island2store = stores.get(1);
-		String island2supplies = "Metal";
-		String island2demands = "Lumber";
-		moltenMonetain = new Island(island2name, island2store, island2supplies, island2demands);
-		
-		String island3name = "Cosy Cove";
-		Store island3store = stores.get(2);
-		String island3supplies = "Fabric";
-		String island3demands = "Metal";
-		cosyCove = new Island(island3name, island3store, island3supplies, island3demands);
-		
-		String island4name = "Riches Resort";
-		Store island4store = stores.get(3);
-		String island4supplies = "Jewels";
-		String island4demands = "Fabric";
-		richesResort = new Island(island4name, island4store, island4supplies, island4demands);
-		
-		String island5name = "Diner's Dock";
-		Store island5store = stores.get(4);
-		String island5supplies = "Food";
-		String island5demands = "Jewels";
-		dinersDock = new Island(island5name, island5store, island5supplies, island5demands);
-		
-		ArrayList<Island> islands = new ArrayList<Island>();
-		islands.add(axemansBay);
-		islands.add(moltenMonetain);
-		islands.add(cosyCove);
-		islands.add(richesResort);
-		islands.add(dinersDock);
-		
-		return islands;
-	}
-
-	/**
-	 * This is a helper method for the {@link #formIslands()} method.
-	 * <br>
-	 * setIslandDistances sets the distances between each of the islands in the arraylist
-	 * of islands creates in the method {@link #createIslands(ArrayList)}.
+	 * Gets the arraylist of {@link Item}s bought and sold in the island trader game.
 	 * 
-	 * @param islands - The arraylist of islands created from {@link #createIslands(ArrayList)}.
-	 * @return islands - The arraylist of islands created from {@link #createIslands(ArrayList)}
-	 * but with each of the islands now with their distance attribute set.
+	 * @return items - the arraylist of items used in the island trader game.
 	 */
-	public ArrayList<Island> setIslandDistances(ArrayList<Island> islands) 
+	public ArrayList<Item> getItemsList()
 	{
-		Island island1 = islands.get(0);
-		Island island2 = islands.get(1);
-		Island island3 = islands.get(2);
-		Island island4 = islands.get(3);
-		Island island5 = islands.get(4);
-		
-		Hashtable<Island, Integer> island1distances = new Hashtable<Island, Integer>();
-		island1distances.put(island1, 0);
-		island1distances.put(island2, 30);
-		island1distances.put(island3, 18);
-		island1distances.put(island4, 20);
-		island1distances.put(island5, 40);
-		island1.setDistances(island1distances);
-		
-		Hashtable<Island, Integer> island2distances = new Hashtable<Island, Integer>();
-		island2distances.put(island1, 30);
-		island2distances.put(island2, 0);
-		island2distances.put(island3, 14);
-		island2distances.put(island4, 40);
-		island2distances.put(island5, 20);
-		island2.setDistances(island2distances);
-		
-		Hashtable<Island, Integer> island3distances = new Hashtable<Island, Integer>();
-		island3distances.put(island1, 18);
-		island3distances.put(island2, 14);
-		island3distances.put(island3, 0);
-		island3distances.put(island4, 16);
-		island3distances.put(island5, 12);
-		island3.setDistances(island3distances);
-		
-		Hashtable<Island, Integer> island4distances = new Hashtable<Island, Integer>();
-		island4distances.put(island1, 20);
-		island4distances.put(island2, 40);
-		island4distances.put(island3, 16);
-		island4distances.put(island4, 0);
-		island4distances.put(island5, 30);
-		island4.setDistances(island4distances);
-		
-		Hashtable<Island, Integer> island5distances = new Hashtable<Island, Integer>();
-		island5distances.put(island1, 40);
-		island5distances.put(island2, 20);
-		island5distances.put(island3, 12);
-		island5distances.put(island4, 30);
-		island5distances.put(island5, 0);
-		island5.setDistances(island5distances);
-		
-		return islands;
+		return items;
 	}
 	
 	/**
 	 * Creates the inventory attribute of {@link GameState} for the island trader game.
 	 * <br>
 	 * The inventory is made by taking each item in this classes items arraylist (created
-	 * from {@link #createItems()}) and forming a Hashtable mapping islands to an initial
+	 * from {@link #formIslands()}) and forming an {@link ItemTable} mapping items to an initial
 	 * quantity of zero.
 	 * 
-	 * @return inventory - a hashtable mapping each item in the island trader game to zero.
+	 * @return inventory - an ItemTable mapping each item in the island trader game to zero.
 	 */
-	public Hashtable<Item, Integer> formInventory() 
+	public ItemTable formInventory() 
 	{
-		Hashtable<Item, Integer> inventory = new Hashtable<Item, Integer>();
-		for (Item item : items)
-		{
-			inventory.put(item, 0);
-		}
-		return inventory;
+		return new ItemTable(items);
 	}
 
 	/**
 	 * This method controls sailing between islands in the island trader game. 
 	 * <br>
+	 * Sails to the viewedIsland, see {@link #trySail()}.
+	 * <br><br>
+	 * Sail throws a SailIssueException if either ... <br>
+	 * (1) The player is already at the island they tried to sail to. <br>
+	 * (2) No route joins the players island to the island they tried to sail to. <br>
+	 * (3) The player cannot afford to sail to the island they attempted to.
+	 * @throws SailIssueException - If the sail attempt is invalid for any of the 3 reasons.
+	 */
+	public void sail() throws SailIssueException
+	{
+		ActionResult result = trySail();
+		if (!result.isSuccess())
+		{
+			throw(new SailIssueException(result.getMessage()));
+		}
+	}
+	
+	/**
+	 * Sails to the viewedIsland, returning an {@link ActionResult} instead of throwing when the
+	 * sail is rejected.
+	 * <br>
+	 * The days and cost of the voyage are looked up in the ships {@link TravelTable}.
+	 * <br>
 	 * If the sail is successful this method calls the methods 
 	 * {@link GameState#payMoney(int)} with the cost to sail, {@link GameState#setCurrentIsland(Island)}
 	 * setting the currentIsland to the viewedIsland, {@link GameState#incrementDay(int)} adding the 
-	 * sail time to the current day, {@link RandomEvent#randomEvent()} to run random event, 
-	 * {@link Store#restock()} to restock on each island in the game and  {@link GuiManager#updateGame()}.
+	 * sail time to the current day and ticking the {@link Market} for each day sailed,
+	 * {@link RandomEvent#randomEvent()} to run random event and {@link GameListener#updateGame()}.
 	 * <br> 
 	 * Note that random events are not called if the sail time causes the current day to reach the 
 	 * game length.
-	 * <br><br>
-	 * Sail throws a SailIssueException if either ... <br>
-	 * (1) The player is already at the island they tried to sail to. <br>
-	 * (2) The player cannot afford to sail to the island they attempted to.
-	 * @throws SailIssueException - If the sail attempt is invalid for either of the 2 reasons.
+	 * 
+	 * @return result - {@link ActionResult#SUCCESS}, {@link ActionResult#ALREADY_AT_ISLAND},
+	 * {@link ActionResult#NO_ROUTE} or {@link ActionResult#CANNOT_AFFORD_SAIL}.
 	 */
-	public void sail() throws SailIssueException
+	public ActionResult trySail()
+	{
+		long start = System.nanoTime();
+		TravelTable travelTable = gameModel.getShip().getTravelTable(gameModel.getIslandsList());
+		int daysTravel = travelTable.getDaysTravel(gameModel.getCurrentIsland(), viewedIsland);
+		int costToSail = travelTable.getCostToSail(gameModel.getCurrentIsland(), viewedIsland);
+		ActionResult result = sailToViewedIsland(daysTravel, costToSail);
+		metrics.sailed(result, daysTravel, costToSail, System.nanoTime() - start);
+		return result;
+	}
+	
+	/**
+	 * Sails to the viewedIsland for {@link #trySail()}, which reports the result to the metrics.
+	 * 
+	 * @param daysTravel - the days the voyage takes.
+	 * @param costToSail - the cost of the voyage ($).
+	 * @return result - the result of the sail.
+	 */
+	private ActionResult sailToViewedIsland(int daysTravel, int costToSail)
 	{
-		Integer distance = gameModel.getCurrentIsland().getDistances().get(viewedIsland);
-		Integer daysTravel = (distance / gameModel.getShip().getKmPerDay());
-		Integer costToSail = daysTravel * gameModel.getShip().getCostPerDay();
 		if (viewedIsland == gameModel.getCurrentIsland())
 		{
-			throw(new SailIssueException("You are already at this island"));
+			return ActionResult.ALREADY_AT_ISLAND;
+		}
+		else if (costToSail == DistanceMatrix.NO_ROUTE)
+		{
+			return ActionResult.NO_ROUTE;
 		}
 		else if (costToSail > gameModel.getMoney())
 		{
-			throw(new SailIssueException("Insufficient Funds to sail"));
+			return ActionResult.CANNOT_AFFORD_SAIL;
 		}
 		else
 		{
+			if (journal != null)
+			{
+				journal.recordSail(viewedIsland);
+			}
 			gameModel.payMoney(costToSail);
 			gameModel.setCurrentIsland(viewedIsland);
 			gameModel.incrementDay(daysTravel);
 			if (gameModel.gameLengthReached())
 			{
-				gui.changeToResultsScreen();
+				listener.changeToResultsScreen();
 			}
 			else
 			{
 				random.randomEvent();
-				for (Island island : gameModel.getIslandsList())
-				{
-					island.getStore().restock();
-				}
-				gui.updateGame();
+				listener.updateGame();
 			}
+			return ActionResult.SUCCESS;
 		}
 	}
 	
 	/**
 	 * This method controls Ship repairs in the Island Trader Game.
 	 * <br>
-	 * If the repair is successful this method calls {@link GameState#payMoney(int)} with the cost 
-	 * to repair, {@link Ship#repair()} and {@link GuiManager#updateGame()}
+	 * Repairs the ship, see {@link #tryRepairShip()}.
 	 * <br><br>
 	 * repairShip throws a RepairIssueException when either ...
 	 * <br>
@@ -503,35 +418,68 @@ public class GameEnvironment
 	 * @throws RepairIssueException - if the repair is invalid for either of the 2 reasons.
 	 */
 	public int repairShip() throws RepairIssueException
+	{
+		int repairCost = gameModel.getShip().costToRepair();
+		ActionResult result = tryRepairShip();
+		if (!result.isSuccess())
+		{
+			throw(new RepairIssueException(result.getMessage(gameModel.getShip().getName())));
+		}
+		return repairCost;
+	}
+	
+	/**
+	 * Repairs the ship, returning an {@link ActionResult} instead of throwing when the repair
+	 * is rejected.
+	 * <br>
+	 * If the repair is successful this method calls {@link GameState#payMoney(int)} with the cost 
+	 * to repair, {@link Ship#repair()} and {@link GameListener#updateGame()}
+	 * 
+	 * @return result - {@link ActionResult#SUCCESS}, {@link ActionResult#ALREADY_REPAIRED} or
+	 * {@link ActionResult#CANNOT_AFFORD_REPAIR}.
+	 */
+	public ActionResult tryRepairShip()
+	{
+		long start = System.nanoTime();
+		int money = gameModel.getMoney();
+		ActionResult result = repairIfDamaged();
+		metrics.repaired(result, money - gameModel.getMoney(), System.nanoTime() - start);
+		return result;
+	}
+	
+	/**
+	 * Repairs the ship for {@link #tryRepairShip()}, which reports the result to the metrics.
+	 * 
+	 * @return result - the result of the repair.
+	 */
+	private ActionResult repairIfDamaged()
 	{
 		int repairCost = gameModel.getShip().costToRepair();
 		if (repairCost == 0)
 		{
-			String errorString = gameModel.getShip().getName() + " is Already fully repaired";
-			throw(new RepairIssueException(errorString));
+			return ActionResult.ALREADY_REPAIRED;
 		}
 		else if (repairCost > gameModel.getMoney())
 		{
-			
-			String errorString = "You can't afford to repair " + gameModel.getShip().getName();
-			throw(new RepairIssueException(errorString));
+			return ActionResult.CANNOT_AFFORD_REPAIR;
 		}
 		else
 		{
 			gameModel.getShip().repair();
 			gameModel.payMoney(repairCost);
-			gui.updateGame();
-			return repairCost;
+			if (journal != null)
+			{
+				journal.recordRepair();
+			}
+			listener.updateGame();
+			return ActionResult.SUCCESS;
 		}
-		
 	}
 	
 	/**
 	 * This method controls the buying of items in the Island Trader Game.
 	 * <br>
-	 * If Item buying is successful buyItem calls {@link Store#decrementStock(Item)} and 
-	 * {@link GameState#addItem(Item)} with the Item the player is buying and calls 
-	 * {@link GameState#payMoney(int)} with the cost of the Item.
+	 * Buys a single unit of the item, see {@link #buyItem(Item, int)}.
 	 * <br><br>
 	 * buyItem throws an ItemSaleException if either ...
 	 * <br> 
@@ -543,38 +491,118 @@ public class GameEnvironment
 	 */
 	public void buyItem(Item item) throws ItemSaleException
 	{
+		buyItem(item, 1);
+	}
+	
+	/**
+	 * This method controls the buying of a quantity of items in the Island Trader Game.
+	 * <br>
+	 * Buys as many units as it can, see {@link #tryBuyItem(Item, int)}.
+	 * <br><br>
+	 * buyItem throws an ItemSaleException if not even one unit can be bought because either ...
+	 * <br> 
+	 * (1) The store has no stock. <br>
+	 * (2) The player can not afford the item. <br>
+	 * (3) The player does not have the capacity on their ship. <br>
+	 * @param item - The item the player is trying to buy.
+	 * @param quantity - The number of units the player is trying to buy.
+	 * @return unitsBought - The number of units actually bought, between 1 and quantity.
+	 * @throws ItemSaleException - if no units can be bought for any of the 3 reasons.
+	 * @throws IllegalArgumentException - if the quantity is less than one.
+	 */
+	public int buyItem(Item item, int quantity) throws ItemSaleException
+	{
+		ActionResult result = tryBuyItem(item, quantity);
+		if (result == ActionResult.OUT_OF_STOCK)
+		{
+			String storeName = gameModel.getCurrentIsland().getStore().getName();
+			throw new ItemSaleException(result.getMessage(storeName, item.getName()));
+		}
+		else if (!result.isSuccess())
+		{
+			throw new ItemSaleException(result.getMessage(item.getName()));
+		}
+		return lastTradeQuantity;
+	}
+	
+	/**
+	 * Buys a quantity of items, returning an {@link ActionResult} instead of throwing when no
+	 * units can be bought.
+	 * <br>
+	 * The number of units bought is the quantity asked for, limited by the stores stock, the
+	 * money the player has and the remaining capacity of their ship. Each unit costs more than
+	 * the last, see {@link Store#getBuyCost(Item, int)}. If any units can be bought this method
+	 * calls {@link GameState#payMoney(int)} with the cost of all of the units, and
+	 * {@link Store#decrementStock(Item, int)} and {@link GameState#addItem(Item, int)} with the
+	 * Item and the units bought. The units bought are kept for {@link #getLastTradeQuantity()}.
+	 * 
+	 * @param item - The item the player is trying to buy.
+	 * @param quantity - The number of units the player is trying to buy.
+	 * @return result - {@link ActionResult#SUCCESS}, {@link ActionResult#OUT_OF_STOCK},
+	 * {@link ActionResult#CANNOT_AFFORD_ITEM} or {@link ActionResult#NO_CAPACITY}.
+	 * @throws IllegalArgumentException - if the quantity is less than one.
+	 */
+	public ActionResult tryBuyItem(Item item, int quantity)
+	{
+		if (quantity < 1)
+		{
+			throw new IllegalArgumentException("Quantity to buy must be at least 1");
+		}
+		long start = System.nanoTime();
+		int money = gameModel.getMoney();
+		ActionResult result = buy(item, quantity);
+		metrics.bought(item, result, lastTradeQuantity, money - gameModel.getMoney(), System.nanoTime() - start);
+		return result;
+	}
+	
+	/**
+	 * Buys items for {@link #tryBuyItem(Item, int)}, which reports the result to the metrics.
+	 * 
+	 * @param item - The item the player is trying to buy.
+	 * @param quantity - The number of units the player is trying to buy, at least one.
+	 * @return result - the result of the purchase.
+	 */
+	private ActionResult buy(Item item, int quantity)
+	{
+		lastTradeQuantity = 0;
 		Store store = gameModel.getCurrentIsland().getStore();
 
-		int price = store.getPrices().get(item);
+		int stock = store.getStock().get(item);
+		int affordable = store.getAffordable(item, gameModel.getMoney());
 		int remainingCapacity = gameModel.getShip().getRemainingCapacity();
+		int fits = item.getWeight() == 0 ? Integer.MAX_VALUE : remainingCapacity / item.getWeight();
 		
-		if (store.getStock().get(item) == 0)
+		if (stock == 0)
 		{
-			throw new ItemSaleException(store.getName() + " is out of " + item.getName());
-
+			return ActionResult.OUT_OF_STOCK;
 		}
-		else if (price > gameModel.getMoney())
+		else if (affordable == 0)
 		{
-			throw new ItemSaleException("You can not afford " + item.getName());
+			return ActionResult.CANNOT_AFFORD_ITEM;
 		}
-		else if (remainingCapacity < item.getWeight())
+		else if (fits == 0)
 		{
-			throw new ItemSaleException("You don't have enough space for " + item.getName());
+			return ActionResult.NO_CAPACITY;
 		}
 		else
 		{
-			store.decrementStock(item);
-			gameModel.addItem(item);
-			gameModel.payMoney(price);
+			int unitsBought = Math.min(quantity, Math.min(stock, Math.min(affordable, fits)));
+			gameModel.payMoney((int) store.getBuyCost(item, unitsBought));
+			store.decrementStock(item, unitsBought);
+			gameModel.addItem(item, unitsBought);
+			lastTradeQuantity = unitsBought;
+			if (journal != null)
+			{
+				journal.recordBuy(item, unitsBought);
+			}
+			return ActionResult.SUCCESS;
 		}
 	}
 
 	/**
 	 * This method controls the selling of items in the Island Trader Game.
 	 * <br>
-	 * If Item buying is successful sellItem calls {@link Store#incrementStock(Item)} and 
-	 * {@link GameState#removeItem(Item)} with the Item the player is selling and calls 
-	 * {@link GameState#receiveMoney(int)} with the cost of the Item.
+	 * Sells a single unit of the item, see {@link #sellItem(Item, int)}.
 	 * <br><br>
 	 * sellItem throws an ItemSaleException if
 	 * the player tries to sell an item that they don't own any of.
@@ -584,30 +612,130 @@ public class GameEnvironment
 	 */
 	public void sellItem(Item item) throws ItemSaleException 
 	{
+		sellItem(item, 1);
+	}
+	
+	/**
+	 * This method controls the selling of a quantity of items in the Island Trader Game.
+	 * <br>
+	 * Sells as many units as it can, see {@link #trySellItem(Item, int)}.
+	 * <br><br>
+	 * sellItem throws an ItemSaleException if
+	 * the player tries to sell an item that they don't own any of.
+	 * 
+	 * @param item - the item the player is trying to sell.
+	 * @param quantity - the number of units the player is trying to sell.
+	 * @return unitsSold - The number of units actually sold, between 1 and quantity.
+	 * @throws ItemSaleException - if the player is trying to sell an Item they don't own.
+	 * @throws IllegalArgumentException - if the quantity is less than one.
+	 */
+	public int sellItem(Item item, int quantity) throws ItemSaleException 
+	{
+		ActionResult result = trySellItem(item, quantity);
+		if (!result.isSuccess())
+		{
+			throw new ItemSaleException(result.getMessage(item.getName()));
+		}
+		return lastTradeQuantity;
+	}
+	
+	/**
+	 * Sells a quantity of items, returning an {@link ActionResult} instead of throwing when the
+	 * player has none to sell.
+	 * <br>
+	 * The number of units sold is the quantity asked for, limited by the number the player owns.
+	 * Each unit pays less than the last, see {@link Store#getSaleValue(Item, int)}. This method
+	 * calls {@link GameState#receiveMoney(int)} with the value of all of the units, and
+	 * {@link Store#incrementStock(Item, int)} and {@link GameState#removeItem(Item, int)} with the
+	 * Item and the units sold. The units sold are kept for {@link #getLastTradeQuantity()}.
+	 * 
+	 * @param item - the item the player is trying to sell.
+	 * @param quantity - the number of units the player is trying to sell.
+	 * @return result - {@link ActionResult#SUCCESS} or {@link ActionResult#NOTHING_TO_SELL}.
+	 * @throws IllegalArgumentException - if the quantity is less than one.
+	 */
+	public ActionResult trySellItem(Item item, int quantity)
+	{
+		if (quantity < 1)
+		{
+			throw new IllegalArgumentException("Quantity to sell must be at least 1");
+		}
+		long start = System.nanoTime();
+		int money = gameModel.getMoney();
+		ActionResult result = sell(item, quantity);
+		metrics.sold(item, result, lastTradeQuantity, gameModel.getMoney() - money, System.nanoTime() - start);
+		return result;
+	}
+	
+	/**
+	 * Sells items for {@link #trySellItem(Item, int)}, which reports the result to the metrics.
+	 * 
+	 * @param item - the item the player is trying to sell.
+	 * @param quantity - the number of units the player is trying to sell, at least one.
+	 * @return result - the result of the sale.
+	 */
+	private ActionResult sell(Item item, int quantity)
+	{
+		lastTradeQuantity = 0;
 		int owned = gameModel.getInventory().get(item);
 		Store store = gameModel.getCurrentIsland().getStore();
-		int price = store.getPrices().get(item);
-
 
 		if (owned == 0)
 		{
-			throw new ItemSaleException("You do not have any " + item.getName() + " to sell");
+			return ActionResult.NOTHING_TO_SELL;
 		}
 		else
 		{
-			store.incrementStock(item);
-			gameModel.removeItem(item);
-			gameModel.receiveMoney(price);
+			int unitsSold = Math.min(quantity, owned);
+			gameModel.receiveMoney((int) Math.min(Integer.MAX_VALUE, store.getSaleValue(item, unitsSold)));
+			store.incrementStock(item, unitsSold);
+			gameModel.removeItem(item, unitsSold);
+			lastTradeQuantity = unitsSold;
+			if (journal != null)
+			{
+				journal.recordSell(item, unitsSold);
+			}
+			return ActionResult.SUCCESS;
 		}
 	}
 	
+	/**
+	 * Gets the number of units bought or sold by the last trade.
+	 * 
+	 * @return lastTradeQuantity - the units traded by the last call to {@link #tryBuyItem(Item, int)}
+	 * or {@link #trySellItem(Item, int)}, zero if it was rejected.
+	 */
+	public int getLastTradeQuantity()
+	{
+		return lastTradeQuantity;
+	}
+	
+	/**
+	 * Gets the players dice roll from the last pirates event, before any cannons are added.
+	 * 
+	 * @return lastPlayersRoll - the players roll from the last call to {@link #getPiratesResults()},
+	 * zero if there has been none.
+	 */
+	public int getLastPlayersRoll()
+	{
+		return lastPlayersRoll;
+	}
+	
+	/**
+	 * Gets the pirates dice roll from the last pirates event.
+	 * 
+	 * @return lastPiratesRoll - the pirates roll from the last call to {@link #getPiratesResults()},
+	 * zero if there has been none.
+	 */
+	public int getLastPiratesRoll()
+	{
+		return lastPiratesRoll;
+	}
+	
 	/**
 	 * This method controls the upgrading of the players ship in the Island Trader Game.
 	 * <br>
-	 * If the upgrading of the ship is successful this method calls {@link Ship#upgradeShip(Upgrade)}
-	 * with the upgrade parameter, {@link GameState#payMoney(int)} with the cost of the upgrade, 
-	 * {@link GameState#incrementDay(int)} with the time to build the upgrade and if this new current
-	 * day reaches the gameLength this method calls {@link GuiManager#changeToResultsScreen()}.
+	 * Upgrades the ship, see {@link #tryUpgradeShip(Upgrade)}.
 	 * <br><br>
 	 * upgradeShip throws a ShipUpgradeException if either ...
 	 * <br>
@@ -618,38 +746,80 @@ public class GameEnvironment
 	 * @throws ShipUpgradeException - if upgrading the ship is unsuccessful for either of the 2 reasons.
 	 */
 	public void upgradeShip(Upgrade upgrade) throws ShipUpgradeException 
+	{
+		ActionResult result = tryUpgradeShip(upgrade);
+		if (!result.isSuccess())
+		{
+			throw new ShipUpgradeException(result.getMessage());
+		}
+	}
+	
+	/**
+	 * Upgrades the players ship, returning an {@link ActionResult} instead of throwing when the
+	 * upgrade is rejected.
+	 * <br>
+	 * If the upgrading of the ship is successful this method calls {@link Ship#upgradeShip(Upgrade)}
+	 * with the upgrade parameter, {@link GameState#payMoney(int)} with the cost of the upgrade, 
+	 * {@link GameState#incrementDay(int)} with the time to build the upgrade and if this new current
+	 * day reaches the gameLength this method calls {@link GameListener#changeToResultsScreen()}.
+	 * 
+	 * @param upgrade - the {@link Upgrade} the player is trying to buy.
+	 * @return result - {@link ActionResult#SUCCESS}, {@link ActionResult#ALREADY_UPGRADED} or
+	 * {@link ActionResult#CANNOT_AFFORD_UPGRADE}.
+	 */
+	public ActionResult tryUpgradeShip(Upgrade upgrade) 
+	{
+		long start = System.nanoTime();
+		int money = gameModel.getMoney();
+		ActionResult result = upgrade(upgrade);
+		metrics.upgraded(result, money - gameModel.getMoney(), System.nanoTime() - start);
+		return result;
+	}
+	
+	/**
+	 * Upgrades the ship for {@link #tryUpgradeShip(Upgrade)}, which reports the result to the metrics.
+	 * 
+	 * @param upgrade - the {@link Upgrade} the player is trying to buy.
+	 * @return result - the result of the upgrade.
+	 */
+	private ActionResult upgrade(Upgrade upgrade)
 	{
 		Ship ship = gameModel.getShip();
 		if (ship.getUpgrades().contains(upgrade))
 		{
-			throw new ShipUpgradeException("Your ship already has this upgrade");
+			return ActionResult.ALREADY_UPGRADED;
 		}
 		else if (upgrade.getCost() > gameModel.getMoney())
 		{
-			throw new ShipUpgradeException("You can't afford this upgrade");
+			return ActionResult.CANNOT_AFFORD_UPGRADE;
 		}
 		else
 		{
+			if (journal != null)
+			{
+				journal.recordUpgrade(gameModel.upgradeIslandId(upgrade));
+			}
 			ship.upgradeShip(upgrade);
 			gameModel.payMoney(upgrade.getCost());
 			gameModel.incrementDay(upgrade.getBuildTime());
 			if (gameModel.gameLengthReached())
 			{
-				gui.changeToResultsScreen();
+				listener.changeToResultsScreen();
 			}
+			return ActionResult.SUCCESS;
 		}
 	}
 	
 	/**
 	 * This method simply prompts the user that a pirates random event has occurred.
 	 * <br>
-	 * This method only switches the GUI to the pirates random with
-	 * {@link GuiManager#piratesRandom()}. The main running of the pirates random event
+	 * This method only tells the listener about the pirates random with
+	 * {@link GameListener#piratesRandom()}. The main running of the pirates random event
 	 * is dealt with in the {@link #getPiratesResults()}
 	 */
 	public void startPiratesEvent() 
 	{
-		gui.piratesRandom();
+		listener.piratesRandom();
 	}
 	
 	/**
@@ -657,7 +827,8 @@ public class GameEnvironment
 	 * <br>
 	 * getPiratesResults gets a player and a pirates dice roll by calling 
 	 * {@link RandomEvent#diceRoll()}. If the players ship has the cannons {@link Upgrade}
-	 * the players dice roll has +2 added to it. 
+	 * the players dice roll has +2 added to it. Both rolls are kept for {@link #getLastPlayersRoll()}
+	 * and {@link #getLastPiratesRoll()}.
 	 * <br>
 	 * The pirates random can have the following results ... 
 	 * <br>
@@ -681,6 +852,12 @@ public class GameEnvironment
 		String results;
 		int playersRoll = random.diceRoll();
 		int piratesRoll = random.diceRoll();
+		lastPlayersRoll = playersRoll;
+		lastPiratesRoll = piratesRoll;
+		if (journal != null)
+		{
+			journal.recordPirates(playersRoll, piratesRoll);
+		}
 		String playersRollString = Integer.toString(playersRoll);
 		String piratesRollString = Integer.toString(piratesRoll);
 		if (gameModel.getShip().getHasCannons())
@@ -730,13 +907,13 @@ public class GameEnvironment
 	 * shipwreckedSailors calls {@link RandomEvent#randomMoney()} to determine a random 
 	 * int money to pay the player. It then pays the player by calling 
 	 * {@link GameState#receiveMoney(int)} with the determined amount. Finally this method
-	 * calls {@link GuiManager#shipWreckedSailorsRandom(int)} to prompt the user of the event. 
+	 * calls {@link GameListener#shipWreckedSailorsRandom(int)} to prompt the user of the event. 
 	 */
 	public void shipwreckedSailors() 
 	{
 		int moneyPaid = random.randomMoney();
 		gameModel.receiveMoney(moneyPaid);
-		gui.shipWreckedSailorsRandom(moneyPaid);
+		listener.shipWreckedSailorsRandom(moneyPaid);
 	}
 
 	/**
@@ -749,10 +926,10 @@ public class GameEnvironment
 	 * <br>
 	 * (1) If the damagetaken is less than the ships current health, the players ship takes the
 	 * damage and survives, in which case {@link Ship#damageTaken(int)} is called (with the damage
-	 * taken as the int), {@link GuiManager#badWeatherRandom(String)} is run with a prompt
+	 * taken as the int), {@link GameListener#badWeatherRandom(String)} is run with a prompt
 	 * message to tell the player about the event and the game continues. <br>
 	 * (2) If the damagetaken is greater than or equal to the ships current health then 
-	 * {@link GuiManager#badWeatherRandom(String)} is called with "Ship Sunk". To prompt the guiManager
+	 * {@link GameListener#badWeatherRandom(String)} is called with "Ship Sunk". To prompt the guiManager
 	 * that the game is over.
 	 */
 	public void badWeather()
@@ -760,14 +937,14 @@ public class GameEnvironment
 		int damageTaken = random.takeDamage();
 		if (damageTaken >= gameModel.getShip().getCurrentHealth())
 		{
-			gui.badWeatherRandom("Ship Sunk");
+			listener.badWeatherRandom("Ship Sunk");
 		}
 		else
 		{
 			String damageString = Integer.toString(damageTaken);
 			gameModel.getShip().damageTaken(damageTaken);
 			String message = "Your ship experienced bad weather and took " + damageString + " damage.";
-			gui.badWeatherRandom(message);
+			listener.badWeatherRandom(message);
 		}
 	}
 }
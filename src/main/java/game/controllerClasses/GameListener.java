@@ -0,0 +1,52 @@
+package game.controllerClasses;
+
+/**
+ * The GameListener interface for the Island Trader Game.
+ * <br>
+ * {@link GameEnvironment} reports everything the player needs to be told about through
+ * this interface rather than calling a graphical display directly. This lets the game
+ * run either behind the Swing display ({@link GuiManager}) or headless in a plain JVM
+ * ({@link HeadlessGameListener}), for example when simulating many games at once.
+ * 
+ * @see GameEnvironment
+ * @see GuiManager
+ * @see HeadlessGameListener
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public interface GameListener 
+{
+	/**
+	 * Called after an action changes the {@link GameState} so that any display of it
+	 * can be refreshed.
+	 */
+	void updateGame();
+	
+	/**
+	 * Called when the game is over, either because the game length was reached, the ship
+	 * sank or the player walked the plank.
+	 */
+	void changeToResultsScreen();
+	
+	/**
+	 * Called when a pirates random event has started. The event is not resolved until
+	 * {@link GameEnvironment#getPiratesResults()} is called.
+	 */
+	void piratesRandom();
+	
+	/**
+	 * Called when a shipwrecked sailors random event has occurred.
+	 * 
+	 * @param moneyPaid - the money the sailors paid the player.
+	 */
+	void shipWreckedSailorsRandom(int moneyPaid);
+	
+	/**
+	 * Called when a bad weather random event has occurred.
+	 * 
+	 * @param message - A short message about the result of the event, "Ship Sunk" if the
+	 * ship did not survive the weather.
+	 */
+	void badWeatherRandom(String message);
+}
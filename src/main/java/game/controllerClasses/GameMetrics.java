@@ -0,0 +1,101 @@
+package game.controllerClasses;
+
+import game.primaryClasses.Item;
+
+/**
+ * The GameMetrics interface for the Island Trader Game.
+ * <br>
+ * {@link GameEnvironment} reports each action the player takes, how long it took and what
+ * came of it through this interface, and {@link RandomEvent} reports each random event rolled.
+ * The game itself does not depend on any metrics library: games run by the Swing display and
+ * by simulations use {@link #NONE}, which ignores everything, and the server exports the
+ * metrics of every hosted game with a Micrometer implementation.
+ * <br>
+ * One GameMetrics may be shared by many games running on different threads, so
+ * implementations must be thread safe. Every method does nothing unless overridden.
+ *
+ * @see GameEnvironment#setMetrics(GameMetrics)
+ * @see game.serverClasses.MicrometerGameMetrics
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public interface GameMetrics
+{
+	/**
+	 * The GameMetrics that ignores everything, used by games that are not watched.
+	 */
+	GameMetrics NONE = new GameMetrics()
+	{
+	};
+
+	/**
+	 * Called after the player tries to sail to the viewed island.
+	 *
+	 * @param result - the result of the sail.
+	 * @param daysTravel - the days the voyage takes, or {@link game.primaryClasses.DistanceMatrix#NO_ROUTE}.
+	 * @param costToSail - the cost of the voyage ($), or {@link game.primaryClasses.DistanceMatrix#NO_ROUTE}.
+	 * @param nanos - the time the action took in nanoseconds.
+	 */
+	default void sailed(ActionResult result, int daysTravel, int costToSail, long nanos)
+	{
+	}
+
+	/**
+	 * Called after the player tries to buy an item.
+	 *
+	 * @param item - the item bought.
+	 * @param result - the result of the purchase.
+	 * @param units - the units bought, zero unless the result is {@link ActionResult#SUCCESS}.
+	 * @param money - the money paid ($).
+	 * @param nanos - the time the action took in nanoseconds.
+	 */
+	default void bought(Item item, ActionResult result, int units, int money, long nanos)
+	{
+	}
+
+	/**
+	 * Called after the player tries to sell an item.
+	 *
+	 * @param item - the item sold.
+	 * @param result - the result of the sale.
+	 * @param units - the units sold, zero unless the result is {@link ActionResult#SUCCESS}.
+	 * @param money - the money received ($).
+	 * @param nanos - the time the action took in nanoseconds.
+	 */
+	default void sold(Item item, ActionResult result, int units, int money, long nanos)
+	{
+	}
+
+	/**
+	 * Called after the player tries to repair their ship.
+	 *
+	 * @param result - the result of the repair.
+	 * @param cost - the money paid for the repair ($).
+	 * @param nanos - the time the action took in nanoseconds.
+	 */
+	default void repaired(ActionResult result, int cost, long nanos)
+	{
+	}
+
+	/**
+	 * Called after the player tries to upgrade their ship.
+	 *
+	 * @param result - the result of the upgrade.
+	 * @param cost - the money paid for the upgrade ($).
+	 * @param nanos - the time the action took in nanoseconds.
+	 */
+	default void upgraded(ActionResult result, int cost, long nanos)
+	{
+	}
+
+	/**
+	 * Called when the random event of a voyage has been rolled, before it happens.
+	 *
+	 * @param event - {@link RandomEvent#PIRATES}, {@link RandomEvent#SHIPWRECKED_SAILORS},
+	 * {@link RandomEvent#BAD_WEATHER} or any other value if no event occurs.
+	 */
+	default void randomEvent(int event)
+	{
+	}
+}
@@ -0,0 +1,246 @@
+package game.controllerClasses;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A snapshot of everything that changes during an island trader game, saved by
+ * {@link GameState#snapshot()} and put back by {@link GameState#restore(GameSnapshot)}.
+ * <br>
+ * The snapshot holds only primitives and int arrays. Islands and items are saved by their
+ * ids, the players {@link game.shipClasses.Ship} by its health, cargo weight and the islands
+ * whose upgrades it bought, the games {@link game.primaryClasses.Market} by the stock and
+ * pressure of only the items away from rest, and the games random events by the number of
+ * voyages and the draws made in the last one. Restoring a snapshot keeps the games islands,
+ * stores and ship, so bots can try an action, look ahead and roll back.
+ * <br>
+ * Taking or restoring a snapshot reads the stock and pressure of every item at every store
+ * once, the same pass as a day of {@link game.primaryClasses.Market#tick(int)}, but a snapshot
+ * only holds a few hundred bytes plus 12 bytes for each item a store is restocking or
+ * repricing after trades, however large the world is.
+ * <br>
+ * A snapshot can only be restored into the game it was taken from.
+ *
+ * @see GameState
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class GameSnapshot
+{
+	int money;
+	int currentDay;
+	int currentIslandId;
+	int viewedIslandId;
+
+	int shipHealth;
+	int shipWeight;
+	int[] upgradeIslandIds;
+
+	int[] inventory;
+	int marketChanges;
+	int[] marketIndices;
+	int[] storeStock;
+	int[] storePressure;
+
+	int voyages;
+	int[] draws;
+
+	/**
+	 * Creates an empty snapshot sized for a game, ready to be filled by
+	 * {@link GameState#snapshot(GameSnapshot)}, which grows the market arrays as needed.
+	 *
+	 * @param itemCount - the number of items in the game.
+	 */
+	GameSnapshot(int itemCount)
+	{
+		inventory = new int[itemCount];
+		marketIndices = new int[0];
+		storeStock = new int[0];
+		storePressure = new int[0];
+	}
+
+	/**
+	 * Gets the money the player had when this snapshot was taken.
+	 *
+	 * @return money - the players money ($).
+	 */
+	public int getMoney()
+	{
+		return money;
+	}
+
+	/**
+	 * Gets the game day when this snapshot was taken.
+	 *
+	 * @return currentDay - the current day of the game.
+	 */
+	public int getCurrentDay()
+	{
+		return currentDay;
+	}
+
+	/**
+	 * Gets the id of the island the player was on when this snapshot was taken.
+	 *
+	 * @return currentIslandId - the id of the players current island.
+	 */
+	public int getCurrentIslandId()
+	{
+		return currentIslandId;
+	}
+
+	/**
+	 * Gets the number of bytes {@link #writeTo(ByteBuffer)} writes for this snapshot.
+	 *
+	 * @return size - the encoded size of this snapshot in bytes.
+	 */
+	int encodedSize()
+	{
+		return 6 * Integer.BYTES + arraySize(upgradeIslandIds.length) + arraySize(inventory.length)
+				+ 3 * arraySize(marketChanges) + Integer.BYTES + arraySize(draws.length);
+	}
+
+	/**
+	 * Writes this snapshot to a buffer. Each array is written as its length followed by its
+	 * values.
+	 *
+	 * @see SaveFile
+	 * @param buffer - the buffer to write to, with at least {@link #encodedSize()} bytes remaining.
+	 */
+	void writeTo(ByteBuffer buffer)
+	{
+		buffer.putInt(money);
+		buffer.putInt(currentDay);
+		buffer.putInt(currentIslandId);
+		buffer.putInt(viewedIslandId);
+		buffer.putInt(shipHealth);
+		buffer.putInt(shipWeight);
+		putArray(buffer, upgradeIslandIds, upgradeIslandIds.length);
+		putArray(buffer, inventory, inventory.length);
+		putArray(buffer, marketIndices, marketChanges);
+		putArray(buffer, storeStock, marketChanges);
+		putArray(buffer, storePressure, marketChanges);
+		buffer.putInt(voyages);
+		putArray(buffer, draws, draws.length);
+	}
+
+	/**
+	 * Reads a snapshot written by {@link #writeTo(ByteBuffer)}.
+	 *
+	 * @param buffer - the buffer positioned at the start of the snapshot.
+	 * @return snapshot - the snapshot read.
+	 * @throws IllegalArgumentException if the buffer does not hold a whole snapshot.
+	 */
+	static GameSnapshot readFrom(ByteBuffer buffer)
+	{
+		try
+		{
+			GameSnapshot snapshot = new GameSnapshot(0);
+			snapshot.money = buffer.getInt();
+			snapshot.currentDay = buffer.getInt();
+			snapshot.currentIslandId = buffer.getInt();
+			snapshot.viewedIslandId = buffer.getInt();
+			snapshot.shipHealth = buffer.getInt();
+			snapshot.shipWeight = buffer.getInt();
+			snapshot.upgradeIslandIds = getArray(buffer);
+			snapshot.inventory = getArray(buffer);
+			snapshot.marketIndices = getArray(buffer);
+			snapshot.storeStock = getArray(buffer);
+			snapshot.storePressure = getArray(buffer);
+			snapshot.marketChanges = snapshot.marketIndices.length;
+			if (snapshot.storeStock.length != snapshot.marketChanges
+					|| snapshot.storePressure.length != snapshot.marketChanges)
+			{
+				throw new IllegalArgumentException("The snapshot's market arrays are of different lengths");
+			}
+			snapshot.voyages = buffer.getInt();
+			snapshot.draws = getArray(buffer);
+			return snapshot;
+		}
+		catch (BufferUnderflowException exception)
+		{
+			throw new IllegalArgumentException("The snapshot is incomplete");
+		}
+	}
+
+	/**
+	 * Checks if this snapshot could have been taken from a game with the given world size.
+	 *
+	 * @param islandCount - the number of islands in the game.
+	 * @param itemCount - the number of items in the game.
+	 * @return boolean - true if the snapshot fits the world, false otherwise.
+	 */
+	boolean fits(int islandCount, int itemCount)
+	{
+		if (inventory.length != itemCount || currentIslandId < 0 || currentIslandId >= islandCount
+				|| viewedIslandId >= islandCount)
+		{
+			return false;
+		}
+		int previousIndex = -1;
+		for (int i = 0; i < marketChanges; i++)
+		{
+			if (marketIndices[i] <= previousIndex || marketIndices[i] >= islandCount * itemCount)
+			{
+				return false;
+			}
+			previousIndex = marketIndices[i];
+		}
+		for (int islandId : upgradeIslandIds)
+		{
+			if (islandId < 0 || islandId >= islandCount)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of bytes an array is written as.
+	 *
+	 * @param length - the number of values written.
+	 * @return size - the size of the length and values in bytes.
+	 */
+	private static int arraySize(int length)
+	{
+		return Integer.BYTES * (1 + length);
+	}
+
+	/**
+	 * Writes the start of an array as its length followed by its values.
+	 *
+	 * @param buffer - the buffer to write to.
+	 * @param values - the array to write.
+	 * @param length - the number of values to write from the start of the array.
+	 */
+	private static void putArray(ByteBuffer buffer, int[] values, int length)
+	{
+		buffer.putInt(length);
+		for (int i = 0; i < length; i++)
+		{
+			buffer.putInt(values[i]);
+		}
+	}
+
+	/**
+	 * Reads an array written by {@link #putArray(ByteBuffer, int[], int)}.
+	 *
+	 * @param buffer - the buffer to read from.
+	 * @return values - the array read.
+	 * @throws IllegalArgumentException if the length is negative or longer than the buffer.
+	 */
+	private static int[] getArray(ByteBuffer buffer)
+	{
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining() / Integer.BYTES)
+		{
+			throw new IllegalArgumentException("The snapshot has an array of invalid length " + length);
+		}
+		int[] values = new int[length];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + length * Integer.BYTES);
+		return values;
+	}
+}
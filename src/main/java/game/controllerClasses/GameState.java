@@ -1,10 +1,12 @@
 package game.controllerClasses;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.List;
 
 import game.primaryClasses.Island;
 import game.primaryClasses.Item;
+import game.primaryClasses.ItemTable;
+import game.primaryClasses.Market;
 import game.primaryClasses.Upgrade;
 import game.shipClasses.Ship;
 
@@ -20,7 +22,11 @@ import game.shipClasses.Ship;
  * - the players money <br>
  * - the players inventory <br>
  * - the players current {@link Island}
+ * <br>
+ * Every change to the game is marked in its {@link GameChanges}, so a display can redraw
+ * just the parts of the game that changed.
  * 
+ * @see GameChanges
  * @see GameEnvironment
  * @see GuiManager
  * 
@@ -34,8 +40,9 @@ public class GameState
 	private int currentDay;
 	private Ship ship;
 	private int money;
-	private Hashtable<Item, Integer> inventory;
+	private ItemTable inventory;
 	private Island currentIsland;
+	private GameChanges changes;
 	
 	private ArrayList<Island> islands;
 	private GameEnvironment gameController;
@@ -54,6 +61,7 @@ public class GameState
 		islands = this.gameController.formIslands();
 		inventory = this.gameController.formInventory();
 		currentIsland = islands.get(0);
+		changes = new GameChanges(inventory.size());
 	}
 	
 	/**
@@ -73,6 +81,19 @@ public class GameState
 		playerName = name;
 		this.gameLength = gameLength;
 		this.ship = ship;
+		ship.setChangeListener(() -> changes.mark(GameChanges.SHIP));
+		ship.setCargoListener(() -> changes.mark(GameChanges.CARGO));
+		changes.mark(GameChanges.PLAYER);
+	}
+	
+	/**
+	 * Gets the changes to this game since a display last drew it.
+	 * 
+	 * @return changes - the GameChanges of this game.
+	 */
+	public GameChanges getChanges()
+	{
+		return changes;
 	}
 	
 	/**
@@ -155,6 +176,7 @@ public class GameState
 	 */
 	public void payMoney(int paidMoney)
 	{
+		changes.mark(GameChanges.MONEY);
 		this.money -= paidMoney;
 	}
 	
@@ -167,17 +189,22 @@ public class GameState
 	 */
 	public void receiveMoney(int receivedMoney)
 	{
+		changes.mark(GameChanges.MONEY);
 		this.money += receivedMoney;
 	}
 	
 	/**
-	 * Increments the currentDay attribute by the parameter daysPassed.
+	 * Increments the currentDay attribute by the parameter daysPassed, ticking the games
+	 * {@link Market} by the days passed so every store restocks and its prices drift.
 	 * 
+	 * @see Market#tick(int)
 	 * @param daysPassed - The number of days to increment the currentDay by.
 	 */
 	public void incrementDay(int daysPassed)
 	{
 		currentDay += daysPassed;
+		gameController.getMarket().tick(daysPassed);
+		changes.mark(GameChanges.DAY | GameChanges.MARKET);
 	}
 	
 	/**
@@ -195,7 +222,7 @@ public class GameState
 	 * 
 	 * @return inventory - this GameStates inventorya attribute that maps items to the quantity owned.
 	 */
-	public Hashtable<Item, Integer> getInventory()
+	public ItemTable getInventory()
 	{
 		return inventory;
 	}
@@ -208,8 +235,8 @@ public class GameState
 	 */
 	public void setCurrentIsland(Island island)
 	{
-		
 		this.currentIsland = island;
+		changes.mark(GameChanges.ISLAND);
 	}
 
 	/**
@@ -274,7 +301,7 @@ public class GameState
 	 * Adds an item to the players inventory.
 	 * <br>
 	 * Takes a parameter item and adds one to the value associated with that item in the 
-	 * inventory Hashtable. This method also increases the ships currentWeight by the weight
+	 * inventory ItemTable. This method also increases the ships currentWeight by the weight
 	 * of the item added. <br>
 	 * Note: the item is not added to the players inventory if the {@link Ship} does not have
 	 * the remaining capacity for it. This is dealt with in the {@link GameEnvironment#buyItem(Item)}
@@ -284,17 +311,29 @@ public class GameState
 	 */
 	public void addItem(Item item) 
 	{
-		int itemQuantity = inventory.get(item);
-		itemQuantity++;
-		inventory.put(item, itemQuantity);
-		ship.increaseWeight(item.getWeight());
+		addItem(item, 1);
+	}
+	
+	/**
+	 * Adds a quantity of an item to the players inventory, increasing the ships currentWeight
+	 * by the weight of all of the units added. <br>
+	 * Note: the capacity of the {@link Ship} is checked by {@link GameEnvironment#buyItem(Item, int)}.
+	 * 
+	 * @param item - the {@link Item} being added to the players inventory.
+	 * @param quantity - the number of units being added.
+	 */
+	public void addItem(Item item, int quantity) 
+	{
+		inventory.add(item, quantity);
+		ship.increaseWeight(item.getWeight() * quantity);
+		changes.markItem(item);
 	}
 	
 	/**
 	 * Removes an {@link Item} from the players inventory.
 	 * <br>
 	 * Takes a parameter item and removes one from the value associated with that item in the 
-	 * inventory Hashtable. This method also decreases the ships currentWeight by the weight
+	 * inventory ItemTable. This method also decreases the ships currentWeight by the weight
 	 * of the item removed. <br>
 	 * Note: the item is not removed from the players inventory if the player didn't previously
 	 * own at least one of the item. This is dealt with in the {@link GameEnvironment#sellItem(Item)}
@@ -304,10 +343,157 @@ public class GameState
 	 */
 	public void removeItem(Item item)
 	{
-		int itemQuantity = inventory.get(item);
-		itemQuantity--;
-		inventory.put(item, itemQuantity);
-		ship.decreaseWeight(item.getWeight());
+		removeItem(item, 1);
 	}
 	
+	/**
+	 * Removes a quantity of an {@link Item} from the players inventory, decreasing the ships
+	 * currentWeight by the weight of all of the units removed. <br>
+	 * Note: the quantity owned is checked by {@link GameEnvironment#sellItem(Item, int)}.
+	 * 
+	 * @param item - the item being removed from the players inventory.
+	 * @param quantity - the number of units being removed.
+	 */
+	public void removeItem(Item item, int quantity)
+	{
+		inventory.add(item, -quantity);
+		ship.decreaseWeight(item.getWeight() * quantity);
+		changes.markItem(item);
+	}
+	
+	/**
+	 * Takes a snapshot of this game that can be put back with {@link #restore(GameSnapshot)}.
+	 * 
+	 * @see GameSnapshot
+	 * @return snapshot - a new snapshot of the players money, day, island, inventory and ship,
+	 * every stores stock and prices and the position of the games random events.
+	 */
+	public GameSnapshot snapshot()
+	{
+		GameSnapshot snapshot = new GameSnapshot(inventory.size());
+		snapshot(snapshot);
+		return snapshot;
+	}
+	
+	/**
+	 * Takes a snapshot of this game into an existing snapshot of the same game, so a bot that
+	 * snapshots every turn can reuse one.
+	 * 
+	 * @param snapshot - the snapshot to overwrite.
+	 */
+	public void snapshot(GameSnapshot snapshot)
+	{
+		snapshot.money = money;
+		snapshot.currentDay = currentDay;
+		snapshot.currentIslandId = currentIsland.getId();
+		Island viewedIsland = gameController.getViewedIsland();
+		snapshot.viewedIslandId = viewedIsland == null ? -1 : viewedIsland.getId();
+		
+		snapshot.shipHealth = ship.getCurrentHealth();
+		snapshot.shipWeight = ship.getCurrentWeight();
+		ArrayList<Upgrade> upgrades = ship.getUpgrades();
+		if (snapshot.upgradeIslandIds == null || snapshot.upgradeIslandIds.length != upgrades.size())
+		{
+			snapshot.upgradeIslandIds = new int[upgrades.size()];
+		}
+		for (int i = 0; i < upgrades.size(); i++)
+		{
+			snapshot.upgradeIslandIds[i] = upgradeIslandId(upgrades.get(i));
+		}
+		
+		inventory.copyTo(snapshot.inventory, 0);
+		Market market = gameController.getMarket();
+		int marketChanges = market.countChanges();
+		if (snapshot.marketIndices.length < marketChanges)
+		{
+			snapshot.marketIndices = new int[marketChanges];
+			snapshot.storeStock = new int[marketChanges];
+			snapshot.storePressure = new int[marketChanges];
+		}
+		snapshot.marketChanges = market.copyChangesTo(snapshot.marketIndices, snapshot.storeStock,
+				snapshot.storePressure);
+		
+		RandomEvent random = gameController.getRandomEvent();
+		snapshot.voyages = random.getVoyages();
+		snapshot.draws = random.getDraws();
+	}
+	
+	/**
+	 * Puts this game back to the state saved in a snapshot taken from it.
+	 * <br>
+	 * The ship is only rebuilt with {@link Ship#restore(int, int, List)} when its upgrades have
+	 * changed since the snapshot. The listener is not told about the restore.
+	 * 
+	 * @param snapshot - a snapshot taken from this game by {@link #snapshot()}.
+	 */
+	public void restore(GameSnapshot snapshot)
+	{
+		money = snapshot.money;
+		currentDay = snapshot.currentDay;
+		currentIsland = islands.get(snapshot.currentIslandId);
+		if (snapshot.viewedIslandId >= 0)
+		{
+			gameController.setViewedIsland(islands.get(snapshot.viewedIslandId));
+		}
+		
+		List<Upgrade> upgrades = ship.getUpgrades();
+		if (!upgradesMatch(snapshot.upgradeIslandIds))
+		{
+			upgrades = new ArrayList<Upgrade>(snapshot.upgradeIslandIds.length);
+			for (int islandId : snapshot.upgradeIslandIds)
+			{
+				upgrades.add(islands.get(islandId).getStore().getUpgrade());
+			}
+		}
+		ship.restore(snapshot.shipHealth, snapshot.shipWeight, upgrades);
+		
+		inventory.copyFrom(snapshot.inventory, 0);
+		gameController.getMarket().restore(snapshot.marketIndices, snapshot.storeStock, snapshot.storePressure,
+				snapshot.marketChanges);
+		
+		gameController.getRandomEvent().restore(snapshot.voyages, snapshot.draws);
+		changes.mark(GameChanges.ALL);
+	}
+	
+	/**
+	 * Gets the id of the island whose store sells an upgrade.
+	 * 
+	 * @param upgrade - an upgrade on the players ship.
+	 * @return islandId - the id of the island selling the upgrade.
+	 * @throws IllegalStateException - if no island in the game sells the upgrade.
+	 */
+	int upgradeIslandId(Upgrade upgrade)
+	{
+		for (Island island : islands)
+		{
+			if (island.getStore().getUpgrade() == upgrade)
+			{
+				return island.getId();
+			}
+		}
+		throw new IllegalStateException("No island sells the upgrade " + upgrade.getName());
+	}
+	
+	/**
+	 * Checks if the ship has the upgrades sold at the given islands, in the same order.
+	 * 
+	 * @param upgradeIslandIds - the ids of the islands whose upgrades were bought, in order.
+	 * @return boolean - true if the ships upgrades are the same, false otherwise.
+	 */
+	private boolean upgradesMatch(int[] upgradeIslandIds)
+	{
+		ArrayList<Upgrade> upgrades = ship.getUpgrades();
+		if (upgrades.size() != upgradeIslandIds.length)
+		{
+			return false;
+		}
+		for (int i = 0; i < upgradeIslandIds.length; i++)
+		{
+			if (upgrades.get(i) != islands.get(upgradeIslandIds[i]).getStore().getUpgrade())
+			{
+				return false;
+			}
+		}
+		return true;
+	}
 }
@@ -4,14 +4,21 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Font;
+import java.awt.Graphics;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.DefaultComboBoxModel;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFrame;
@@ -32,6 +39,7 @@ import game.exceptions.RepairIssueException;
 import game.exceptions.SailIssueException;
 import game.exceptions.ShipUpgradeException;
 import game.exceptions.WalkThePlankException;
+import game.leaderboardClasses.Leaderboard;
 import game.primaryClasses.Island;
 import game.primaryClasses.Item;
 import game.primaryClasses.Store;
@@ -39,7 +47,10 @@ import game.primaryClasses.Upgrade;
 import game.shipClasses.Carol;
 import game.shipClasses.FlyingScotsman;
 import game.shipClasses.JollyRodrick;
+import game.shipClasses.RoutePlanner;
 import game.shipClasses.Ship;
+import game.shipClasses.TravelTable;
+import game.shipClasses.Voyage;
 import game.shipClasses.WhitePearl;
 
 /**
@@ -48,6 +59,8 @@ import game.shipClasses.WhitePearl;
  * This class controls all graphical components of the Island Trader Game. GuiManager uses {@link GameState}
  * to get information about the games current state and variables and uses {@link GameEnvironment} which makes
  * the logical decisions that control changes to the GameState. 
+ * <br>
+ * GuiManager is the {@link GameListener} the GameEnvironment reports to when the game is played with a display.
  * 
  * @see GameEnvironment
  * @see GameState
@@ -56,9 +69,35 @@ import game.shipClasses.WhitePearl;
  * @author Wil Johnston
  *
  */
-public class GuiManager
+public class GuiManager implements GameListener
 {
 	
+	/**
+	 * The file the results of finished games are recorded in, see {@link Leaderboard}.
+	 */
+	private static final Path LEADERBOARD_FILE = Path.of("leaderboard.dat");
+	
+	/**
+	 * The image shown as the icon of the game's window.
+	 */
+	private static final String WINDOW_ICON = "/island1.png";
+	
+	/**
+	 * The images of the display, decoded off the event dispatch thread, see {@link ImageCache}.
+	 */
+	private static final ImageCache IMAGES = new ImageCache();
+	
+	/**
+	 * The system property that, when true, prints how long the game took to show its first frame.
+	 */
+	static final String STARTUP_TIMING_PROPERTY = "game.startupTiming";
+	
+	/**
+	 * The system property that, when true, exits once the game has started, used by the cdsArchive
+	 * Gradle task to record the classes loaded at startup.
+	 */
+	static final String EXIT_AFTER_STARTUP_PROPERTY = "game.exitAfterStartup";
+	
 	/**
 	 * Games Controller, controls changes to all non GUI classes.
 	 */
@@ -70,12 +109,23 @@ public class GuiManager
 	 */
 	private GameState gameModel;
 	
+	/**
+	 * The leaderboard finished games are recorded on, opened off the event dispatch thread when
+	 * the first game ends and kept open for the rest of the session.
+	 */
+	private CompletableFuture<Leaderboard> leaderboard;
+	
 	
 	//GUI Variables
 	private JFrame frame;
 	
 	private JPanel startPanel;
 	
+	/**
+	 * Run once, by the start panel, the first time it is painted.
+	 */
+	private Runnable firstPaintAction;
+	
 	private JPanel menuPanel;
 	private JTextField nameTextfield;
 	private JSlider daySlider;
@@ -172,24 +222,62 @@ public class GuiManager
 	/**
 	 * Launches the Island Trader Game.
 	 * <br>
-	 * First Creates the application by calling the constructor for this class, then 
-	 * sets the GUI display to the startup Screen using {@link #openStartScreen()}.
+	 * First starts decoding the window icon off the event dispatch thread, then Creates the
+	 * application by calling the constructor for this class and shows its start screen. The
+	 * other screens are built by {@link #initialiseScreens()} once the start panel has first
+	 * been painted, while the player reads it, so the first frame is shown as soon as possible. <br>
+	 * If the {@value #STARTUP_TIMING_PROPERTY} system property is true the time taken to paint
+	 * the first frame is printed, and if the {@value #EXIT_AFTER_STARTUP_PROPERTY} system property
+	 * is true the game exits once every screen has been built.
 	 * 
 	 * @param args - not Used for launching application
 	 */
 	public static void main(String[] args) {
+		long launched = System.nanoTime();
+		IMAGES.preload(List.of(WINDOW_ICON));
 		EventQueue.invokeLater(new Runnable() {
 			public void run() {
 				try {
 					GuiManager window = new GuiManager();
+					window.firstPaintAction = new Runnable() {
+						public void run() {
+							if (Boolean.getBoolean(STARTUP_TIMING_PROPERTY)) {
+								printStartupTime(launched);
+							}
+							// Builds the other screens once the paint has finished
+							EventQueue.invokeLater(new Runnable() {
+								public void run() {
+									window.initialiseScreens();
+									if (Boolean.getBoolean(EXIT_AFTER_STARTUP_PROPERTY)) {
+										System.exit(0);
+									}
+								}
+							});
+						}
+					};
 					window.frame.setVisible(true);
-					window.openStartScreen();
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
 			}
 		});
 	}
+	
+	/**
+	 * Prints the time taken to paint the first frame, both since the JVM started and since
+	 * {@link #main(String[])} was called.
+	 * 
+	 * @param launched - the {@link System#nanoTime()} when main was called.
+	 */
+	private static void printStartupTime(long launched)
+	{
+		long sinceMain = (System.nanoTime() - launched) / 1_000_000;
+		String sinceStart = ProcessHandle.current().info().startInstant()
+				.map(start -> Long.toString(Duration.between(start, Instant.now()).toMillis()))
+				.orElse("?");
+		System.err.println("First frame painted " + sinceStart + " ms after the JVM started, " + sinceMain
+				+ " ms after main");
+	}
 
 	/**
 	 * Create the application and its components
@@ -203,18 +291,19 @@ public class GuiManager
 	/**
 	 * Initialize the contents of the frame and it's display components.
 	 * <br>
-	 * First creates the applications game frame,
-	 * Then runs the panel building methods {@link #initialiseStartPanel()}, 
-	 * {@link #initialiseMenuPanel()}, {@link #initialiseGamePanels()} and 
-	 * {@link #initialiseResultsPanel()}.
+	 * First starts decoding the icons of the world's upgrades off the event dispatch thread,
+	 * so they are ready before the player can buy one, then creates the applications game frame,
+	 * Then runs {@link #initialiseStartPanel()}. The other screens are built later by
+	 * {@link #initialiseScreens()}.
 	 */
 	private void initialize() 
 	{
 		gameModel = new GameState(gameController);
 		gameController.setGameState(gameModel);
+		IMAGES.preload(gameController.getWorld().getUpgradeImagePaths());
 		
 		frame = new JFrame();
-		frame.setIconImage(new ImageIcon(GuiManager.class.getResource("/island1.png")).getImage());
+		frame.setIconImage(IMAGES.getImage(WINDOW_ICON));
 		frame.setTitle("Trader Game");
 		frame.setBounds(150, 50, 960, 540);
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -222,9 +311,22 @@ public class GuiManager
 		frame.setResizable(false);
 		
 		initialiseStartPanel();
+	}
+	
+	/**
+	 * Builds every screen but the start screen, which the frame is first shown with.
+	 * <br>
+	 * Runs the panel building methods {@link #initialiseMenuPanel()}, {@link #initialiseGamePanels()}
+	 * and {@link #initialiseResultsPanel()}, then opens the start screen with {@link #openStartScreen()}
+	 * to hide them. This must be called on the event dispatch thread before the player can leave
+	 * the start screen.
+	 */
+	public void initialiseScreens()
+	{
 		initialiseMenuPanel();
 		initialiseGamePanels();
 		initialiseResultsPanel();
+		openStartScreen();
 	}
 	
 	// Screen Changers
@@ -279,11 +381,12 @@ public class GuiManager
 	 * <br>
 	 * Displays the results screen of the island trader game by setting the results panels
 	 * visibility to true and all other panels to false. This method also updates the text
-	 * in the results screen to display the games results.
+	 * in the results screen to display the games results and records them on the leaderboard.
 	 */
 	public void changeToResultsScreen() 
 	{
 		resultsText.setText(gameModel.getGameResults());
+		recordOnLeaderboard(gameModel);
 		startPanel.setVisible(false);
 		menuPanel.setVisible(false);
 		gameTabbedPane.setVisible(false);
@@ -292,6 +395,58 @@ public class GuiManager
 
 	}
 	
+	/**
+	 * Records a finished game on the leaderboard off the event dispatch thread, then adds its
+	 * rank to the results screen if the results of that game are still shown.
+	 * 
+	 * @param finishedGame - the GameState of the finished game.
+	 */
+	private void recordOnLeaderboard(GameState finishedGame)
+	{
+		if (leaderboard == null)
+		{
+			leaderboard = CompletableFuture.supplyAsync(() -> {
+				try
+				{
+					return Leaderboard.open(LEADERBOARD_FILE);
+				}
+				catch (IOException error)
+				{
+					throw new UncheckedIOException(error);
+				}
+			});
+		}
+		leaderboard.thenApplyAsync(board -> rankOnLeaderboard(board, finishedGame))
+				.exceptionally(error -> "")
+				.thenAccept(rank -> EventQueue.invokeLater(() -> {
+					if (gameModel == finishedGame)
+					{
+						resultsText.setText(finishedGame.getGameResults() + rank);
+					}
+				}));
+	}
+	
+	/**
+	 * Records a finished game on the leaderboard.
+	 * 
+	 * @param board - the leaderboard.
+	 * @param finishedGame - the GameState of the finished game.
+	 * @return rank - a line giving the games rank on the leaderboard, or nothing if it could not be recorded.
+	 */
+	private static String rankOnLeaderboard(Leaderboard board, GameState finishedGame)
+	{
+		try
+		{
+			long rank = board.rankOf(board.record(finishedGame).score());
+			return "\nLeaderboard Rank: " + rank + " of " + board.size();
+		}
+		catch (IOException | IllegalArgumentException error)
+		{
+			// The file could not be written or the game ended in debt, which is not ranked
+			return "";
+		}
+	}
+	
 	/**
 	 * Opens the Random Event screen for the Island Trader game.
 	 * <br>
@@ -311,11 +466,25 @@ public class GuiManager
 	// ----------------------------------------------------------------------
 	/**
 	 * Creates all the gui components of the Island Trader Games start up screen
+	 * <br>
+	 * The start panel is the first thing painted, so the first time it is painted it runs
+	 * the action {@link #main(String[])} left for it.
 	 */
 	public void initialiseStartPanel()
 	{	
 	
-		startPanel = new JPanel();
+		startPanel = new JPanel() {
+			private static final long serialVersionUID = 1L;
+			
+			protected void paintComponent(Graphics g) {
+				super.paintComponent(g);
+				if (firstPaintAction != null) {
+					Runnable action = firstPaintAction;
+					firstPaintAction = null;
+					action.run();
+				}
+			}
+		};
 		startPanel.setBounds(0, 0, 960, 540);
 		frame.getContentPane().add(startPanel);
 		startPanel.setLayout(null);
@@ -434,7 +603,7 @@ public class GuiManager
 				
 				try
 				{
-					validName = gameController.checkValidName(nameAttempt);
+					validName = GameEnvironment.checkValidName(nameAttempt);
 					if (validName)
 					{
 						
@@ -1046,7 +1215,8 @@ public class GuiManager
 	 * <br>
 	 * Called from the store upgrade panel, addUpgradeIcon adds the upgrade icon to the inventory info
 	 * panel when a ship is upgraded. The {@link Upgrade} icon is got from the {@link Upgrade#getImagePath()}
-	 * method. The upgrade icons also add a tooltip with the upgrades description. <br>
+	 * method and shared from the {@link ImageCache}, which decoded it when the game started.
+	 * The upgrade icons also add a tooltip with the upgrades description. <br>
 	 * Note: this method is not called when an unsuccessful upgrade attempt occurs. This is dealt to by
 	 * the {@link GameEnvironment#upgradeShip(Upgrade)} method.
 	 * @param upgrade - The upgrade whos icon requires adding. 
@@ -1055,8 +1225,7 @@ public class GuiManager
 	{
 		JLabel upgradeIconLabel = new JLabel();
 		
-		ImageIcon icon = new ImageIcon(GuiManager.class.getResource(upgrade.getImagePath()));
-		upgradeIconLabel.setIcon(icon);
+		upgradeIconLabel.setIcon(IMAGES.getIcon(upgrade.getImagePath()));
 		upgradeIconLabel.setToolTipText(upgrade.getDesciption());
 		upgradeIconLabel.setVisible(true);
 		inventoryInfoPanel.add(upgradeIconLabel);
@@ -1510,18 +1679,55 @@ public class GuiManager
     /**
      * Updates the gui components for the island trader game.
      * <br>
-     * This method updates the gui components by calling the helper functions: <br>
-     * - {@link #updateStore()} <br>
+     * This method updates only the gui components showing the parts of the game in its
+     * {@link GameChanges}, then clears them, so a trade redraws the rows of the item traded
+     * rather than every item. The helper functions are: <br>
+     * - {@link #updateStore()} and {@link #updateStoreItem(Item)} <br>
      * - {@link #updateInventoryInfo()} <br>
-     * - {@link #updateInventory()} <br>
+     * - {@link #updateInventory()} and {@link #updateInventoryItem(Item)} <br>
      * - {@link #updateMapInfo(Island)}
      */
     public void updateGame()
     {
-    	updateInventoryInfo();
-    	updateStore();
-    	updateInventory();
-    	updateMapInfo(gameController.getViewedIsland());
+    	GameChanges changes = gameModel.getChanges();
+    	storeMessagesLabel.setText("");
+    	sailErrorsText.setText("");
+    	if (changes.has(GameChanges.PLAYER | GameChanges.MONEY | GameChanges.DAY | GameChanges.SHIP
+    			| GameChanges.CARGO))
+    	{
+    		updateInventoryInfo();
+    	}
+    	if (changes.has(GameChanges.PLAYER | GameChanges.ISLAND | GameChanges.MARKET))
+    	{
+    		updateStore();
+    	}
+    	else
+    	{
+    		if (changes.has(GameChanges.MONEY | GameChanges.SHIP | GameChanges.CARGO))
+    		{
+    			updateStoreInfo();
+    		}
+    		for (int index = 0; index < changes.getItemCount(); index++)
+    		{
+    			updateStoreItem(gameController.getItemsList().get(changes.getItemId(index)));
+    		}
+    	}
+    	if (changes.has(GameChanges.PLAYER))
+    	{
+    		updateInventory();
+    	}
+    	else
+    	{
+    		for (int index = 0; index < changes.getItemCount(); index++)
+    		{
+    			updateInventoryItem(gameController.getItemsList().get(changes.getItemId(index)));
+    		}
+    	}
+    	if (changes.has(GameChanges.PLAYER | GameChanges.ISLAND | GameChanges.SHIP))
+    	{
+    		updateMapInfo(gameController.getViewedIsland());
+    	}
+    	changes.clear();
     }
 	
     /**
@@ -1538,16 +1744,48 @@ public class GuiManager
 		sailErrorsText.setText("");
 		currentIslandText.setText(gameModel.getCurrentIsland().getName());
 		islandNameText.setText(island.getName());
-		Integer distance = gameModel.getCurrentIsland().getDistances().get(island);
-		islandDistanceText.setText("Distance: " + Integer.toString(distance));
-		Integer daysTravel = (distance / gameModel.getShip().getKmPerDay());
-		islandDaysTravelText.setText("Days Travel: " + Integer.toString(daysTravel));
-		Integer costToSail = daysTravel * gameModel.getShip().getCostPerDay();
-		islandCostToSailText.setText("Cost to Sail: $"  + Integer.toString(costToSail));
+		TravelTable travelTable = gameModel.getShip().getTravelTable(gameModel.getIslandsList());
+		if (island == gameModel.getCurrentIsland() || gameModel.getCurrentIsland().hasRouteTo(island))
+		{
+			int distance = gameModel.getCurrentIsland().getDistanceTo(island);
+			islandDistanceText.setText("Distance: " + Integer.toString(distance));
+			int daysTravel = travelTable.getDaysTravel(gameModel.getCurrentIsland(), island);
+			islandDaysTravelText.setText("Days Travel: " + Integer.toString(daysTravel));
+			int costToSail = travelTable.getCostToSail(gameModel.getCurrentIsland(), island);
+			islandCostToSailText.setText("Cost to Sail: $"  + Integer.toString(costToSail));
+		}
+		else
+		{
+			updateMapVoyage(travelTable, island);
+		}
 		islandSuppliesText.setText("Supplies: " + island.getSupply());
 		islandDemandText.setText("Demands: " + island.getDemand());
 	}
 	
+	/**
+	 * Shows the cheapest voyage to an island with no route from the current island in the map
+	 * info panel, planned by the ships {@link RoutePlanner}. The player sails it one island at
+	 * a time, starting with the voyage's next stop.
+	 * 
+	 * @param travelTable - the ships travel table.
+	 * @param island - the island viewed by the player.
+	 */
+	private void updateMapVoyage(TravelTable travelTable, Island island)
+	{
+		Voyage voyage = travelTable.getRoutePlanner().plan(gameModel.getCurrentIsland(), island,
+				RoutePlanner.Goal.CHEAPEST);
+		if (voyage == null)
+		{
+			islandDistanceText.setText("Distance: No route");
+			islandDaysTravelText.setText("Days Travel: -");
+			islandCostToSailText.setText("Cost to Sail: -");
+			return;
+		}
+		islandDistanceText.setText("Distance: " + voyage.km() + " via " + voyage.nextStop().getName());
+		islandDaysTravelText.setText("Days Travel: " + voyage.daysTravel());
+		islandCostToSailText.setText("Cost to Sail: $" + voyage.costToSail());
+	}
+	
 	/**
      * Updates the gui components of the Inventory Info panel in the island trader game. 
      * <br>
@@ -1596,30 +1834,11 @@ public class GuiManager
 	{
 		storeMessagesLabel.setText("");
 		storeNameLabel.setText(gameModel.getCurrentIsland().getStore().getName());
-		storeMoneyLabel.setText("Money: $" + Integer.toString(gameModel.getMoney()));
-		int currentWeight = gameModel.getShip().getCurrentWeight();
-		int maxWeight = gameModel.getShip().getMaxWeight();
-		storeCapacityBar.setValue(currentWeight);
-		storeCapacityBar.setMaximum(maxWeight);
-		storeCapacityBar.setString("Ship Capacity: " + 
-									Integer.toString(currentWeight) + " / " +
-									Integer.toString(maxWeight) + "kg");
+		updateStoreInfo();
 
 		for (Item item : gameController.getItemsList())
 		{
-			Store store = gameModel.getCurrentIsland().getStore();
-
-
-			JLabel shopQuantity = storeShopQuantityLabels.get(item);
-			JLabel playerQuantity = storePlayerQuantityLabels.get(item);
-			JLabel itemWeight = storeWeightLabels.get(item);
-			JLabel itemPrice = storePriceLabels.get(item);
-			
-			shopQuantity.setText("Shop Stock: " + Integer.toString(store.getStock().get(item)));
-			playerQuantity.setText("Amount owned: " + Integer.toString(gameModel.getInventory().get(item)));
-			itemWeight.setText("Weight: " + item.getWeight() + "kg");
-			itemPrice.setText("Price: $" + Integer.toString(store.getPrices().get(item)));
-
+			updateStoreItem(item);
 		}
 		Upgrade upgrade = gameModel.getCurrentIsland().getStore().getUpgrade();
 		storeUpgradeNameLabel.setText(upgrade.getName());
@@ -1628,6 +1847,37 @@ public class GuiManager
 		storeUpgradeDescriptionTextArea.setText(upgrade.getDesciption());;
 	}
 	
+	/**
+	 * Updates the players money and ship capacity shown in the Store panel.
+	 */
+	private void updateStoreInfo()
+	{
+		storeMoneyLabel.setText("Money: $" + Integer.toString(gameModel.getMoney()));
+		int currentWeight = gameModel.getShip().getCurrentWeight();
+		int maxWeight = gameModel.getShip().getMaxWeight();
+		storeCapacityBar.setValue(currentWeight);
+		storeCapacityBar.setMaximum(maxWeight);
+		storeCapacityBar.setString("Ship Capacity: " + 
+									Integer.toString(currentWeight) + " / " +
+									Integer.toString(maxWeight) + "kg");
+	}
+	
+	/**
+	 * Updates the row of an item in the Store panel: the current store's stock and price of
+	 * the item, the amount the player owns and its weight.
+	 * 
+	 * @param item - the item whose row is updated.
+	 */
+	private void updateStoreItem(Item item)
+	{
+		Store store = gameModel.getCurrentIsland().getStore();
+		storeShopQuantityLabels.get(item).setText("Shop Stock: " + Integer.toString(store.getStock().get(item)));
+		storePlayerQuantityLabels.get(item).setText("Amount owned: "
+				+ Integer.toString(gameModel.getInventory().get(item)));
+		storeWeightLabels.get(item).setText("Weight: " + item.getWeight() + "kg");
+		storePriceLabels.get(item).setText("Price: $" + Integer.toString(store.getPrices().get(item)));
+	}
+	
 	/**
      * Updates the gui components of the Inventory panel in the island trader game. 
      * <br>
@@ -1639,13 +1889,19 @@ public class GuiManager
 	{
 		for (Item item : gameController.getItemsList())
 		{
-
-			// JPanel itemPanel = inventoryItemPanels.get(item);
-			// inventoryDisplayPanel.remove(itemPanel);
-			JLabel itemQuantityLabel = inventoryQuantityLabels.get(item);
-			int quantity = gameModel.getInventory().get(item);
-			itemQuantityLabel.setText("Quantity: " + Integer.toString(quantity));
+			updateInventoryItem(item);
 		}
 	}
+	
+	/**
+	 * Updates the quantity of an item shown in the Inventory panel.
+	 * 
+	 * @param item - the item whose quantity is updated.
+	 */
+	private void updateInventoryItem(Item item)
+	{
+		int quantity = gameModel.getInventory().get(item);
+		inventoryQuantityLabels.get(item).setText("Quantity: " + Integer.toString(quantity));
+	}
 
 }
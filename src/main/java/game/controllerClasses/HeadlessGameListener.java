@@ -0,0 +1,187 @@
+package game.controllerClasses;
+
+import game.exceptions.WalkThePlankException;
+
+/**
+ * A {@link GameListener} for running the Island Trader Game without a graphical display.
+ * <br>
+ * HeadlessGameListener does nothing but record what {@link GameEnvironment} reported: a count
+ * of each random event, whether a pirates event is waiting to be resolved and whether the
+ * game is over. It allocates nothing per event so it can be used for simulating games.
+ * 
+ * @see GameListener
+ * @see GameEnvironment
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class HeadlessGameListener implements GameListener 
+{
+	private boolean gameOver;
+	private boolean piratesPending;
+	private boolean shipSunk;
+	private int updates;
+	private int piratesEvents;
+	private int sailorsEvents;
+	private int weatherEvents;
+	private String piratesResults;
+	
+	/**
+	 * Counts the update, nothing needs to be displayed.
+	 */
+	public void updateGame()
+	{
+		updates++;
+	}
+	
+	/**
+	 * Records that the game is over.
+	 */
+	public void changeToResultsScreen()
+	{
+		gameOver = true;
+	}
+	
+	/**
+	 * Records that a pirates event has started and is waiting for 
+	 * {@link GameEnvironment#getPiratesResults()} to be called.
+	 */
+	public void piratesRandom()
+	{
+		piratesEvents++;
+		piratesPending = true;
+	}
+	
+	/**
+	 * Counts the shipwrecked sailors event.
+	 * 
+	 * @param moneyPaid - the money the sailors paid the player.
+	 */
+	public void shipWreckedSailorsRandom(int moneyPaid)
+	{
+		sailorsEvents++;
+	}
+	
+	/**
+	 * Counts the bad weather event, and records the game as over if the ship sank.
+	 * 
+	 * @param message - the result of the event, "Ship Sunk" if the ship did not survive.
+	 */
+	public void badWeatherRandom(String message)
+	{
+		weatherEvents++;
+		if (message.equals("Ship Sunk"))
+		{
+			shipSunk = true;
+			gameOver = true;
+		}
+	}
+	
+	/**
+	 * Resolves a pending pirates event by rolling the dice with
+	 * {@link GameEnvironment#getPiratesResults()}, as the player would by pressing the roll button.
+	 * <br>
+	 * If the player walks the plank the game is recorded as over. The results of the fight are
+	 * kept for {@link #getPiratesResults()}.
+	 * 
+	 * @param gameController - the GameEnvironment running the game with the pending event.
+	 * @return survived - false if the player walked the plank, true otherwise.
+	 */
+	public boolean resolvePirates(GameEnvironment gameController)
+	{
+		piratesPending = false;
+		try
+		{
+			piratesResults = gameController.getPiratesResults();
+			return true;
+		}
+		catch (WalkThePlankException exception)
+		{
+			piratesResults = exception.getMessage();
+			gameOver = true;
+			return false;
+		}
+	}
+	
+	/**
+	 * Gets the results of the last pirates event resolved by {@link #resolvePirates(GameEnvironment)}.
+	 * 
+	 * @return piratesResults - the message describing the dice rolls and their outcome, or null
+	 * if no pirates event has been resolved.
+	 */
+	public String getPiratesResults()
+	{
+		return piratesResults;
+	}
+	
+	/**
+	 * Gets whether the game is over.
+	 * 
+	 * @return gameOver - true once the game length is reached, the ship sinks or the player
+	 * walks the plank.
+	 */
+	public boolean isGameOver()
+	{
+		return gameOver;
+	}
+	
+	/**
+	 * Gets whether a pirates event is waiting for its dice roll.
+	 * 
+	 * @return piratesPending - true if {@link GameEnvironment#getPiratesResults()} needs to be called.
+	 */
+	public boolean isPiratesPending()
+	{
+		return piratesPending;
+	}
+	
+	/**
+	 * Gets whether the game ended because the ship sank in bad weather.
+	 * 
+	 * @return shipSunk - true if the ship sank.
+	 */
+	public boolean isShipSunk()
+	{
+		return shipSunk;
+	}
+	
+	/**
+	 * Gets the number of times the game reported a change in state.
+	 * 
+	 * @return updates - the number of updates reported.
+	 */
+	public int getUpdates()
+	{
+		return updates;
+	}
+	
+	/**
+	 * Gets the number of pirates events that occurred.
+	 * 
+	 * @return piratesEvents - the number of pirates events.
+	 */
+	public int getPiratesEvents()
+	{
+		return piratesEvents;
+	}
+	
+	/**
+	 * Gets the number of shipwrecked sailors events that occurred.
+	 * 
+	 * @return sailorsEvents - the number of shipwrecked sailors events.
+	 */
+	public int getSailorsEvents()
+	{
+		return sailorsEvents;
+	}
+	
+	/**
+	 * Gets the number of bad weather events that occurred.
+	 * 
+	 * @return weatherEvents - the number of bad weather events.
+	 */
+	public int getWeatherEvents()
+	{
+		return weatherEvents;
+	}
+}
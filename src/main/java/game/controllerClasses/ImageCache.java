@@ -0,0 +1,135 @@
+package game.controllerClasses;
+
+import java.awt.Image;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * The images of the Swing display, each decoded from its resource once and shared by every
+ * component that shows it.
+ * <br>
+ * {@link #preload(Collection)} starts decoding images on the common pool's threads, so the
+ * display can ask for the images it will need, such as the window icon and the icon of each
+ * upgrade, before the event dispatch thread builds the frame. Each image is decoded by its own
+ * task, so they are decoded at the same time, and asking for an image that is still being
+ * decoded waits for it rather than decoding it again. An image that was not preloaded is
+ * decoded the first time it is asked for and kept from then on.
+ * <br>
+ * An ImageCache is safe to use from any thread.
+ *
+ * @see GuiManager#addUpgradeIcon(game.primaryClasses.Upgrade)
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class ImageCache
+{
+	private final ConcurrentHashMap<String, CompletableFuture<ImageIcon>> icons =
+			new ConcurrentHashMap<String, CompletableFuture<ImageIcon>>();
+
+	/**
+	 * Starts decoding images off the calling thread, skipping any already decoded or being
+	 * decoded.
+	 *
+	 * @param paths - the resource paths of the images, such as "/island1.png".
+	 */
+	public void preload(Collection<String> paths)
+	{
+		for (String path : paths)
+		{
+			icons.computeIfAbsent(path, key -> CompletableFuture.supplyAsync(() -> decode(key)));
+		}
+	}
+
+	/**
+	 * Gets the shared icon of an image, waiting for it if it is still being decoded.
+	 *
+	 * @param path - the resource path of the image.
+	 * @return icon - the icon of the image, shared by every caller.
+	 * @throws IllegalArgumentException if there is no image at the path.
+	 * @throws UncheckedIOException if the image can not be read.
+	 */
+	public ImageIcon getIcon(String path)
+	{
+		CompletableFuture<ImageIcon> icon = icons.get(path);
+		if (icon == null)
+		{
+			CompletableFuture<ImageIcon> decoding = new CompletableFuture<ImageIcon>();
+			icon = icons.putIfAbsent(path, decoding);
+			if (icon == null)
+			{
+				icon = decoding;
+				try
+				{
+					decoding.complete(decode(path));
+				}
+				catch (RuntimeException e)
+				{
+					decoding.completeExceptionally(e);
+				}
+			}
+		}
+		try
+		{
+			return icon.join();
+		}
+		catch (CompletionException e)
+		{
+			if (e.getCause() instanceof RuntimeException)
+			{
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the shared image at a resource path, waiting for it if it is still being decoded.
+	 *
+	 * @see #getIcon(String)
+	 * @param path - the resource path of the image.
+	 * @return image - the decoded image, shared by every caller.
+	 */
+	public Image getImage(String path)
+	{
+		return getIcon(path).getImage();
+	}
+
+	/**
+	 * Decodes the image at a resource path.
+	 *
+	 * @param path - the resource path of the image.
+	 * @return icon - an icon of the fully decoded image.
+	 * @throws IllegalArgumentException if there is no image at the path.
+	 * @throws UncheckedIOException if the image can not be read.
+	 */
+	private static ImageIcon decode(String path)
+	{
+		URL resource = ImageCache.class.getResource(path);
+		if (resource == null)
+		{
+			throw new IllegalArgumentException("There is no image " + path);
+		}
+		try
+		{
+			Image image = ImageIO.read(resource);
+			if (image == null)
+			{
+				throw new IllegalArgumentException(path + " is not an image");
+			}
+			return new ImageIcon(image);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Could not read the image " + path, e);
+		}
+	}
+}
@@ -1,35 +1,203 @@
 package game.controllerClasses;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 /**
- * This Class uses the Random Class to generate random Events in the island trader 
+ * This Class uses the SplittableRandom Class to generate random Events in the island trader 
  * game. This RandomEvent Class is used to get random values each time the ship
  * sails between islands. This class controls whether the random events of pirates, 
  * bad weather or shipwrecked sailors occur while sailing. This Class also controls
  * dice rolls, random damage amounts and random money amounts for the random events
+ * <br>
+ * Each game has its own seed. Every voyage draws from its own stream, seeded by the next
+ * value of the games stream, so a game played again with the same seed and the same
+ * actions gets the same random events, and games never share random state.
  * 
  * @see GameEnvironment#badWeather()
  * @see GameEnvironment#getPiratesResults()
  * @see GameEnvironment#startPiratesEvent()
  * @see GameEnvironment#shipwreckedSailors()
- * @see Random
+ * @see SplittableRandom
  *
  * @author Sam Clark
  * @author Wil Johnston
  */
 public class RandomEvent 
 {
-	private Random random = new Random();
+	/**
+	 * The event rolled by {@link #rollEvent()} when pirates attack.
+	 */
+	public static final int PIRATES = 0;
+	
+	/**
+	 * The event rolled by {@link #rollEvent()} when shipwrecked sailors are rescued.
+	 */
+	public static final int SHIPWRECKED_SAILORS = 1;
+	
+	/**
+	 * The event rolled by {@link #rollEvent()} when the ship sails into bad weather.
+	 */
+	public static final int BAD_WEATHER = 2;
+	
+	private long seed;
+	private SplittableRandom gameRandom;
+	private SplittableRandom random;
+	private long voyageSeed;
+	private int voyages;
+	private int[] draws;
+	private int drawCount;
 	private GameEnvironment gameController;
 	
 	/**
 	 * Creates an instance of this RandomEvent Class. 
 	 * 
 	 * @param gameController - the gameController that runs the Island Trader Game
+	 * @param seed - the seed the random events of this game are derived from.
 	 */
-	RandomEvent(GameEnvironment gameController)
+	RandomEvent(GameEnvironment gameController, long seed)
 	{
 		this.gameController = gameController;
+		this.seed = seed;
+		gameRandom = new SplittableRandom(seed);
+		voyageSeed = gameRandom.nextLong();
+		random = new SplittableRandom(voyageSeed);
+		draws = new int[4];
+	}
+	
+	/**
+	 * Creates a RandomEvent positioned at the start of a single voyage's stream, for replaying
+	 * the random events of that voyage without a game.
+	 * 
+	 * @see #voyageSeeds(long, int)
+	 * @param voyageSeed - the seed of the voyage's stream.
+	 * @return voyageEvents - a RandomEvent drawing from the voyage's stream.
+	 */
+	public static RandomEvent forVoyage(long voyageSeed)
+	{
+		RandomEvent voyageEvents = new RandomEvent(null, voyageSeed);
+		voyageEvents.voyageSeed = voyageSeed;
+		voyageEvents.random = new SplittableRandom(voyageSeed);
+		return voyageEvents;
+	}
+	
+	/**
+	 * Gets the seeds of the first voyages of a game with the given seed. The random events of
+	 * the voyage at index i of a game are the ones drawn by {@link #forVoyage(long)} with 
+	 * seed i of this array.
+	 * 
+	 * @param seed - the seed of the game.
+	 * @param voyages - the number of voyage seeds to get.
+	 * @return voyageSeeds - the seed of each voyage in order.
+	 */
+	public static long[] voyageSeeds(long seed, int voyages)
+	{
+		SplittableRandom gameRandom = new SplittableRandom(seed);
+		gameRandom.nextLong();
+		long[] voyageSeeds = new long[voyages];
+		for (int voyage = 0; voyage < voyages; voyage++)
+		{
+			voyageSeeds[voyage] = gameRandom.nextLong();
+		}
+		return voyageSeeds;
+	}
+	
+	/**
+	 * Gets the seed the random events of this game are derived from.
+	 * 
+	 * @return seed - the seed of this game.
+	 */
+	public long getSeed()
+	{
+		return seed;
+	}
+	
+	/**
+	 * Gets the number of voyages that have had a random event rolled for them.
+	 * 
+	 * @return voyages - the number of voyages so far.
+	 */
+	public int getVoyages()
+	{
+		return voyages;
+	}
+	
+	/**
+	 * Starts the random stream for the next voyage. Events, dice rolls, damage and money
+	 * for the voyage are all drawn from this stream.
+	 */
+	private void beginVoyage()
+	{
+		voyageSeed = gameRandom.nextLong();
+		random = new SplittableRandom(voyageSeed);
+		voyages++;
+		drawCount = 0;
+	}
+	
+	/**
+	 * Draws a value from the current voyage's stream, remembering the bound so the stream
+	 * can be put back to this point by {@link #restore(int, int[])}.
+	 * 
+	 * @param bound - the number of possible values.
+	 * @return value - a value from 0 up to but not including the bound.
+	 */
+	private int draw(int bound)
+	{
+		if (drawCount == draws.length)
+		{
+			draws = Arrays.copyOf(draws, drawCount * 2);
+		}
+		draws[drawCount++] = bound;
+		return random.nextInt(bound);
+	}
+	
+	/**
+	 * Gets the bounds of the values drawn so far in the current voyage, in order. Together with
+	 * {@link #getVoyages()} they mark the position of this games random streams.
+	 * 
+	 * @return draws - a copy of the bounds of each value drawn this voyage.
+	 */
+	int[] getDraws()
+	{
+		return Arrays.copyOf(draws, drawCount);
+	}
+	
+	/**
+	 * Puts this games random streams back to the position marked by a number of voyages and
+	 * the draws made in the last of them, so the same random events follow.
+	 * <br>
+	 * When the voyage is the current one only its stream is replayed, otherwise the games
+	 * stream is replayed from the seed to reach the voyage.
+	 * 
+	 * @see #getDraws()
+	 * @param voyages - the number of voyages that had been made.
+	 * @param draws - the bounds of the values drawn in the last voyage.
+	 */
+	void restore(int voyages, int[] draws)
+	{
+		if (voyages == this.voyages)
+		{
+			if (drawCount == draws.length && Arrays.equals(this.draws, 0, drawCount, draws, 0, draws.length))
+			{
+				return;
+			}
+			random = new SplittableRandom(voyageSeed);
+		}
+		else
+		{
+			gameRandom = new SplittableRandom(seed);
+			voyageSeed = gameRandom.nextLong();
+			random = new SplittableRandom(voyageSeed);
+			this.voyages = 0;
+			while (this.voyages < voyages)
+			{
+				beginVoyage();
+			}
+		}
+		drawCount = 0;
+		for (int bound : draws)
+		{
+			draw(bound);
+		}
 	}
 	
 	/**
@@ -40,7 +208,7 @@ public class RandomEvent
 	 */
 	public int takeDamage()
 	{
-		int damageTaken = random.nextInt(20) + 15;
+		int damageTaken = draw(20) + 15;
 		return damageTaken;
 	}
 	
@@ -48,6 +216,8 @@ public class RandomEvent
 	 * This method is run every time the player sails in the island trader game.
 	 * It determines randomly if a random event occurs and if so which event. 
 	 * This method triggers the appropriate random event in GameEnvironmentt.
+	 * Each call starts the random stream of a new voyage, and the event rolled is reported to
+	 * the games {@link GameMetrics}.
 	 * 
 	 * @see GameEnvironment#badWeather()
 	 * @see GameEnvironment#startPiratesEvent()
@@ -55,16 +225,18 @@ public class RandomEvent
 	 */
 	public void randomEvent()
 	{
-		int randInt = random.nextInt(5);
-		switch (randInt)
+		beginVoyage();
+		int event = rollEvent();
+		gameController.getMetrics().randomEvent(event);
+		switch (event)
 		{
-		case 0:
+		case PIRATES:
 			gameController.startPiratesEvent();
 			break;
-		case 1:
+		case SHIPWRECKED_SAILORS:
 			gameController.shipwreckedSailors();
 			break;
-		case 2:
+		case BAD_WEATHER:
 			gameController.badWeather();
 			break;
 		default:
@@ -72,6 +244,17 @@ public class RandomEvent
 		}
 	}
 	
+	/**
+	 * Rolls which random event, if any, happens on the current voyage.
+	 * 
+	 * @return event - {@link #PIRATES}, {@link #SHIPWRECKED_SAILORS}, {@link #BAD_WEATHER}
+	 * or any other value if no event occurs.
+	 */
+	public int rollEvent()
+	{
+		return draw(5);
+	}
+	
 	/**
 	 * Simulates a dice roll returning a random integer 1 - 6 for the pirates and for the player.
 	 * The {@link GameEnvironment#getPiratesResults()} added the Ship cannon upgrade if applicable.
@@ -80,7 +263,7 @@ public class RandomEvent
 	 */
 	public int diceRoll()
 	{
-		return random.nextInt(6) + 1;
+		return draw(6) + 1;
 	}
 	
 	/**
@@ -95,7 +278,7 @@ public class RandomEvent
 	 */
 	public int randomMoney()
 	{
-		return random.nextInt(500) + 100;
+		return draw(500) + 100;
 	}
 
 }
@@ -0,0 +1,365 @@
+package game.controllerClasses;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import game.primaryClasses.WorldTemplate;
+import game.shipClasses.Ship;
+
+/**
+ * A file of saved island trader games in a compact, versioned binary format.
+ * <br>
+ * The file starts with a header of the magic number, the format version and the number of
+ * games saved. Each game follows as its length in bytes, the players name, the name of their
+ * {@link Ship}, the game length, the seed of the games random events, the
+ * {@link WorldTemplate#getFingerprint() fingerprint} of the world it is played in and a
+ * {@link GameSnapshot} of the game. Names are UTF-8 and numbers are big endian.
+ * <br>
+ * Opening a save file only reads the length of each game, and loading a game memory maps and
+ * decodes only that one. Games are found by their long position in the file, so one file can
+ * hold thousands of games for batch jobs and grow past 2 GB, though each game must be under
+ * 2 GB. Games can be appended to it one at a time. A game is loaded into the world it was
+ * played in, and is refused by any other world.
+ *
+ * @see GameSnapshot
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class SaveFile
+{
+	/**
+	 * The first four bytes of every save file, "ITSG".
+	 */
+	private static final int MAGIC = 0x49545347;
+
+	/**
+	 * The version of the format written by this class.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The size of the header: the magic number, the version and the number of games.
+	 */
+	private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+	private Path path;
+	private long[] offsets;
+	private int[] lengths;
+
+	/**
+	 * Creates a SaveFile reading the games in a file.
+	 *
+	 * @param path - the path of the save file.
+	 * @param offsets - the position of each game in the file, after its length.
+	 * @param lengths - the length of each game in bytes.
+	 */
+	private SaveFile(Path path, long[] offsets, int[] lengths)
+	{
+		this.path = path;
+		this.offsets = offsets;
+		this.lengths = lengths;
+	}
+
+	/**
+	 * Writes a new save file holding the given games, replacing any file at the path.
+	 *
+	 * @param path - the path of the save file.
+	 * @param games - the GameEnvironments whose games are saved, in order.
+	 * @throws IOException if the file can not be written.
+	 */
+	public static void write(Path path, List<GameEnvironment> games) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putInt(games.size()).flip();
+			writeFully(channel, header, 0);
+			long position = HEADER_SIZE;
+			for (GameEnvironment game : games)
+			{
+				ByteBuffer record = encode(game);
+				position += record.remaining();
+				writeFully(channel, record, position - record.remaining());
+			}
+		}
+	}
+
+	/**
+	 * Saves a game to the end of a save file, creating the file if it does not exist.
+	 *
+	 * @param path - the path of the save file.
+	 * @param game - the GameEnvironment whose game is saved.
+	 * @return index - the index of the saved game in the file.
+	 * @throws IOException if the file can not be written or is not a save file.
+	 */
+	public static int append(Path path, GameEnvironment game) throws IOException
+	{
+		if (!Files.exists(path))
+		{
+			write(path, List.of(game));
+			return 0;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			channel.read(header, 0);
+			header.flip();
+			int count = readHeader(header);
+			writeFully(channel, encode(game), channel.size());
+			ByteBuffer newCount = ByteBuffer.allocate(Integer.BYTES);
+			newCount.putInt(count + 1).flip();
+			writeFully(channel, newCount, 2 * Integer.BYTES);
+			return count;
+		}
+	}
+
+	/**
+	 * Opens a save file for loading by reading the length of each game.
+	 *
+	 * @param path - the path of the save file.
+	 * @return saveFile - the opened save file.
+	 * @throws IOException if the file can not be read, is not a save file or is incomplete.
+	 */
+	public static SaveFile open(Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			if (size < HEADER_SIZE || !readFully(channel, header, 0))
+			{
+				throw new IOException(path + " is not an island trader save file");
+			}
+			int count = readHeader(header.flip());
+			long[] offsets = new long[count];
+			int[] lengths = new int[count];
+			ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+			long position = HEADER_SIZE;
+			for (int i = 0; i < count; i++)
+			{
+				if (!readFully(channel, length.clear(), position))
+				{
+					throw new IOException(path + " is missing saved games");
+				}
+				lengths[i] = length.getInt(0);
+				offsets[i] = position + Integer.BYTES;
+				position = offsets[i] + lengths[i];
+				if (lengths[i] < 0 || position > size)
+				{
+					throw new IOException(path + " has an incomplete saved game");
+				}
+			}
+			return new SaveFile(path, offsets, lengths);
+		}
+	}
+
+	/**
+	 * Gets the number of games in this save file.
+	 *
+	 * @return size - the number of saved games.
+	 */
+	public int size()
+	{
+		return offsets.length;
+	}
+
+	/**
+	 * Loads a game saved in the default world, see {@link #load(int, GameListener, WorldTemplate)}.
+	 *
+	 * @param index - the index of the game in this file.
+	 * @param listener - the GameListener the loaded game reports to.
+	 * @return gameController - the GameEnvironment running the loaded game, with its GameState set.
+	 * @throws IOException if the saved game is damaged or was saved from a different world.
+	 * @throws IndexOutOfBoundsException if there is no game at the index.
+	 */
+	public GameEnvironment load(int index, GameListener listener) throws IOException
+	{
+		return load(index, listener, WorldTemplate.getDefault());
+	}
+
+	/**
+	 * Loads a saved game into a new GameEnvironment, ready to be played from where it was saved.
+	 *
+	 * @param index - the index of the game in this file.
+	 * @param listener - the GameListener the loaded game reports to.
+	 * @param world - the world the game was played in.
+	 * @return gameController - the GameEnvironment running the loaded game, with its GameState set.
+	 * @throws IOException if the file can not be read, or the saved game is damaged or was saved
+	 * from a different world.
+	 * @throws IndexOutOfBoundsException if there is no game at the index.
+	 */
+	public GameEnvironment load(int index, GameListener listener, WorldTemplate world) throws IOException
+	{
+		ByteBuffer record;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			if (offsets[index] + lengths[index] > channel.size())
+			{
+				throw new IOException("Saved game " + index + " is no longer in " + path);
+			}
+			record = channel.map(FileChannel.MapMode.READ_ONLY, offsets[index], lengths[index]);
+		}
+		try
+		{
+			return decode(record, listener, world);
+		}
+		catch (IOException exception)
+		{
+			throw new IOException("Saved game " + index + " " + exception.getMessage());
+		}
+	}
+
+	/**
+	 * Decodes a game written by {@link #encode(GameEnvironment)} into a new GameEnvironment
+	 * playing in a world.
+	 *
+	 * @param record - the buffer positioned after the length of the game.
+	 * @param listener - the GameListener the decoded game reports to.
+	 * @param world - the world the game was played in.
+	 * @return gameController - the GameEnvironment running the decoded game, with its GameState set.
+	 * @throws IOException if the game is damaged or was saved from a different world.
+	 */
+	static GameEnvironment decode(ByteBuffer record, GameListener listener, WorldTemplate world) throws IOException
+	{
+		try
+		{
+			String playerName = getString(record);
+			Ship ship = Ship.forName(getString(record));
+			int gameLength = record.getInt();
+			long seed = record.getLong();
+			if (record.getLong() != world.getFingerprint())
+			{
+				throw new IOException("is from a different world");
+			}
+			GameSnapshot snapshot = GameSnapshot.readFrom(record);
+
+			GameEnvironment gameController = new GameEnvironment(listener, seed, world);
+			GameState gameModel = new GameState(gameController);
+			gameController.setGameState(gameModel);
+			gameModel.setPlayerInfo(playerName, gameLength, ship);
+			if (!snapshot.fits(gameModel.getIslandsList().size(), gameModel.getInventory().size()))
+			{
+				throw new IOException("is from a different world");
+			}
+			gameModel.restore(snapshot);
+			return gameController;
+		}
+		catch (IllegalArgumentException | BufferUnderflowException exception)
+		{
+			throw new IOException("is damaged: " + exception.getMessage());
+		}
+	}
+
+	/**
+	 * Checks the header of a save file.
+	 *
+	 * @param header - the buffer positioned at the start of the file.
+	 * @return count - the number of games in the file.
+	 * @throws IOException if the header is not from a save file of this version.
+	 */
+	private static int readHeader(ByteBuffer header) throws IOException
+	{
+		if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC)
+		{
+			throw new IOException("This is not an island trader save file");
+		}
+		int version = header.getInt();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported save file version " + version);
+		}
+		int count = header.getInt();
+		if (count < 0)
+		{
+			throw new IOException("The save file has an invalid number of games");
+		}
+		return count;
+	}
+
+	/**
+	 * Encodes a game as its length followed by its contents.
+	 *
+	 * @param game - the GameEnvironment whose game is encoded.
+	 * @return record - a buffer holding the encoded game, ready to be written.
+	 */
+	static ByteBuffer encode(GameEnvironment game)
+	{
+		GameState gameModel = game.getGameState();
+		GameSnapshot snapshot = gameModel.snapshot();
+		byte[] playerName = gameModel.getPlayerName().getBytes(StandardCharsets.UTF_8);
+		byte[] shipName = gameModel.getShip().getName().getBytes(StandardCharsets.UTF_8);
+		int length = 2 * Short.BYTES + playerName.length + shipName.length + Integer.BYTES + 2 * Long.BYTES
+				+ snapshot.encodedSize();
+
+		ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length);
+		record.putInt(length);
+		record.putShort((short) playerName.length).put(playerName);
+		record.putShort((short) shipName.length).put(shipName);
+		record.putInt(gameModel.getGameLength());
+		record.putLong(game.getSeed());
+		record.putLong(game.getWorld().getFingerprint());
+		snapshot.writeTo(record);
+		return record.flip();
+	}
+
+	/**
+	 * Writes all of a buffer to a channel at a position.
+	 *
+	 * @param channel - the channel of the save file.
+	 * @param bytes - the bytes to write.
+	 * @param position - the position in the file to write them at.
+	 * @throws IOException if the bytes can not be written.
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException
+	{
+		while (bytes.hasRemaining())
+		{
+			position += channel.write(bytes, position);
+		}
+	}
+
+	/**
+	 * Reads bytes from a channel at a position until a buffer is full.
+	 *
+	 * @param channel - the channel of the save file.
+	 * @param bytes - the buffer to fill.
+	 * @param position - the position in the file to read from.
+	 * @return boolean - true if the buffer was filled, false if the file ended first.
+	 * @throws IOException if the bytes can not be read.
+	 */
+	private static boolean readFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException
+	{
+		while (bytes.hasRemaining())
+		{
+			int read = channel.read(bytes, position);
+			if (read < 0)
+			{
+				return false;
+			}
+			position += read;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads a UTF-8 string written as its length in bytes followed by its bytes.
+	 *
+	 * @param record - the buffer positioned at the string.
+	 * @return string - the string read.
+	 */
+	private static String getString(ByteBuffer record)
+	{
+		byte[] bytes = new byte[Short.toUnsignedInt(record.getShort())];
+		record.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
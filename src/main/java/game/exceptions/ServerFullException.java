@@ -0,0 +1,28 @@
+package game.exceptions;
+
+/**
+ * This Exception is used by the island trader server and is thrown when a new game is
+ * started while the server is hosting as many games as it can, and none of them have been
+ * left idle long enough to be ended to make room.
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class ServerFullException extends Exception
+{
+	/**
+	 * The Serial Version for ServerFullException
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a ServerFullException using the super class Exception.
+	 * 
+	 * @param errorText - To tell the player why their game could not be started.
+	 * @see   Exception
+	 */
+	public ServerFullException(String errorText)
+	{
+		super(errorText);
+	}
+}
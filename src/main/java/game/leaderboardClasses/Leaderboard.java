@@ -0,0 +1,305 @@
+package game.leaderboardClasses;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import game.controllerClasses.GameState;
+
+/**
+ * The leaderboard of finished island trader games, kept in a local file.
+ * <br>
+ * Every game recorded is appended to the file as the players name, the name of their ship, the
+ * game length and the final score. Names are UTF-8 and numbers are big endian, after a header
+ * of the magic number and the format version. Opening the leaderboard reads the file once and
+ * builds two indexes in memory: <br>
+ * - a ConcurrentSkipListSet of the entries, best first, so the top games are read straight
+ * from the front of the set <br>
+ * - a {@link ScoreIndex} counting the games at each score, so the rank of any score is found
+ * without walking the entries above it
+ * <br>
+ * Both indexes are concurrent, so many games can be recorded at once while others read the
+ * leaderboard. Only writing to the file takes a lock, a ReentrantLock so a virtual thread
+ * waiting for it does not pin its carrier thread. A partly written entry at the end of the
+ * file, left when a game stops while recording, is cut off when the file is opened.
+ *
+ * @see LeaderboardEntry
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class Leaderboard implements Closeable
+{
+	/**
+	 * The first four bytes of every leaderboard file, "ITLB".
+	 */
+	private static final int MAGIC = 0x49544C42;
+
+	/**
+	 * The version of the format written by this class.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The size of the header: the magic number and the version.
+	 */
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+	private final ConcurrentSkipListSet<LeaderboardEntry> entries;
+	private final ScoreIndex scores;
+	private final FileChannel channel;
+	private final ReentrantLock writeLock;
+	private long nextSequence;
+
+	/**
+	 * Creates a Leaderboard kept in an open file.
+	 *
+	 * @param channel - the channel of the leaderboard file, or null to keep the leaderboard in memory only.
+	 */
+	private Leaderboard(FileChannel channel)
+	{
+		entries = new ConcurrentSkipListSet<LeaderboardEntry>();
+		scores = new ScoreIndex();
+		this.channel = channel;
+		writeLock = new ReentrantLock();
+	}
+
+	/**
+	 * Creates an empty leaderboard that is only kept in memory, for simulations and tests.
+	 *
+	 * @return leaderboard - the empty leaderboard.
+	 */
+	public static Leaderboard inMemory()
+	{
+		return new Leaderboard(null);
+	}
+
+	/**
+	 * Opens the leaderboard kept in a file, creating the file if it does not exist.
+	 *
+	 * @param path - the path of the leaderboard file.
+	 * @return leaderboard - the leaderboard with every game recorded in the file.
+	 * @throws IOException if the file can not be read or written, or is not a leaderboard file.
+	 */
+	public static Leaderboard open(Path path) throws IOException
+	{
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try
+		{
+			Leaderboard leaderboard = new Leaderboard(channel);
+			leaderboard.load(path);
+			return leaderboard;
+		}
+		catch (IOException | RuntimeException exception)
+		{
+			channel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Reads every entry in the file into the indexes, writing the header if the file is new.
+	 *
+	 * @param path - the path of the leaderboard file, for error messages.
+	 * @throws IOException if the file can not be read or is not a leaderboard file.
+	 */
+	private void load(Path path) throws IOException
+	{
+		if (channel.size() == 0)
+		{
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).flip();
+			writeFully(header, 0);
+			return;
+		}
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+		{
+			throw new IOException(path + " is not an island trader leaderboard");
+		}
+		int version = buffer.getInt();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported leaderboard version " + version);
+		}
+		int end = buffer.position();
+		while (buffer.hasRemaining())
+		{
+			try
+			{
+				String playerName = getString(buffer);
+				String shipName = getString(buffer);
+				int gameLength = buffer.getInt();
+				int score = buffer.getInt();
+				index(new LeaderboardEntry(nextSequence++, playerName, shipName, gameLength, score));
+				end = buffer.position();
+			}
+			catch (RuntimeException exception)
+			{
+				// A partly written entry, the game stopped before it was recorded
+				break;
+			}
+		}
+		if (end < channel.size())
+		{
+			channel.truncate(end);
+		}
+	}
+
+	/**
+	 * Records the result of a finished game.
+	 *
+	 * @param gameModel - the GameState of the finished game.
+	 * @return entry - the entry recorded.
+	 * @throws IOException if the entry can not be written to the leaderboard file.
+	 */
+	public LeaderboardEntry record(GameState gameModel) throws IOException
+	{
+		return record(gameModel.getPlayerName(), gameModel.getShip().getName(), gameModel.getGameLength(),
+				gameModel.calculateScore());
+	}
+
+	/**
+	 * Records the result of a finished game.
+	 *
+	 * @param playerName - the players name.
+	 * @param shipName - the name of the ship the player captained.
+	 * @param gameLength - the length of the game in days.
+	 * @param score - the players final score.
+	 * @return entry - the entry recorded.
+	 * @throws IOException if the entry can not be written to the leaderboard file.
+	 * @throws IllegalArgumentException if the score is negative.
+	 */
+	public LeaderboardEntry record(String playerName, String shipName, int gameLength, int score) throws IOException
+	{
+		if (score < 0)
+		{
+			throw new IllegalArgumentException("A score can not be negative: " + score);
+		}
+		byte[] player = playerName.getBytes(StandardCharsets.UTF_8);
+		byte[] ship = shipName.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer record = ByteBuffer.allocate(2 * Short.BYTES + player.length + ship.length + 2 * Integer.BYTES);
+		record.putShort((short) player.length).put(player);
+		record.putShort((short) ship.length).put(ship);
+		record.putInt(gameLength).putInt(score).flip();
+
+		LeaderboardEntry entry;
+		writeLock.lock();
+		try
+		{
+			if (channel != null)
+			{
+				writeFully(record, channel.size());
+			}
+			entry = new LeaderboardEntry(nextSequence++, playerName, shipName, gameLength, score);
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+		index(entry);
+		return entry;
+	}
+
+	/**
+	 * Adds an entry to the in memory indexes.
+	 *
+	 * @param entry - the entry to add.
+	 */
+	private void index(LeaderboardEntry entry)
+	{
+		entries.add(entry);
+		scores.add(entry.score());
+	}
+
+	/**
+	 * Gets the best games on the leaderboard.
+	 *
+	 * @param count - the most entries to get.
+	 * @return top - the best entries, best first.
+	 */
+	public List<LeaderboardEntry> top(int count)
+	{
+		List<LeaderboardEntry> top = new ArrayList<LeaderboardEntry>(Math.min(count, 1024));
+		Iterator<LeaderboardEntry> best = entries.iterator();
+		while (top.size() < count && best.hasNext())
+		{
+			top.add(best.next());
+		}
+		return top;
+	}
+
+	/**
+	 * Gets the rank a game with a score would have on the leaderboard, 1 for the best score.
+	 * Games that tie share the rank.
+	 *
+	 * @param score - the score.
+	 * @return rank - one more than the number of games with a higher score.
+	 */
+	public long rankOf(int score)
+	{
+		return scores.countAbove(score) + 1;
+	}
+
+	/**
+	 * Gets the number of games on the leaderboard.
+	 *
+	 * @return size - the number of games recorded.
+	 */
+	public long size()
+	{
+		return scores.size();
+	}
+
+	/**
+	 * Closes the leaderboard file. Entries already recorded stay readable.
+	 *
+	 * @throws IOException if the file can not be closed.
+	 */
+	public void close() throws IOException
+	{
+		if (channel != null)
+		{
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes all of a buffer to the leaderboard file at a position.
+	 *
+	 * @param bytes - the bytes to write.
+	 * @param position - the position in the file to write them at.
+	 * @throws IOException if the bytes can not be written.
+	 */
+	private void writeFully(ByteBuffer bytes, long position) throws IOException
+	{
+		while (bytes.hasRemaining())
+		{
+			position += channel.write(bytes, position);
+		}
+	}
+
+	/**
+	 * Reads a UTF-8 string written as its length in bytes followed by its bytes.
+	 *
+	 * @param buffer - the buffer positioned at the string.
+	 * @return string - the string read.
+	 */
+	private static String getString(ByteBuffer buffer)
+	{
+		byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,35 @@
+package game.leaderboardClasses;
+
+/**
+ * One finished game recorded on the {@link Leaderboard}.
+ * <br>
+ * Entries are ordered best first: by score, highest first, and then by the order they were
+ * recorded in, so the first player to reach a score stays ahead of later players who tie it.
+ *
+ * @param sequence - the position of the entry in the leaderboard file, 0 for the first game recorded.
+ * @param playerName - the players name.
+ * @param shipName - the name of the ship the player captained.
+ * @param gameLength - the length of the game in days.
+ * @param score - the players final score, see {@link game.controllerClasses.GameState#calculateScore()}.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public record LeaderboardEntry(long sequence, String playerName, String shipName, int gameLength, int score)
+		implements Comparable<LeaderboardEntry>
+{
+	/**
+	 * Compares this entry to another, best first.
+	 *
+	 * @param other - the entry to compare to.
+	 * @return order - negative if this entry ranks above the other, positive if it ranks below.
+	 */
+	public int compareTo(LeaderboardEntry other)
+	{
+		if (score != other.score)
+		{
+			return Integer.compare(other.score, score);
+		}
+		return Long.compare(sequence, other.sequence);
+	}
+}
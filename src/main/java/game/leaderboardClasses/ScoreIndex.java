@@ -0,0 +1,149 @@
+package game.leaderboardClasses;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A count of how many games finished with each score, for finding the rank of a score.
+ * <br>
+ * The counts are kept in two levels of Fenwick trees. Scores are split into buckets of
+ * {@value #BUCKET_SIZE} scores by their high bits. The top tree counts the games in each bucket
+ * and each bucket has its own tree counting the games at each score in it, created when the
+ * first game lands in the bucket. Adding a score and counting the games above a score each
+ * walk one path through both trees, about 31 steps however many games are counted, and the
+ * memory used grows with the range of scores seen rather than the number of games.
+ * <br>
+ * Counts are updated with atomic adds, so scores can be added from many threads without
+ * locking. A count taken while scores are being added may miss some of them, in the same
+ * way as iterating a concurrent collection.
+ *
+ * @see Leaderboard
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class ScoreIndex
+{
+	/**
+	 * The number of low bits of a score that pick its place in a bucket.
+	 */
+	private static final int LOW_BITS = 12;
+
+	/**
+	 * The number of scores in each bucket.
+	 */
+	private static final int BUCKET_SIZE = 1 << LOW_BITS;
+
+	/**
+	 * The number of buckets needed to cover every score from 0 to Integer.MAX_VALUE.
+	 */
+	private static final int BUCKETS = 1 << (Integer.SIZE - 1 - LOW_BITS);
+
+	private final AtomicLongArray bucketTree;
+	private final AtomicReferenceArray<AtomicIntegerArray> scoreTrees;
+
+	/**
+	 * Creates an empty index.
+	 */
+	public ScoreIndex()
+	{
+		bucketTree = new AtomicLongArray(BUCKETS + 1);
+		scoreTrees = new AtomicReferenceArray<AtomicIntegerArray>(BUCKETS);
+	}
+
+	/**
+	 * Counts a game that finished with a score.
+	 *
+	 * @param score - the games score.
+	 * @throws IllegalArgumentException if the score is negative.
+	 */
+	public void add(int score)
+	{
+		if (score < 0)
+		{
+			throw new IllegalArgumentException("A score can not be negative: " + score);
+		}
+		int bucket = score >>> LOW_BITS;
+		AtomicIntegerArray scoreTree = scoreTrees.get(bucket);
+		if (scoreTree == null)
+		{
+			scoreTrees.compareAndSet(bucket, null, new AtomicIntegerArray(BUCKET_SIZE + 1));
+			scoreTree = scoreTrees.get(bucket);
+		}
+		for (int i = (score & (BUCKET_SIZE - 1)) + 1; i <= BUCKET_SIZE; i += i & -i)
+		{
+			scoreTree.incrementAndGet(i);
+		}
+		for (int i = bucket + 1; i <= BUCKETS; i += i & -i)
+		{
+			bucketTree.incrementAndGet(i);
+		}
+	}
+
+	/**
+	 * Counts the games that finished with a higher score than the given score.
+	 *
+	 * @param score - the score to compare to.
+	 * @return count - the number of games with a higher score.
+	 */
+	public long countAbove(int score)
+	{
+		if (score < 0)
+		{
+			return size();
+		}
+		int bucket = score >>> LOW_BITS;
+		long above = size() - prefix(bucketTree, bucket + 1);
+		AtomicIntegerArray scoreTree = scoreTrees.get(bucket);
+		if (scoreTree != null)
+		{
+			above += prefix(scoreTree, BUCKET_SIZE) - prefix(scoreTree, (score & (BUCKET_SIZE - 1)) + 1);
+		}
+		return above;
+	}
+
+	/**
+	 * Gets the number of games counted.
+	 *
+	 * @return size - the number of games.
+	 */
+	public long size()
+	{
+		return prefix(bucketTree, BUCKETS);
+	}
+
+	/**
+	 * Sums the first counts of a Fenwick tree.
+	 *
+	 * @param tree - the tree, indexed from 1.
+	 * @param end - the number of counts to sum.
+	 * @return sum - the sum of the counts.
+	 */
+	private static long prefix(AtomicLongArray tree, int end)
+	{
+		long sum = 0;
+		for (int i = end; i > 0; i -= i & -i)
+		{
+			sum += tree.get(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Sums the first counts of a Fenwick tree.
+	 *
+	 * @param tree - the tree, indexed from 1.
+	 * @param end - the number of counts to sum.
+	 * @return sum - the sum of the counts.
+	 */
+	private static long prefix(AtomicIntegerArray tree, int end)
+	{
+		long sum = 0;
+		for (int i = end; i > 0; i -= i & -i)
+		{
+			sum += tree.get(i);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,205 @@
+package game.primaryClasses;
+
+import java.util.Arrays;
+
+/**
+ * The sea routes between the {@link Island}s in the Island Trader Game and their distances in km.
+ * <br>
+ * Only islands joined by a route can be sailed between. In the default world every pair of
+ * islands is joined, while generated worlds only join nearby islands. The routes are kept
+ * in compressed sparse row form: the routes from island a are at the indexes from
+ * {@link #getFirstRoute(int) getFirstRoute(a)} up to {@link #getFirstRoute(int) getFirstRoute(a + 1)},
+ * sorted by the island they go to, with the island and distance of each route in two int
+ * arrays. A world of tens of thousands of islands only takes memory for its routes, and the
+ * route between two islands is found with a binary search of the routes from one of them.
+ * <br>
+ * Routes are the same in both directions and an island is zero km from itself. A
+ * DistanceMatrix never changes once made, so one is shared by every game of a {@link WorldTemplate}.
+ *
+ * @see Island#getDistances()
+ * @see WorldTemplate
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class DistanceMatrix
+{
+	/**
+	 * The distance between two islands that are not joined by a route.
+	 */
+	public static final int NO_ROUTE = -1;
+
+	private final int[] firstRoutes;
+	private final int[] destinations;
+	private final int[] distances;
+
+	/**
+	 * Creates a DistanceMatrix from routes in compressed sparse row form.
+	 *
+	 * @param firstRoutes - the index of the first route from each island, with one more entry
+	 * holding the number of routes.
+	 * @param destinations - the id of the island each route goes to, sorted for each island.
+	 * @param distances - the distance of each route in km.
+	 */
+	private DistanceMatrix(int[] firstRoutes, int[] destinations, int[] distances)
+	{
+		this.firstRoutes = firstRoutes;
+		this.destinations = destinations;
+		this.distances = distances;
+	}
+
+	/**
+	 * Creates a DistanceMatrix from a list of routes, each given once in either direction.
+	 *
+	 * @param islandCount - the number of islands.
+	 * @param from - the id of the island at one end of each route.
+	 * @param to - the id of the island at the other end of each route.
+	 * @param km - the distance of each route in km.
+	 * @param routeCount - the number of routes in the arrays.
+	 * @return matrix - the DistanceMatrix of the routes.
+	 * @throws IllegalArgumentException if a route joins an island to itself or two routes join the same islands.
+	 */
+	public static DistanceMatrix of(int islandCount, int[] from, int[] to, int[] km, int routeCount)
+	{
+		int[] firstRoutes = new int[islandCount + 1];
+		for (int route = 0; route < routeCount; route++)
+		{
+			if (from[route] == to[route])
+			{
+				throw new IllegalArgumentException("A route must join two different islands");
+			}
+			firstRoutes[from[route] + 1]++;
+			firstRoutes[to[route] + 1]++;
+		}
+		for (int island = 0; island < islandCount; island++)
+		{
+			firstRoutes[island + 1] += firstRoutes[island];
+		}
+
+		long[] sorted = new long[2 * routeCount];
+		int[] next = Arrays.copyOf(firstRoutes, islandCount);
+		for (int route = 0; route < routeCount; route++)
+		{
+			sorted[next[from[route]]++] = pack(to[route], km[route]);
+			sorted[next[to[route]]++] = pack(from[route], km[route]);
+		}
+		int[] destinations = new int[sorted.length];
+		int[] distances = new int[sorted.length];
+		for (int island = 0; island < islandCount; island++)
+		{
+			Arrays.sort(sorted, firstRoutes[island], firstRoutes[island + 1]);
+			for (int route = firstRoutes[island]; route < firstRoutes[island + 1]; route++)
+			{
+				destinations[route] = (int) (sorted[route] >>> Integer.SIZE);
+				distances[route] = (int) sorted[route];
+				if (route > firstRoutes[island] && destinations[route] == destinations[route - 1])
+				{
+					throw new IllegalArgumentException("Islands " + island + " and " + destinations[route]
+							+ " are joined by two routes");
+				}
+			}
+		}
+		return new DistanceMatrix(firstRoutes, destinations, distances);
+	}
+
+	/**
+	 * Packs a route's destination and distance into one long that sorts by destination.
+	 *
+	 * @param destination - the id of the island the route goes to.
+	 * @param km - the distance of the route.
+	 * @return packed - the destination in the high bits and the distance in the low bits.
+	 */
+	private static long pack(int destination, int km)
+	{
+		return ((long) destination << Integer.SIZE) | (km & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Gets the index of the route between two islands.
+	 *
+	 * @param a - the id of the island the route is from.
+	 * @param b - the id of the island the route goes to.
+	 * @return index - the index of the route, or -1 if a and b are the same island or are not joined.
+	 */
+	public int indexOf(int a, int b)
+	{
+		if (a == b)
+		{
+			return -1;
+		}
+		int index = Arrays.binarySearch(destinations, firstRoutes[a], firstRoutes[a + 1], b);
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * Gets the distance between two islands.
+	 *
+	 * @param a - the id of one island.
+	 * @param b - the id of the other island.
+	 * @return km - the distance between the islands in km, zero if they are the same island
+	 * or {@link #NO_ROUTE} if they are not joined by a route.
+	 */
+	public int getDistance(int a, int b)
+	{
+		if (a == b)
+		{
+			return 0;
+		}
+		int index = indexOf(a, b);
+		return index < 0 ? NO_ROUTE : distances[index];
+	}
+
+	/**
+	 * Gets the index of the first route from an island. The routes from island a end at the
+	 * first route of island a + 1.
+	 *
+	 * @param island - the id of the island, or the number of islands to get the number of routes.
+	 * @return index - the index of the islands first route.
+	 */
+	public int getFirstRoute(int island)
+	{
+		return firstRoutes[island];
+	}
+
+	/**
+	 * Gets the island a route goes to.
+	 *
+	 * @param route - the index of the route.
+	 * @return island - the id of the island the route goes to.
+	 */
+	public int getDestination(int route)
+	{
+		return destinations[route];
+	}
+
+	/**
+	 * Gets the distance of a route.
+	 *
+	 * @param route - the index of the route.
+	 * @return km - the distance of the route in km.
+	 */
+	public int getRouteDistance(int route)
+	{
+		return distances[route];
+	}
+
+	/**
+	 * Gets the number of routes, counting each direction of a route.
+	 *
+	 * @return routeCount - the number of routes.
+	 */
+	public int getRouteCount()
+	{
+		return destinations.length;
+	}
+
+	/**
+	 * Gets the number of islands in this DistanceMatrix.
+	 *
+	 * @return islandCount - the number of islands.
+	 */
+	public int getIslandCount()
+	{
+		return firstRoutes.length - 1;
+	}
+}
@@ -1,35 +1,45 @@
 package game.primaryClasses;
 
-import java.util.Hashtable;
-import game.controllerClasses.GameEnvironment;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * The Island Class for use in the Island Trader Game. This class is used for each of 
- * the 5 islands in the game. Each Island has a name and store, as well as a dictionary 
- * of distances to the other islands and a types of item that is supplies and demands.
+ * the islands in the game. Each Island has a name and store, as well as the 
+ * {@link DistanceMatrix} of distances to the other islands and a types of item that is
+ * supplies and demands.
  *  
- * @see GameEnvironment#createIslands(java.util.ArrayList)
+ * @see WorldTemplate
  * @author Sam Clark
  * @author Wil Johnston
  */
 public class Island 
 {
+	private int id;
 	private String name;
 	private Store store;
-	private Hashtable<Island, Integer> distances;
+	private DistanceMatrix distances;
+	private List<Island> islands;
 	private String supply;
 	private String demand;
 	
 	/**
 	 * Creates an instance of this Island Class for use in the island trader game.
 	 * 
+	 * @param id - The index of the Island in the games list of islands
 	 * @param name - The name of the Island
 	 * @param store - The Store on the island of class {@link Store}
 	 * @param supply - A string representing the type of goods the Island supplies cheaply
 	 * @param demand - A string representing the type of items the Island demands at higher prices.
 	 */
-	public Island(String name, Store store, String supply, String demand)
+	public Island(int id, String name, Store store, String supply, String demand)
 	{
+		this.id = id;
 		this.name =  name;
 		this.store = store;
 		this.supply = supply;
@@ -40,12 +50,56 @@ public class Island
 	 * Sets the distances to every other island in the island trader game. Each distance is in 
 	 * kilometers
 	 * 
-	 * @param distances - A Hashtable mapping Islands to integer values representing that island's
-	 * distance away.
+	 * @param distances - The DistanceMatrix shared by every island in the game.
+	 * @param islands - The islands of the game, in order of their id.
 	 */
-	public void setDistances(Hashtable<Island, Integer> distances)
+	public void setDistances(DistanceMatrix distances, List<Island> islands)
 	{
 		this.distances = distances;
+		this.islands = islands;
+	}
+	
+	/**
+	 * Gets the distance from this island to another island in kilometers.
+	 * 
+	 * @param island - The island to get the distance to.
+	 * @return distance - The distance to the island in km, or {@link DistanceMatrix#NO_ROUTE}
+	 * if there is no route to it.
+	 */
+	public int getDistanceTo(Island island)
+	{
+		return distances.getDistance(id, island.getId());
+	}
+	
+	/**
+	 * Checks if a route joins this island to another island.
+	 * 
+	 * @param island - The other island.
+	 * @return boolean - true if the player can sail straight from this island to the other.
+	 */
+	public boolean hasRouteTo(Island island)
+	{
+		return distances.indexOf(id, island.getId()) >= 0;
+	}
+	
+	/**
+	 * Gets the DistanceMatrix holding the distances between all of the islands in the game.
+	 * 
+	 * @return distances - The DistanceMatrix shared by every island in the game.
+	 */
+	public DistanceMatrix getDistanceMatrix()
+	{
+		return distances;
+	}
+	
+	/**
+	 * Gets the id of this Island, its index in the games list of islands.
+	 * 
+	 * @return id - The id of this Island.
+	 */
+	public int getId()
+	{
+		return id;
 	}
 	
 	/**
@@ -69,14 +123,70 @@ public class Island
 	}
 	
 	/**
-	 * Gets the Hashtable mapping to the distances to each other island in Game.
+	 * Gets a read-only Map view of the distances to each island joined to this island by a route.
 	 * 
-	 * @return distances - A Hashtable mapping Islands to integer values representing each island's
+	 * @return distances - A Map from Islands to integer values representing each island's
 	 * distance away.
 	 */
-	public Hashtable<Island, Integer> getDistances()
+	public Map<Island, Integer> getDistances()
 	{
-		return distances;
+		return new AbstractMap<Island, Integer>()
+		{
+			public Integer get(Object key)
+			{
+				if (containsKey(key))
+				{
+					return getDistanceTo((Island) key);
+				}
+				return null;
+			}
+			
+			public boolean containsKey(Object key)
+			{
+				if (key instanceof Island)
+				{
+					int keyId = ((Island) key).getId();
+					return keyId >= 0 && keyId < islands.size() && islands.get(keyId) == key
+							&& distances.indexOf(id, keyId) >= 0;
+				}
+				return false;
+			}
+			
+			public Set<Map.Entry<Island, Integer>> entrySet()
+			{
+				return new AbstractSet<Map.Entry<Island, Integer>>()
+				{
+					public int size()
+					{
+						return distances.getFirstRoute(id + 1) - distances.getFirstRoute(id);
+					}
+					
+					public Iterator<Map.Entry<Island, Integer>> iterator()
+					{
+						return new Iterator<Map.Entry<Island, Integer>>()
+						{
+							private int next = distances.getFirstRoute(id);
+							
+							public boolean hasNext()
+							{
+								return next < distances.getFirstRoute(id + 1);
+							}
+							
+							public Map.Entry<Island, Integer> next()
+							{
+								if (!hasNext())
+								{
+									throw new NoSuchElementException();
+								}
+								Island island = islands.get(distances.getDestination(next));
+								int km = distances.getRouteDistance(next++);
+								return new AbstractMap.SimpleImmutableEntry<Island, Integer>(island, km);
+							}
+						};
+					}
+				};
+			}
+		};
 	}
 	
 	/**
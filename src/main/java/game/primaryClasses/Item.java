@@ -1,19 +1,18 @@
 package game.primaryClasses;
 
-import game.controllerClasses.GameEnvironment;
-
 /**
  * Item class for the Island Trader Game.
  * 
  * This class is used to create the items bought and 
  * sold in the island trader game.  
  * 
- * @see GameEnvironment#createItems()
+ * @see WorldTemplate
  * @author Sam Clark
  * @author Wil Johnston
  */
 public class Item 
 {
+	private int id;
 	private String name;
 	private int weight;
 	private int defaultPrice;
@@ -21,17 +20,30 @@ public class Item
 	/**
 	 * Constructs an instance of Item class
 	 * 
+	 * @param id - the index of the item in the games list of items
 	 * @param name - the name of the item
 	 * @param weight - the weight of the item
 	 * @param defaultPrice - the default price of the item
 	 */
-	public Item(String name, int weight, int defaultPrice)
+	public Item(int id, String name, int weight, int defaultPrice)
 	{
+		this.id = id;
 		this.name = name;
 		this.weight = weight;
 		this.defaultPrice = defaultPrice;
 	}
 	
+	/**
+	 * Gets the id of this Item instance. Ids run from zero in the order the items are
+	 * created, so they can index the arrays of an {@link ItemTable}.
+	 * 
+	 * @return the id of this Item
+	 */
+	public int getId()
+	{
+		return id;
+	}
+	
 	/**
 	 * Gets the name attribute of this Item instance
 	 * 
@@ -0,0 +1,264 @@
+package game.primaryClasses;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import game.controllerClasses.GameState;
+
+/**
+ * A table mapping each {@link Item} in the Island Trader Game to an integer value.
+ * <br>
+ * ItemTable is used for the players inventory in {@link GameState} and for the prices and
+ * stock of each {@link Store}. The values are kept in an int array indexed by each items id,
+ * so reading or changing a value is a single array access with no boxing or hashing.
+ * {@link #asMap()} gives a read-only Map view for code that wants one.
+ * <br>
+ * A table can also be a view of one island's part of a larger array, as the stores'
+ * tables are views of the arrays of the game's {@link Market}.
+ * 
+ * @see Item#getId()
+ * @see Store
+ * @see GameState#getInventory()
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class ItemTable 
+{
+	private List<Item> items;
+	private int[] values;
+	private int offset;
+	
+	/**
+	 * Creates an ItemTable mapping every item to zero.
+	 * 
+	 * @param items - the items of the game, in order of their id.
+	 */
+	public ItemTable(List<Item> items)
+	{
+		this.items = items;
+		values = new int[items.size()];
+	}
+	
+	/**
+	 * Creates an ItemTable holding the values of the given map.
+	 * 
+	 * @param values - a map from each item of the game to its value.
+	 */
+	public ItemTable(Map<Item, Integer> values)
+	{
+		Item[] byId = new Item[values.size()];
+		for (Item item : values.keySet())
+		{
+			byId[item.getId()] = item;
+		}
+		items = List.of(byId);
+		this.values = new int[byId.length];
+		for (Map.Entry<Item, Integer> entry : values.entrySet())
+		{
+			this.values[entry.getKey().getId()] = entry.getValue();
+		}
+	}
+	
+	/**
+	 * Creates a copy of an ItemTable.
+	 * 
+	 * @param table - the ItemTable to copy.
+	 */
+	public ItemTable(ItemTable table)
+	{
+		items = table.items;
+		values = Arrays.copyOfRange(table.values, table.offset, table.offset + table.size());
+	}
+	
+	/**
+	 * Creates an ItemTable that is a view of the values in an array from an offset onwards,
+	 * in order of item id. Changing the table changes the array.
+	 * 
+	 * @param items - the items of the game, in order of their id.
+	 * @param values - the array holding the values.
+	 * @param offset - the index of the array holding the value of the first item.
+	 */
+	ItemTable(List<Item> items, int[] values, int offset)
+	{
+		this.items = items;
+		this.values = values;
+		this.offset = offset;
+	}
+	
+	/**
+	 * Gets the value of an item.
+	 * 
+	 * @param item - the item to get the value of.
+	 * @return value - the value mapped to the item.
+	 */
+	public int get(Item item)
+	{
+		return values[offset + item.getId()];
+	}
+	
+	/**
+	 * Gets the value of the item with the given id.
+	 * 
+	 * @param id - the id of the item.
+	 * @return value - the value mapped to the item.
+	 */
+	public int get(int id)
+	{
+		return values[offset + id];
+	}
+	
+	/**
+	 * Sets the value of an item.
+	 * 
+	 * @param item - the item to set the value of.
+	 * @param value - the new value of the item.
+	 */
+	public void set(Item item, int value)
+	{
+		values[offset + item.getId()] = value;
+	}
+	
+	/**
+	 * Adds an amount to the value of an item. The amount may be negative.
+	 * 
+	 * @param item - the item whose value is changed.
+	 * @param amount - the amount added to the item's value.
+	 */
+	public void add(Item item, int amount)
+	{
+		values[offset + item.getId()] += amount;
+	}
+	
+	/**
+	 * Sets every value of this table to the values of another table of the same items.
+	 * 
+	 * @param table - the table to copy the values of.
+	 */
+	public void copyFrom(ItemTable table)
+	{
+		System.arraycopy(table.values, table.offset, values, offset, size());
+	}
+	
+	/**
+	 * Copies the values of this table into an array, in order of item id.
+	 * 
+	 * @param destination - the array the values are copied into.
+	 * @param offset - the index of the destination the value of the first item is copied to.
+	 */
+	public void copyTo(int[] destination, int offset)
+	{
+		System.arraycopy(values, this.offset, destination, offset, size());
+	}
+	
+	/**
+	 * Sets every value of this table from an array, in order of item id.
+	 * 
+	 * @param source - the array the values are copied from.
+	 * @param offset - the index of the source holding the value of the first item.
+	 */
+	public void copyFrom(int[] source, int offset)
+	{
+		System.arraycopy(source, offset, values, this.offset, size());
+	}
+	
+	/**
+	 * Gets the items of this table.
+	 * 
+	 * @return items - the items of the game, in order of their id.
+	 */
+	public List<Item> getItems()
+	{
+		return items;
+	}
+	
+	/**
+	 * Gets the number of items in this table.
+	 * 
+	 * @return size - the number of items.
+	 */
+	public int size()
+	{
+		return items.size();
+	}
+	
+	/**
+	 * Gets a read-only Map view of this table. The view always shows the current values.
+	 * 
+	 * @return map - a map from each item to its value.
+	 */
+	public Map<Item, Integer> asMap()
+	{
+		return new AbstractMap<Item, Integer>()
+		{
+			public Integer get(Object key)
+			{
+				if (containsKey(key))
+				{
+					return get((Item) key);
+				}
+				return null;
+			}
+			
+			public boolean containsKey(Object key)
+			{
+				if (key instanceof Item)
+				{
+					int id = ((Item) key).getId();
+					return id >= 0 && id < size() && items.get(id) == key;
+				}
+				return false;
+			}
+			
+			public Set<Map.Entry<Item, Integer>> entrySet()
+			{
+				return new AbstractSet<Map.Entry<Item, Integer>>()
+				{
+					public int size()
+					{
+						return ItemTable.this.size();
+					}
+					
+					public Iterator<Map.Entry<Item, Integer>> iterator()
+					{
+						return new Iterator<Map.Entry<Item, Integer>>()
+						{
+							private int next = 0;
+							
+							public boolean hasNext()
+							{
+								return next < size();
+							}
+							
+							public Map.Entry<Item, Integer> next()
+							{
+								if (!hasNext())
+								{
+									throw new NoSuchElementException();
+								}
+								Item item = items.get(next);
+								return new AbstractMap.SimpleImmutableEntry<Item, Integer>(item, get(next++));
+							}
+						};
+					}
+				};
+			}
+		};
+	}
+	
+	/**
+	 * Creates a string representation of this table, in the same form as a Map.
+	 * 
+	 * @return the items and their values.
+	 */
+	public String toString()
+	{
+		return asMap().toString();
+	}
+}
@@ -0,0 +1,381 @@
+package game.primaryClasses;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import game.controllerClasses.GameState;
+
+/**
+ * The market of an island trader game: the prices, stock and price pressure of every
+ * {@link Item} at every {@link Store}.
+ * <br>
+ * Each value is kept in one int array for the whole game, indexed by island id times the number
+ * of items plus item id, and each store's {@link ItemTable}s are views of its island's part of
+ * these arrays. The base prices and full stock are the arrays of the {@link WorldTemplate},
+ * which never change, so they are shared by every game.
+ * <br>
+ * Each day the game advances, {@link GameState#incrementDay(int)} calls {@link #tick(int)}, which
+ * moves every store's stock towards its full stock and drifts every store's prices back towards
+ * their base prices. A store makes back the production share of the stock it is missing and
+ * uses up the consumption share of the stock it has over its full stock, rounding towards the
+ * full stock, and loses the {@link PriceCurve}'s recovery share of its pressure. The shares for
+ * all of the days are worked out once, the tick is a plain pass over the arrays, and it is
+ * split across threads by islands when the world is large.
+ *
+ * @see Store
+ * @see PriceCurve
+ * @see WorldTemplate#createMarket()
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class Market
+{
+	/**
+	 * The number of values at which a tick is split across threads. Smaller markets are ticked
+	 * faster on one thread than the threads can be started.
+	 */
+	static final int PARALLEL_VALUES = 1 << 16;
+
+	/**
+	 * The number of values each thread ticks at a time, a whole number of islands.
+	 */
+	private static final int CHUNK_VALUES = 1 << 14;
+
+	private final List<Item> items;
+	private final int islandCount;
+	private final int itemCount;
+	private final int[] basePrices;
+	private final int[] fullStock;
+	private final int[] prices;
+	private final int[] stock;
+	private final int[] pressure;
+	private final PriceCurve priceCurve;
+	private final double production;
+	private final double consumption;
+
+	/**
+	 * Creates a market with every store at its base prices and full stock. The base prices and
+	 * full stock are kept by the market, not copied, and never changed.
+	 *
+	 * @param items - the items of the game, in order of their id.
+	 * @param basePrices - the base price of every item at every island, indexed by island id
+	 * times the number of items plus item id.
+	 * @param fullStock - the full stock of every item at every island, indexed the same way.
+	 * @param priceCurve - the curve every store's prices move along.
+	 * @param production - the share of its missing stock a store makes back each day.
+	 * @param consumption - the share of its stock over its full stock a store uses up each day.
+	 */
+	public Market(List<Item> items, int[] basePrices, int[] fullStock, PriceCurve priceCurve, double production,
+			double consumption)
+	{
+		this.items = items;
+		itemCount = items.size();
+		islandCount = basePrices.length / Math.max(1, itemCount);
+		this.basePrices = basePrices;
+		this.fullStock = fullStock;
+		prices = basePrices.clone();
+		stock = fullStock.clone();
+		pressure = new int[basePrices.length];
+		this.priceCurve = priceCurve;
+		this.production = production;
+		this.consumption = consumption;
+	}
+
+	/**
+	 * Creates the market of a single store, with fixed prices and restocked to its full stock
+	 * each day.
+	 *
+	 * @param prices - the store's price of each item.
+	 * @param stock - the store's full stock of each item.
+	 * @return market - a market holding one island.
+	 */
+	static Market ofStore(ItemTable prices, ItemTable stock)
+	{
+		int[] basePrices = new int[prices.size()];
+		prices.copyTo(basePrices, 0);
+		int[] fullStock = new int[stock.size()];
+		stock.copyTo(fullStock, 0);
+		return new Market(prices.getItems(), basePrices, fullStock, PriceCurve.FIXED, 1, 1);
+	}
+
+	/**
+	 * Gets the number of islands in this market.
+	 *
+	 * @return islandCount - the number of islands.
+	 */
+	public int getIslandCount()
+	{
+		return islandCount;
+	}
+
+	/**
+	 * Gets the curve this market's prices move along.
+	 *
+	 * @return priceCurve - the PriceCurve of this market.
+	 */
+	public PriceCurve getPriceCurve()
+	{
+		return priceCurve;
+	}
+
+	/**
+	 * Gets the share of its missing stock a store makes back each day.
+	 *
+	 * @return production - the production share.
+	 */
+	public double getProduction()
+	{
+		return production;
+	}
+
+	/**
+	 * Gets the share of its stock over its full stock a store uses up each day.
+	 *
+	 * @return consumption - the consumption share.
+	 */
+	public double getConsumption()
+	{
+		return consumption;
+	}
+
+	/**
+	 * Gets a view of an island's prices.
+	 *
+	 * @param island - the id of the island.
+	 * @return prices - an ItemTable of the island's price of each item.
+	 */
+	ItemTable pricesOf(int island)
+	{
+		return new ItemTable(items, prices, island * itemCount);
+	}
+
+	/**
+	 * Gets a view of an island's base prices.
+	 *
+	 * @param island - the id of the island.
+	 * @return basePrices - an ItemTable of the island's base price of each item.
+	 */
+	ItemTable basePricesOf(int island)
+	{
+		return new ItemTable(items, basePrices, island * itemCount);
+	}
+
+	/**
+	 * Gets a view of an island's stock.
+	 *
+	 * @param island - the id of the island.
+	 * @return stock - an ItemTable of the island's stock of each item.
+	 */
+	ItemTable stockOf(int island)
+	{
+		return new ItemTable(items, stock, island * itemCount);
+	}
+
+	/**
+	 * Gets the cost of buying units of an item at an island.
+	 *
+	 * @param island - the id of the island.
+	 * @param item - the item bought.
+	 * @param units - the number of units bought.
+	 * @return cost - the cost of all of the units ($).
+	 */
+	long buyCost(int island, Item item, int units)
+	{
+		int index = island * itemCount + item.getId();
+		return priceCurve.buyCost(basePrices[index], pressure[index], units);
+	}
+
+	/**
+	 * Gets the money paid for selling units of an item at an island.
+	 *
+	 * @param island - the id of the island.
+	 * @param item - the item sold.
+	 * @param units - the number of units sold.
+	 * @return value - the money paid for all of the units ($).
+	 */
+	long saleValue(int island, Item item, int units)
+	{
+		int index = island * itemCount + item.getId();
+		return priceCurve.saleValue(basePrices[index], pressure[index], units);
+	}
+
+	/**
+	 * Gets the most units of an item at an island that can be bought with some money.
+	 *
+	 * @param island - the id of the island.
+	 * @param item - the item bought.
+	 * @param money - the money available ($).
+	 * @return units - the most units that can be afforded.
+	 */
+	int affordable(int island, Item item, int money)
+	{
+		int index = island * itemCount + item.getId();
+		return priceCurve.affordable(basePrices[index], pressure[index], money);
+	}
+
+	/**
+	 * Trades units of an item at an island, moving its stock, pressure and price.
+	 *
+	 * @param island - the id of the island.
+	 * @param item - the item traded.
+	 * @param units - the units bought from the store, negative for units sold to it.
+	 */
+	void trade(int island, Item item, int units)
+	{
+		int index = island * itemCount + item.getId();
+		stock[index] -= units;
+		if (!priceCurve.isFixed())
+		{
+			pressure[index] += units;
+			prices[index] = priceCurve.price(basePrices[index], pressure[index]);
+		}
+	}
+
+	/**
+	 * Restocks an island's store to its full stock straight away.
+	 *
+	 * @param island - the id of the island.
+	 */
+	public void restock(int island)
+	{
+		System.arraycopy(fullStock, island * itemCount, stock, island * itemCount, itemCount);
+	}
+
+	/**
+	 * Advances every store in the market by some days.
+	 *
+	 * @param days - the number of days passed.
+	 */
+	public void tick(int days)
+	{
+		if (days <= 0)
+		{
+			return;
+		}
+		double keepMissing = StrictMath.pow(1 - production, days);
+		double keepSurplus = StrictMath.pow(1 - consumption, days);
+		double keepPressure = priceCurve.driftFactor(days);
+		if (stock.length < PARALLEL_VALUES)
+		{
+			tick(0, stock.length, keepMissing, keepSurplus, keepPressure);
+			return;
+		}
+		int islandsPerChunk = Math.max(1, CHUNK_VALUES / Math.max(1, itemCount));
+		int chunks = (islandCount + islandsPerChunk - 1) / islandsPerChunk;
+		IntStream.range(0, chunks).parallel().forEach(chunk -> tick(chunk * islandsPerChunk * itemCount,
+				Math.min(islandCount, (chunk + 1) * islandsPerChunk) * itemCount, keepMissing, keepSurplus,
+				keepPressure));
+	}
+
+	/**
+	 * Advances the values of a run of islands.
+	 * <br>
+	 * Most stock is full and most pressure is zero within a few days of being traded, so those
+	 * values are skipped rather than worked out again, and only the items with pressure are
+	 * repriced.
+	 *
+	 * @param from - the index of the first value.
+	 * @param to - the index after the last value.
+	 * @param keepMissing - the share of missing stock still missing after the days.
+	 * @param keepSurplus - the share of surplus stock still left after the days.
+	 * @param keepPressure - the share of pressure left after the days.
+	 */
+	private void tick(int from, int to, double keepMissing, double keepSurplus, double keepPressure)
+	{
+		for (int index = from; index < to; index++)
+		{
+			int difference = stock[index] - fullStock[index];
+			if (difference != 0)
+			{
+				stock[index] = fullStock[index] + (int) (difference * (difference < 0 ? keepMissing : keepSurplus));
+			}
+		}
+		if (priceCurve.isFixed())
+		{
+			return;
+		}
+		for (int index = from; index < to; index++)
+		{
+			if (pressure[index] != 0)
+			{
+				pressure[index] = (int) (pressure[index] * keepPressure);
+				prices[index] = priceCurve.price(basePrices[index], pressure[index]);
+			}
+		}
+	}
+
+	/**
+	 * Counts the values away from rest, whose stock is not the full stock or whose price has
+	 * pressure on it.
+	 *
+	 * @return count - the number of values away from rest.
+	 */
+	public int countChanges()
+	{
+		int count = 0;
+		for (int index = 0; index < stock.length; index++)
+		{
+			if (stock[index] != fullStock[index] || pressure[index] != 0)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Copies the values away from rest into arrays, each as its index in this market's arrays,
+	 * its stock and its pressure, in order of index.
+	 *
+	 * @see #restore(int[], int[], int[], int)
+	 * @param indices - the array the index of each value is copied into.
+	 * @param stock - the array the stock of each value is copied into.
+	 * @param pressure - the array the pressure of each value is copied into.
+	 * @return count - the number of values copied, the {@link #countChanges()} that each array
+	 * must have room for.
+	 */
+	public int copyChangesTo(int[] indices, int[] stock, int[] pressure)
+	{
+		int count = 0;
+		for (int index = 0; index < this.stock.length; index++)
+		{
+			if (this.stock[index] != fullStock[index] || this.pressure[index] != 0)
+			{
+				indices[count] = index;
+				stock[count] = this.stock[index];
+				pressure[count++] = this.pressure[index];
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Restores every store from values saved by {@link #copyChangesTo(int[], int[], int[])},
+	 * putting every value that was not saved back at rest and repricing the values that change.
+	 *
+	 * @param indices - the index of each saved value, each less than the size of this market.
+	 * @param stock - the stock of each saved value.
+	 * @param pressure - the pressure of each saved value.
+	 * @param count - the number of saved values.
+	 */
+	public void restore(int[] indices, int[] stock, int[] pressure, int count)
+	{
+		for (int index = 0; index < this.stock.length; index++)
+		{
+			if (this.stock[index] != fullStock[index] || this.pressure[index] != 0)
+			{
+				this.stock[index] = fullStock[index];
+				this.pressure[index] = 0;
+				prices[index] = basePrices[index];
+			}
+		}
+		for (int i = 0; i < count; i++)
+		{
+			int index = indices[i];
+			this.stock[index] = stock[i];
+			this.pressure[index] = pressure[i];
+			prices[index] = priceCurve.price(basePrices[index], pressure[i]);
+		}
+	}
+}
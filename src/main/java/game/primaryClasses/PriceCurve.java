@@ -0,0 +1,281 @@
+package game.primaryClasses;
+
+/**
+ * How the prices of a {@link Store} move when the player trades and drift back over the days.
+ * <br>
+ * Each store keeps a pressure for every item, the number of units players have bought from it
+ * less the number they have sold to it. Every unit of pressure moves the item's price by the
+ * curve's elasticity, so at pressure p an item with a base price of b costs b(1 + elasticity)^p.
+ * Buying a unit costs the price at the current pressure and then raises the pressure by one,
+ * and selling a unit lowers the pressure by one and then pays the price, so buying and selling
+ * the same units straight away gives back exactly what was paid. No unit is priced under $1,
+ * however much the player has sold. The cost of many units is the sum of a geometric series
+ * after the units held at $1, so a trade of any size is priced in constant time.
+ * <br>
+ * Each day a store loses the curve's recovery share of its pressure, rounding towards zero,
+ * so prices return to their base price once the player stops trading there. Prices are
+ * worked out with {@link StrictMath}, so a seeded game prices every trade the same on every
+ * machine and replays of it stay exact.
+ * <br>
+ * A PriceCurve never changes once made. The {@link #FIXED} curve keeps every price at its
+ * base price.
+ *
+ * @see Store
+ * @see WorldTemplate
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class PriceCurve
+{
+	/**
+	 * The curve of a market whose prices never move.
+	 */
+	public static final PriceCurve FIXED = new PriceCurve(0, 0);
+
+	/**
+	 * The largest pressure, either way, whose price multiplier is kept in a table. A market
+	 * tick reprices every item with pressure, so the multipliers are looked up rather than
+	 * worked out again.
+	 */
+	private static final int TABLE_PRESSURE = 1024;
+
+	private final double elasticity;
+	private final double recovery;
+	private final double growth;
+	private final double[] multipliers;
+
+	/**
+	 * Creates a PriceCurve.
+	 *
+	 * @param elasticity - the share of its price an item's price moves for each unit of pressure,
+	 * from 0 for fixed prices up to 1.
+	 * @param recovery - the share of its pressure a store loses each day, from 0 for prices that
+	 * never drift back up to 1 for prices that are back to their base price the next day.
+	 * @throws IllegalArgumentException if either share is out of range.
+	 */
+	public PriceCurve(double elasticity, double recovery)
+	{
+		if (!(elasticity >= 0 && elasticity <= 1))
+		{
+			throw new IllegalArgumentException("The elasticity must be between 0 and 1, not " + elasticity);
+		}
+		if (!(recovery >= 0 && recovery <= 1))
+		{
+			throw new IllegalArgumentException("The recovery must be between 0 and 1, not " + recovery);
+		}
+		this.elasticity = elasticity;
+		this.recovery = recovery;
+		growth = 1 + elasticity;
+		multipliers = new double[2 * TABLE_PRESSURE + 1];
+		for (int pressure = -TABLE_PRESSURE; pressure <= TABLE_PRESSURE; pressure++)
+		{
+			multipliers[pressure + TABLE_PRESSURE] = StrictMath.pow(growth, pressure);
+		}
+	}
+
+	/**
+	 * Checks if prices on this curve never move.
+	 *
+	 * @return boolean - true if the elasticity is zero.
+	 */
+	public boolean isFixed()
+	{
+		return elasticity == 0;
+	}
+
+	/**
+	 * Gets the share of its price an item's price moves for each unit of pressure.
+	 *
+	 * @return elasticity - the elasticity of this curve.
+	 */
+	public double getElasticity()
+	{
+		return elasticity;
+	}
+
+	/**
+	 * Gets the share of its pressure a store loses each day.
+	 *
+	 * @return recovery - the recovery of this curve.
+	 */
+	public double getRecovery()
+	{
+		return recovery;
+	}
+
+	/**
+	 * Gets the price of one unit of an item.
+	 *
+	 * @param basePrice - the item's base price at the store.
+	 * @param pressure - the store's pressure on the item.
+	 * @return price - the price of the next unit ($), at least $1 unless the base price is zero.
+	 */
+	public int price(int basePrice, int pressure)
+	{
+		if (isFixed() || pressure == 0 || basePrice == 0)
+		{
+			return basePrice;
+		}
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(basePrice * multiplier(pressure))));
+	}
+
+	/**
+	 * Gets the multiplier of an item's base price at a pressure.
+	 *
+	 * @param pressure - the store's pressure on the item.
+	 * @return multiplier - (1 + elasticity) to the power of the pressure.
+	 */
+	private double multiplier(int pressure)
+	{
+		if (pressure >= -TABLE_PRESSURE && pressure <= TABLE_PRESSURE)
+		{
+			return multipliers[pressure + TABLE_PRESSURE];
+		}
+		return StrictMath.pow(growth, pressure);
+	}
+
+	/**
+	 * Gets the cost of buying units of an item, each unit raising the pressure by one.
+	 *
+	 * @param basePrice - the item's base price at the store.
+	 * @param pressure - the store's pressure on the item before the purchase.
+	 * @param units - the number of units bought.
+	 * @return cost - the cost of all of the units ($).
+	 */
+	public long buyCost(int basePrice, int pressure, int units)
+	{
+		return seriesSum(basePrice, pressure, units);
+	}
+
+	/**
+	 * Gets the money paid for selling units of an item, each unit lowering the pressure by one.
+	 *
+	 * @param basePrice - the item's base price at the store.
+	 * @param pressure - the store's pressure on the item before the sale.
+	 * @param units - the number of units sold.
+	 * @return value - the money paid for all of the units ($).
+	 */
+	public long saleValue(int basePrice, int pressure, int units)
+	{
+		return seriesSum(basePrice, pressure - units, units);
+	}
+
+	/**
+	 * Gets the most units of an item that can be bought with some money.
+	 *
+	 * @param basePrice - the item's base price at the store.
+	 * @param pressure - the store's pressure on the item before the purchase.
+	 * @param money - the money available ($).
+	 * @return units - the most units whose {@link #buyCost(int, int, int)} is no more than the money,
+	 * or {@link Integer#MAX_VALUE} if the item is free.
+	 */
+	public int affordable(int basePrice, int pressure, int money)
+	{
+		if (basePrice == 0)
+		{
+			return Integer.MAX_VALUE;
+		}
+		if (isFixed())
+		{
+			return money / basePrice;
+		}
+		int floored = unitsUnderOneDollar(basePrice, pressure);
+		if (floored > 0)
+		{
+			// The units held at $1 come first, then the rest of the money goes up the curve
+			return money <= floored ? money
+					: (int) Math.min(Integer.MAX_VALUE, (long) floored
+							+ affordable(basePrice, pressure + floored, money - floored));
+		}
+		// Invert the series for an estimate, then correct it for rounding
+		double first = basePrice * multiplier(pressure);
+		double estimate = StrictMath.log1p(money * elasticity / first) / StrictMath.log1p(elasticity);
+		int units = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(0, estimate));
+		while (units > 0 && buyCost(basePrice, pressure, units) > money)
+		{
+			units--;
+		}
+		while (buyCost(basePrice, pressure, units + 1) <= money)
+		{
+			units++;
+		}
+		return units;
+	}
+
+	/**
+	 * Gets the share of a store's pressure that is left after some days without trading.
+	 *
+	 * @param days - the number of days passed.
+	 * @return keep - the share of the pressure left.
+	 */
+	public double driftFactor(int days)
+	{
+		return StrictMath.pow(1 - recovery, days);
+	}
+
+	/**
+	 * Gets a store's pressure on an item after some days without trading.
+	 *
+	 * @param pressure - the pressure at the start of the days.
+	 * @param days - the number of days passed.
+	 * @return pressure - the pressure at the end of the days.
+	 */
+	public int drift(int pressure, int days)
+	{
+		if (pressure == 0 || days <= 0 || recovery == 0)
+		{
+			return pressure;
+		}
+		return (int) (pressure * driftFactor(days));
+	}
+
+	/**
+	 * Sums the prices of a run of units, the first at the given pressure and each one after it
+	 * at one more. Units the curve prices under $1 are $1 each, as in {@link #price(int, int)}.
+	 *
+	 * @param basePrice - the item's base price at the store.
+	 * @param pressure - the pressure of the first unit.
+	 * @param units - the number of units.
+	 * @return sum - the total price of the units ($).
+	 */
+	private long seriesSum(int basePrice, int pressure, int units)
+	{
+		if (isFixed() || basePrice == 0)
+		{
+			return (long) basePrice * units;
+		}
+		int floored = Math.min(units, unitsUnderOneDollar(basePrice, pressure));
+		double first = basePrice * multiplier(pressure + floored);
+		return floored + Math.round(first * StrictMath.expm1((units - floored) * StrictMath.log1p(elasticity))
+				/ elasticity);
+	}
+
+	/**
+	 * Counts the units, the first at the given pressure and each one after it at one more,
+	 * that the curve prices under $1.
+	 *
+	 * @param basePrice - the item's base price at the store, more than zero.
+	 * @param pressure - the pressure of the first unit.
+	 * @return units - the number of units before the price reaches $1.
+	 */
+	private int unitsUnderOneDollar(int basePrice, int pressure)
+	{
+		if (basePrice * multiplier(pressure) >= 1)
+		{
+			return 0;
+		}
+		// Solve for the pressure the price reaches $1 at, then correct it for rounding
+		long reach = (long) Math.ceil(-StrictMath.log(basePrice) / StrictMath.log1p(elasticity));
+		long units = Math.max(1, reach - pressure);
+		while (units > 1 && basePrice * multiplier((int) (pressure + units - 1)) >= 1)
+		{
+			units--;
+		}
+		while (basePrice * multiplier((int) (pressure + units)) < 1)
+		{
+			units++;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, units);
+	}
+}
@@ -1,6 +1,6 @@
 package game.primaryClasses;
 
-import java.util.Hashtable;
+import java.util.Map;
 
 import game.controllerClasses.GameEnvironment;
 import game.controllerClasses.GameState;
@@ -8,14 +8,21 @@ import game.controllerClasses.GameState;
 /**
  * Store Class for use in the Island Trader Game.
  * <br>
- *  There is one instance of this Store for each of the 5 {@link Island}s in the game.
- * Each Store has a name, a Hashtable mapping each {@link Item} to it's (integer value)
- * price at the Store, a Hashtable mapping each item to an integer value stock and an
+ *  There is one instance of this Store for each of the {@link Island}s in the game.
+ * Each Store has a name, an {@link ItemTable} mapping each {@link Item} to it's (integer value)
+ * price at the Store, an ItemTable mapping each item to an integer value stock and an
  * {@link Upgrade} that the store sells.
+ * <br>
+ * The prices and stock of every store in a game are kept together by the game's {@link Market},
+ * and each store's tables are views of its island's part of it. Prices move as the player
+ * trades, following the market's {@link PriceCurve}, and each day the market moves every
+ * store's stock back towards its full stock and its prices back towards their base prices.
  * 
+ * @see Market
+ * @see PriceCurve
  * @see Upgrade
  * @see Island
- * @see GameEnvironment#createStores()
+ * @see WorldTemplate
  * 
  * @author Sam Clark
  * @author Wil Johnston
@@ -23,25 +30,44 @@ import game.controllerClasses.GameState;
 public class Store 
 {
 	private String storeName;
-	private Hashtable<Item, Integer> prices;
-	private Hashtable<Item, Integer> stock;
-	private Hashtable<Item, Integer> fullStock;
+	private Market market;
+	private int island;
+	private ItemTable prices;
+	private ItemTable basePrices;
+	private ItemTable stock;
 	private Upgrade upgrade;
 	
 	/**
-	 * Creates an instance of this Store Class, for use in the Island Trader Game.
+	 * Creates an instance of this Store Class, for use in the Island Trader Game. The store
+	 * has a market of its own, with fixed prices and restocked to its full stock each day.
+	 * 
+	 * @param storeName - The name of this store.
+	 * @param prices - A Map from each Item in the game to it's price at this store.
+	 * @param stock - A Map from each Item in the game to it's stock at this store.
+	 * @param upgrade - The instance of Upgrade sold at this store.
+	 */
+	public Store(String storeName, Map<Item, Integer> prices, Map<Item, Integer> stock, Upgrade upgrade)
+	{
+		this(storeName, Market.ofStore(new ItemTable(prices), new ItemTable(stock)), 0, upgrade);
+	}
+	
+	/**
+	 * Creates an instance of this Store Class whose prices and stock are an island's part of a
+	 * {@link Market}.
 	 * 
 	 * @param storeName - The name of this store.
-	 * @param prices - A Hashtable mapping each Item in the game to it's price at this store.
-	 * @param stock - A Hashtable mapping each Item in the game to it's stock at this store.
+	 * @param market - The Market of the game.
+	 * @param island - The id of the island this store is on.
 	 * @param upgrade - The instance of Upgrade sold at this store.
 	 */
-	public Store(String storeName, Hashtable<Item, Integer> prices, Hashtable<Item, Integer> stock, Upgrade upgrade)
+	public Store(String storeName, Market market, int island, Upgrade upgrade)
 	{
 		this.storeName = storeName;
-		this.prices = prices;
-		this.stock = stock;
-		fullStock = new Hashtable<Item, Integer>(stock);
+		this.market = market;
+		this.island = island;
+		prices = market.pricesOf(island);
+		basePrices = market.basePricesOf(island);
+		stock = market.stockOf(island);
 		this.upgrade = upgrade;
 	}
 	
@@ -56,27 +82,79 @@ public class Store
 	}
 	
 	/**
-	 * Gets the Hashtable, stock, which maps each Item in the Island Trader game to 
+	 * Gets the ItemTable, stock, which maps each Item in the Island Trader game to 
 	 * it's stock at this Store.
 	 * 
-	 * @return stock - The Hashtable mapping each item to it's stock at this store.
+	 * @return stock - The ItemTable mapping each item to it's stock at this store.
 	 */
-	public Hashtable<Item, Integer> getStock()
+	public ItemTable getStock()
 	{
 		return stock;
 	}
 	
 	/**
-	 * Gets the Hashtable, prices, which maps each Item in the Island Trader game to
-	 * it's price at this store. Prices are in dollars.
+	 * Gets the ItemTable, prices, which maps each Item in the Island Trader game to
+	 * it's price at this store. Prices are in dollars. Each price is the price of the next
+	 * unit, see {@link #getBuyCost(Item, int)} and {@link #getSaleValue(Item, int)} for the
+	 * price of many units.
 	 * 
-	 * @return prices - A Hashtable mapping items to their price at this store ($).
+	 * @return prices - An ItemTable mapping items to their price at this store ($).
 	 */
-	public Hashtable<Item, Integer> getPrices()
+	public ItemTable getPrices()
 	{
 		return prices;
 	}
 	
+	/**
+	 * Gets the ItemTable mapping each Item to the price it returns to at this store when
+	 * nobody trades it.
+	 * 
+	 * @return basePrices - An ItemTable mapping items to their base price at this store ($).
+	 */
+	public ItemTable getBasePrices()
+	{
+		return basePrices;
+	}
+	
+	/**
+	 * Gets the cost of buying units of an item, each unit costing more than the last.
+	 * 
+	 * @see PriceCurve#buyCost(int, int, int)
+	 * @param item - the item bought.
+	 * @param quantity - the number of units bought.
+	 * @return cost - the cost of all of the units ($).
+	 */
+	public long getBuyCost(Item item, int quantity)
+	{
+		return market.buyCost(island, item, quantity);
+	}
+	
+	/**
+	 * Gets the money paid for selling units of an item, each unit paying less than the last.
+	 * 
+	 * @see PriceCurve#saleValue(int, int, int)
+	 * @param item - the item sold.
+	 * @param quantity - the number of units sold.
+	 * @return value - the money paid for all of the units ($).
+	 */
+	public long getSaleValue(Item item, int quantity)
+	{
+		return market.saleValue(island, item, quantity);
+	}
+	
+	/**
+	 * Gets the most units of an item that can be bought with some money.
+	 * 
+	 * @see PriceCurve#affordable(int, int, int)
+	 * @param item - the item bought.
+	 * @param money - the money available ($).
+	 * @return units - the most units that can be afforded.
+	 */
+	public int getAffordable(Item item, int money)
+	{
+		return market.affordable(island, item, money);
+	}
+	
 	/**
 	 * Gets the instance of {@link Upgrade} which is sold at this Store.
 	 * 
@@ -97,11 +175,20 @@ public class Store
 	 */
 	public void incrementStock(Item item)
 	{
-		{
-			int updatedStock = 	stock.get(item);
-			updatedStock++;
-			stock.put(item, updatedStock);	
-		}
+		incrementStock(item, 1);
+	}
+	
+	/**
+	 * Takes a parameter {@link Item} and adds the quantity to this class' stock attribute of that Item.
+	 * The units are sold by the player, so the item's price falls along the {@link PriceCurve}.
+	 * 
+	 * @see GameEnvironment#sellItem(Item, int)
+	 * @param item - The item that's stock is being incremented.
+	 * @param quantity - The number of units added to the stock.
+	 */
+	public void incrementStock(Item item, int quantity)
+	{
+		market.trade(island, item, -quantity);
 	}
 	
 	/**
@@ -117,18 +204,30 @@ public class Store
 	 */
 	public void decrementStock(Item item)
 	{
-		{
-			int updatedStock = 	stock.get(item);
-			updatedStock--;
-			stock.put(item, updatedStock);	
-		}
+		decrementStock(item, 1);
+	}
+	
+	/**
+	 * Takes a parameter {@link Item} and removes the quantity from this class' stock attribute of
+	 * that Item. Note that this method is never called with more than the stock of the Item. This
+	 * is dealt with in the {@link GameEnvironment#buyItem(Item, int)} method. The units are
+	 * bought by the player, so the item's price rises along the {@link PriceCurve}.
+	 * 
+	 * @see GameEnvironment#buyItem(Item, int)
+	 * @param item - The item that's stock is being decremented.
+	 * @param quantity - The number of units removed from the stock.
+	 */
+	public void decrementStock(Item item, int quantity)
+	{
+		market.trade(island, item, quantity);
 	}
 	
 	/**
-	 * Restocks the store to its original full stock.
+	 * Restocks the store to its original full stock straight away, rather than waiting for the
+	 * {@link Market} to restock it over the days.
 	 */
 	public void restock()
 	{
-		stock = new Hashtable<Item, Integer>(fullStock);
+		market.restock(island);
 	}
 }
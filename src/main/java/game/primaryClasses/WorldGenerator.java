@@ -0,0 +1,346 @@
+package game.primaryClasses;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import game.shipClasses.Ship;
+
+/**
+ * Generates large island trader worlds from a seed, for benchmarking and load testing.
+ * <br>
+ * A generated world has any number of islands scattered over a square sea, each with its own
+ * store, and any number of items. Every item belongs to a category such as "Metal" or "Food".
+ * Each island supplies one category, selling those items cheaply and keeping them in stock,
+ * and demands another, buying those items at a high price. Each store sells one of the
+ * upgrades a {@link Ship} can be fitted with.
+ * <br>
+ * Islands are only joined by routes to their nearest neighbours, found through a grid of
+ * cells laid over the sea, plus a route between islands that follow each other on a path
+ * snaking through the cells so every island can be reached. The result is a sparse
+ * {@link DistanceMatrix}.
+ * <br>
+ * Each island is generated from its own random numbers, derived from the seed and the
+ * island's id, so the islands and their routes are generated in parallel and the same seed
+ * always gives the same world. Prices move along the {@link PriceCurve} of the default world
+ * and stores restock at the same rates as its stores.
+ *
+ * @see WorldTemplate
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class WorldGenerator
+{
+	/**
+	 * The categories items belong to and islands supply and demand.
+	 */
+	private static final String[] CATEGORIES = {"Lumber", "Metal", "Fabric", "Jewels", "Food", "Spices", "Tools",
+			"Medicine"};
+
+	/**
+	 * The average distance between neighbouring islands in km.
+	 */
+	private static final double ISLAND_SPACING_KM = 15;
+
+	/**
+	 * The average number of islands in each cell of the grid used to find neighbours.
+	 */
+	private static final int ISLANDS_PER_CELL = 2;
+
+	private static final int ITEM_STREAM = 1;
+	private static final int ISLAND_STREAM = 2;
+
+	private final long seed;
+	private final int islandCount;
+	private final int itemCount;
+	private final int routesPerIsland;
+
+	/**
+	 * Creates a WorldGenerator.
+	 *
+	 * @param seed - the seed the world is derived from.
+	 * @param islandCount - the number of islands, at least 2.
+	 * @param itemCount - the number of items, at least 1.
+	 * @param routesPerIsland - the number of nearest islands each island is joined to, at least 1.
+	 * @throws IllegalArgumentException if a count is too small or the world would be too large.
+	 */
+	public WorldGenerator(long seed, int islandCount, int itemCount, int routesPerIsland)
+	{
+		if (islandCount < 2 || itemCount < 1 || routesPerIsland < 1)
+		{
+			throw new IllegalArgumentException("A world needs at least 2 islands, 1 item and 1 route per island");
+		}
+		if ((long) islandCount * itemCount > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("A world can not have " + islandCount + " islands of " + itemCount
+					+ " items");
+		}
+		this.seed = seed;
+		this.islandCount = islandCount;
+		this.itemCount = itemCount;
+		this.routesPerIsland = Math.min(routesPerIsland, islandCount - 1);
+	}
+
+	/**
+	 * Generates a world from the command line and writes it to a world file, which a server can
+	 * be given with game.server.world-file.
+	 *
+	 * @param args - the path of the world file, optionally the number of islands (default
+	 * 10000), the number of items (default 200), the routes per island (default 4) and the seed
+	 * (default 0).
+	 * @throws IOException if the world file can not be written.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		Path path = Path.of(args.length > 0 ? args[0] : "world.txt");
+		int islandCount = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		int itemCount = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+		int routesPerIsland = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+		new WorldGenerator(seed, islandCount, itemCount, routesPerIsland).generate().write(path);
+	}
+
+	/**
+	 * Generates the world.
+	 *
+	 * @return world - the generated world.
+	 */
+	public WorldTemplate generate()
+	{
+		List<Item> items = new ArrayList<Item>(itemCount);
+		int[] itemCategories = new int[itemCount];
+		for (int id = 0; id < itemCount; id++)
+		{
+			SplittableRandom random = random(ITEM_STREAM, id);
+			itemCategories[id] = id % CATEGORIES.length;
+			String name = CATEGORIES[itemCategories[id]] + " " + (id / CATEGORIES.length + 1);
+			items.add(new Item(id, name, random.nextInt(1, 31), random.nextInt(10, 1001)));
+		}
+
+		String[] upgradeNames = Ship.UPGRADE_NAMES.stream().sorted().toArray(String[]::new);
+		String[] islandNames = new String[islandCount];
+		String[] supplies = new String[islandCount];
+		String[] demands = new String[islandCount];
+		String[] storeNames = new String[islandCount];
+		Upgrade[] upgrades = new Upgrade[islandCount];
+		int[] prices = new int[islandCount * itemCount];
+		int[] stock = new int[islandCount * itemCount];
+		double[] x = new double[islandCount];
+		double[] y = new double[islandCount];
+		double seaSize = Math.sqrt(islandCount) * ISLAND_SPACING_KM;
+
+		IntStream.range(0, islandCount).parallel().forEach(id -> {
+			SplittableRandom random = random(ISLAND_STREAM, id);
+			x[id] = random.nextDouble(seaSize);
+			y[id] = random.nextDouble(seaSize);
+			int supply = random.nextInt(CATEGORIES.length);
+			int demand = (supply + random.nextInt(1, CATEGORIES.length)) % CATEGORIES.length;
+			islandNames[id] = "Island " + (id + 1);
+			supplies[id] = CATEGORIES[supply];
+			demands[id] = CATEGORIES[demand];
+			storeNames[id] = "Store " + (id + 1);
+			String upgradeName = upgradeNames[random.nextInt(upgradeNames.length)];
+			upgrades[id] = new Upgrade(upgradeName, random.nextInt(300, 1001), random.nextInt(1, 6),
+					"A generated " + upgradeName + " upgrade", "/" + upgradeName.replace(" ", "") + ".png");
+			for (Item item : items)
+			{
+				int index = id * itemCount + item.getId();
+				int category = itemCategories[item.getId()];
+				if (category == supply)
+				{
+					prices[index] = Math.max(1, (int) (item.getDefaultPrice() * random.nextDouble(0.3, 0.6)));
+					stock[index] = random.nextInt(5, 16);
+				}
+				else if (category == demand)
+				{
+					prices[index] = (int) (item.getDefaultPrice() * random.nextDouble(2, 4));
+				}
+				else
+				{
+					prices[index] = Math.max(1, (int) (item.getDefaultPrice() * random.nextDouble(0.8, 1.2)));
+					stock[index] = random.nextInt(4);
+				}
+			}
+		});
+
+		WorldTemplate defaultWorld = WorldTemplate.getDefault();
+		return new WorldTemplate(items, islandNames, supplies, demands, storeNames, upgrades, prices, stock,
+				generateRoutes(x, y, seaSize), defaultWorld.getPriceCurve(), defaultWorld.getProduction(),
+				defaultWorld.getConsumption());
+	}
+
+	/**
+	 * Joins each island to its nearest neighbours and to the islands before and after it on a
+	 * path snaking through the grid, so every island can be reached.
+	 *
+	 * @param x - the x coordinate of each island in km.
+	 * @param y - the y coordinate of each island in km.
+	 * @param seaSize - the width and height of the sea in km.
+	 * @return distances - the routes between the islands.
+	 */
+	private DistanceMatrix generateRoutes(double[] x, double[] y, double seaSize)
+	{
+		int gridSize = Math.max(1, (int) Math.ceil(Math.sqrt((double) islandCount / ISLANDS_PER_CELL)));
+		double cellSize = seaSize / gridSize;
+		int[] cells = new int[islandCount];
+		int[] cellStarts = new int[gridSize * gridSize + 1];
+		for (int id = 0; id < islandCount; id++)
+		{
+			int column = Math.min(gridSize - 1, (int) (x[id] / cellSize));
+			int row = Math.min(gridSize - 1, (int) (y[id] / cellSize));
+			cells[id] = row * gridSize + column;
+			cellStarts[cells[id] + 1]++;
+		}
+		for (int cell = 0; cell < gridSize * gridSize; cell++)
+		{
+			cellStarts[cell + 1] += cellStarts[cell];
+		}
+		int[] cellIslands = new int[islandCount];
+		int[] next = Arrays.copyOf(cellStarts, gridSize * gridSize);
+		for (int id = 0; id < islandCount; id++)
+		{
+			cellIslands[next[cells[id]]++] = id;
+		}
+
+		int[] neighbours = new int[islandCount * routesPerIsland];
+		IntStream.range(0, islandCount).parallel().forEach(id -> findNearest(id, x, y, gridSize, cellSize,
+				cellStarts, cellIslands, neighbours));
+
+		long[] routes = new long[islandCount * routesPerIsland + islandCount - 1];
+		int routeCount = 0;
+		for (int id = 0; id < islandCount; id++)
+		{
+			for (int i = 0; i < routesPerIsland; i++)
+			{
+				routes[routeCount++] = routeKey(id, neighbours[id * routesPerIsland + i]);
+			}
+		}
+		int previous = -1;
+		for (int row = 0; row < gridSize; row++)
+		{
+			for (int step = 0; step < gridSize; step++)
+			{
+				int cell = row * gridSize + (row % 2 == 0 ? step : gridSize - 1 - step);
+				for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++)
+				{
+					if (previous >= 0)
+					{
+						routes[routeCount++] = routeKey(previous, cellIslands[i]);
+					}
+					previous = cellIslands[i];
+				}
+			}
+		}
+
+		Arrays.parallelSort(routes, 0, routeCount);
+		int[] from = new int[routeCount];
+		int[] to = new int[routeCount];
+		int[] km = new int[routeCount];
+		int unique = 0;
+		for (int i = 0; i < routeCount; i++)
+		{
+			if (i > 0 && routes[i] == routes[i - 1])
+			{
+				continue;
+			}
+			from[unique] = (int) (routes[i] >>> Integer.SIZE);
+			to[unique] = (int) routes[i];
+			double dx = x[from[unique]] - x[to[unique]];
+			double dy = y[from[unique]] - y[to[unique]];
+			km[unique++] = Math.max(1, (int) Math.round(Math.sqrt(dx * dx + dy * dy)));
+		}
+		return DistanceMatrix.of(islandCount, from, to, km, unique);
+	}
+
+	/**
+	 * Finds the nearest islands to an island by searching rings of grid cells around its cell,
+	 * stopping once no island in a further ring could be nearer than those found.
+	 *
+	 * @param id - the id of the island.
+	 * @param x - the x coordinate of each island in km.
+	 * @param y - the y coordinate of each island in km.
+	 * @param gridSize - the number of cells along each side of the grid.
+	 * @param cellSize - the width of each cell in km.
+	 * @param cellStarts - the index in cellIslands of the first island in each cell.
+	 * @param cellIslands - the ids of the islands, grouped by cell.
+	 * @param neighbours - where the ids of the nearest islands are written, routesPerIsland for each island.
+	 */
+	private void findNearest(int id, double[] x, double[] y, int gridSize, double cellSize, int[] cellStarts,
+			int[] cellIslands, int[] neighbours)
+	{
+		int[] nearest = new int[routesPerIsland];
+		double[] nearestDistances = new double[routesPerIsland];
+		Arrays.fill(nearestDistances, Double.MAX_VALUE);
+		int column = Math.min(gridSize - 1, (int) (x[id] / cellSize));
+		int row = Math.min(gridSize - 1, (int) (y[id] / cellSize));
+		for (int ring = 0; ring < gridSize; ring++)
+		{
+			if (nearestDistances[routesPerIsland - 1] < (ring - 1) * cellSize * (ring - 1) * cellSize)
+			{
+				break;
+			}
+			for (int cellRow = row - ring; cellRow <= row + ring; cellRow++)
+			{
+				for (int cellColumn = column - ring; cellColumn <= column + ring; cellColumn++)
+				{
+					boolean onRing = Math.abs(cellRow - row) == ring || Math.abs(cellColumn - column) == ring;
+					if (!onRing || cellRow < 0 || cellColumn < 0 || cellRow >= gridSize || cellColumn >= gridSize)
+					{
+						continue;
+					}
+					int cell = cellRow * gridSize + cellColumn;
+					for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++)
+					{
+						int other = cellIslands[i];
+						double dx = x[other] - x[id];
+						double dy = y[other] - y[id];
+						double distance = dx * dx + dy * dy;
+						if (other == id || distance >= nearestDistances[routesPerIsland - 1])
+						{
+							continue;
+						}
+						int slot = routesPerIsland - 1;
+						while (slot > 0 && nearestDistances[slot - 1] > distance)
+						{
+							nearest[slot] = nearest[slot - 1];
+							nearestDistances[slot] = nearestDistances[slot - 1];
+							slot--;
+						}
+						nearest[slot] = other;
+						nearestDistances[slot] = distance;
+					}
+				}
+			}
+		}
+		System.arraycopy(nearest, 0, neighbours, id * routesPerIsland, routesPerIsland);
+	}
+
+	/**
+	 * Gets the key of the route between two islands, the same in either direction.
+	 *
+	 * @param a - the id of one island.
+	 * @param b - the id of the other island.
+	 * @return key - the smaller id in the high bits and the larger in the low bits.
+	 */
+	private static long routeKey(int a, int b)
+	{
+		return ((long) Math.min(a, b) << Integer.SIZE) | Math.max(a, b);
+	}
+
+	/**
+	 * Gets the random numbers for one item or island.
+	 *
+	 * @param stream - whether the random numbers are for items or islands.
+	 * @param id - the id of the item or island.
+	 * @return random - random numbers derived from the seed, the stream and the id.
+	 */
+	private SplittableRandom random(int stream, int id)
+	{
+		return new SplittableRandom(seed ^ ((long) stream << 56) ^ (id * 0x9E3779B97F4A7C15L));
+	}
+}
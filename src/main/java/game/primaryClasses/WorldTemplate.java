@@ -0,0 +1,885 @@
+package game.primaryClasses;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import game.controllerClasses.GameEnvironment;
+import game.shipClasses.Ship;
+
+/**
+ * The world of an island trader game: its {@link Item}s, {@link Island}s, {@link Store}s,
+ * {@link Upgrade}s and the distances between the islands, loaded from a world file.
+ * <br>
+ * A world file is plain UTF-8 text with one record per line and fields separated by |,
+ * see the default world in the resource /world.txt. The file is parsed and checked once, and
+ * the template it makes never changes, so one template can be shared by every game and every
+ * thread. Each game gets its own {@link Market} from {@link #createMarket()}, which only copies
+ * the prices and stock held by the template, and its own islands and stores from
+ * {@link #createIslands(Market)}. Items, upgrades, the {@link DistanceMatrix}, base prices, full
+ * stock and the {@link PriceCurve} prices move along never change during a game, so they are
+ * shared.
+ * <br>
+ * Large worlds for testing are made by a {@link WorldGenerator} instead of a world file, and
+ * can be written to one with {@link #write(Path)} so a server can be given them.
+ *
+ * @see GameEnvironment#formIslands()
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class WorldTemplate
+{
+	/**
+	 * The resource holding the default world.
+	 */
+	public static final String DEFAULT_WORLD = "/world.txt";
+
+	private final List<Item> items;
+	private final String[] islandNames;
+	private final String[] supplies;
+	private final String[] demands;
+	private final String[] storeNames;
+	private final Upgrade[] upgrades;
+	private final int[] prices;
+	private final int[] stock;
+	private final DistanceMatrix distances;
+	private final PriceCurve priceCurve;
+	private final double production;
+	private final double consumption;
+	private long fingerprint;
+
+	/**
+	 * Creates a WorldTemplate. The arrays are kept by the template, not copied.
+	 *
+	 * @param items - the items, in order of their id.
+	 * @param islandNames - the name of each island, in order of their id.
+	 * @param supplies - the type of item each island supplies.
+	 * @param demands - the type of item each island demands.
+	 * @param storeNames - the name of each island's store.
+	 * @param upgrades - the upgrade each island's store sells.
+	 * @param prices - the price of every item at every island, indexed by island id times the
+	 * number of items plus item id.
+	 * @param stock - the full stock of every item at every island, indexed the same way as the prices.
+	 * @param distances - the routes between the islands.
+	 * @param priceCurve - the curve every store's prices move along.
+	 * @param production - the share of its missing stock a store makes back each day.
+	 * @param consumption - the share of its stock over its full stock a store uses up each day.
+	 */
+	WorldTemplate(List<Item> items, String[] islandNames, String[] supplies, String[] demands,
+			String[] storeNames, Upgrade[] upgrades, int[] prices, int[] stock, DistanceMatrix distances,
+			PriceCurve priceCurve, double production, double consumption)
+	{
+		this.items = List.copyOf(items);
+		this.islandNames = islandNames;
+		this.supplies = supplies;
+		this.demands = demands;
+		this.storeNames = storeNames;
+		this.upgrades = upgrades;
+		this.prices = prices;
+		this.stock = stock;
+		this.distances = distances;
+		this.priceCurve = priceCurve;
+		this.production = production;
+		this.consumption = consumption;
+	}
+
+	/**
+	 * Gets the default world, loaded from {@value #DEFAULT_WORLD} the first time it is used.
+	 *
+	 * @return world - the default world.
+	 */
+	public static WorldTemplate getDefault()
+	{
+		return DefaultWorld.WORLD;
+	}
+
+	/**
+	 * Holds the default world so it is only loaded when it is first used.
+	 */
+	private static class DefaultWorld
+	{
+		private static final WorldTemplate WORLD = loadResource(DEFAULT_WORLD);
+	}
+
+	/**
+	 * Loads a world from a resource on the class path.
+	 *
+	 * @param resource - the name of the resource, such as {@value #DEFAULT_WORLD}.
+	 * @return world - the loaded world.
+	 * @throws IllegalArgumentException if there is no such resource or it is not a valid world.
+	 * @throws UncheckedIOException if the resource can not be read.
+	 */
+	public static WorldTemplate loadResource(String resource)
+	{
+		InputStream in = WorldTemplate.class.getResourceAsStream(resource);
+		if (in == null)
+		{
+			throw new IllegalArgumentException("There is no world " + resource);
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+		{
+			return parse(reader, resource);
+		}
+		catch (IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Loads a world from a file.
+	 *
+	 * @param path - the path of the world file.
+	 * @return world - the loaded world.
+	 * @throws IOException if the file can not be read.
+	 * @throws IllegalArgumentException if the file is not a valid world.
+	 */
+	public static WorldTemplate load(Path path) throws IOException
+	{
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+		{
+			return parse(reader, path.toString());
+		}
+	}
+
+	/**
+	 * Parses a world file.
+	 *
+	 * @param reader - the reader of the world file.
+	 * @param source - the name of the world file, for error messages.
+	 * @return world - the parsed world.
+	 * @throws IOException if the file can not be read.
+	 * @throws IllegalArgumentException if the file is not a valid world, naming the line at fault.
+	 */
+	public static WorldTemplate parse(BufferedReader reader, String source) throws IOException
+	{
+		Parser parser = new Parser();
+		int lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null)
+		{
+			lineNumber++;
+			line = line.strip();
+			if (line.isEmpty() || line.startsWith("#"))
+			{
+				continue;
+			}
+			try
+			{
+				parser.parseLine(line.split("\\|", -1));
+			}
+			catch (IllegalArgumentException exception)
+			{
+				throw new IllegalArgumentException(source + " line " + lineNumber + ": " + exception.getMessage());
+			}
+		}
+		try
+		{
+			parser.check();
+		}
+		catch (IllegalArgumentException exception)
+		{
+			throw new IllegalArgumentException(source + ": " + exception.getMessage());
+		}
+		return parser.build();
+	}
+
+	/**
+	 * Writes this world to a world file, which {@link #load(Path)} reads back into a world with
+	 * the same fingerprint.
+	 *
+	 * @param path - the path of the world file, replaced if it exists.
+	 * @throws IOException if the file can not be written.
+	 */
+	public void write(Path path) throws IOException
+	{
+		try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+		{
+			write(writer);
+		}
+	}
+
+	/**
+	 * Writes this world as the records of a world file. Prices are only written where they
+	 * differ from the item's default price and stock only where the store has some, as
+	 * {@link #parse(BufferedReader, String)} fills in the rest.
+	 *
+	 * @param writer - the writer of the world file.
+	 * @throws IOException if the file can not be written.
+	 */
+	public void write(BufferedWriter writer) throws IOException
+	{
+		writer.write("# The world of the island trader game, see " + DEFAULT_WORLD + " for the records.");
+		writer.newLine();
+		writeRecord(writer, "market", priceCurve.getElasticity(), priceCurve.getRecovery());
+		writeRecord(writer, "restock", production, consumption);
+		for (Item item : items)
+		{
+			writeRecord(writer, "item", item.getName(), item.getWeight(), item.getDefaultPrice());
+		}
+		for (int id = 0; id < islandNames.length; id++)
+		{
+			String island = islandNames[id];
+			Upgrade upgrade = upgrades[id];
+			writeRecord(writer, "island", island, supplies[id], demands[id], storeNames[id]);
+			writeRecord(writer, "upgrade", island, upgrade.getName(), upgrade.getCost(), upgrade.getBuildTime(),
+					upgrade.getImagePath(), upgrade.getDesciption());
+			for (Item item : items)
+			{
+				int index = id * items.size() + item.getId();
+				if (prices[index] != item.getDefaultPrice())
+				{
+					writeRecord(writer, "price", island, item.getName(), prices[index]);
+				}
+				if (stock[index] != 0)
+				{
+					writeRecord(writer, "stock", island, item.getName(), stock[index]);
+				}
+			}
+		}
+		for (int island = 0; island < distances.getIslandCount(); island++)
+		{
+			for (int route = distances.getFirstRoute(island); route < distances.getFirstRoute(island + 1); route++)
+			{
+				int destination = distances.getDestination(route);
+				if (destination > island)
+				{
+					writeRecord(writer, "route", islandNames[island], islandNames[destination],
+							distances.getRouteDistance(route));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes one record of a world file on its own line.
+	 *
+	 * @param writer - the writer of the world file.
+	 * @param record - the type of record.
+	 * @param fields - the fields of the record.
+	 * @throws IOException if the file can not be written.
+	 */
+	private static void writeRecord(BufferedWriter writer, String record, Object... fields) throws IOException
+	{
+		writer.write(record);
+		for (Object field : fields)
+		{
+			writer.write('|');
+			writer.write(String.valueOf(field));
+		}
+		writer.newLine();
+	}
+
+	/**
+	 * Creates the market of a new game, with every store at its base prices and full stock.
+	 *
+	 * @return market - the new market, sharing the template's base prices and full stock.
+	 */
+	public Market createMarket()
+	{
+		return new Market(items, prices, stock, priceCurve, production, consumption);
+	}
+
+	/**
+	 * Creates the islands of a new game, each with a new store whose prices and stock are its
+	 * part of the given market. The islands share the template's {@link DistanceMatrix}, which
+	 * never changes.
+	 *
+	 * @param market - the market of the new game, made by {@link #createMarket()}.
+	 * @return islands - the new islands, in order of their id, with their distances set.
+	 */
+	public ArrayList<Island> createIslands(Market market)
+	{
+		ArrayList<Island> islands = new ArrayList<Island>(islandNames.length);
+		for (int id = 0; id < islandNames.length; id++)
+		{
+			Store store = new Store(storeNames[id], market, id, upgrades[id]);
+			islands.add(new Island(id, islandNames[id], store, supplies[id], demands[id]));
+		}
+		for (Island island : islands)
+		{
+			island.setDistances(distances, islands);
+		}
+		return islands;
+	}
+
+	/**
+	 * Gets the items of this world.
+	 *
+	 * @return items - an unmodifiable list of the items, in order of their id.
+	 */
+	public List<Item> getItems()
+	{
+		return items;
+	}
+
+	/**
+	 * Gets the curve the prices of this world's stores move along.
+	 *
+	 * @return priceCurve - the PriceCurve of this world.
+	 */
+	public PriceCurve getPriceCurve()
+	{
+		return priceCurve;
+	}
+
+	/**
+	 * Gets this world with a fixed market, where prices never move and every store is back to
+	 * its full stock each day, as if its world file had no market or restock record. Everything
+	 * else is shared with this world.
+	 *
+	 * @return world - this world with a fixed market.
+	 */
+	public WorldTemplate withFixedMarket()
+	{
+		return new WorldTemplate(items, islandNames, supplies, demands, storeNames, upgrades, prices, stock,
+				distances, PriceCurve.FIXED, 1, 1);
+	}
+
+	/**
+	 * Checks if this world has a fixed market, where prices never move and every store is back
+	 * to its full stock each day.
+	 *
+	 * @return boolean - true if the prices are fixed and stores make back and use up all of
+	 * their missing and extra stock each day.
+	 */
+	public boolean hasFixedMarket()
+	{
+		return priceCurve.isFixed() && production == 1 && consumption == 1;
+	}
+
+	/**
+	 * Gets the share of its missing stock each of this world's stores makes back each day.
+	 *
+	 * @return production - the production share.
+	 */
+	public double getProduction()
+	{
+		return production;
+	}
+
+	/**
+	 * Gets the share of its stock over its full stock each of this world's stores uses up each day.
+	 *
+	 * @return consumption - the consumption share.
+	 */
+	public double getConsumption()
+	{
+		return consumption;
+	}
+
+	/**
+	 * Gets the resource path of the image of each different upgrade sold in this world.
+	 *
+	 * @see Upgrade#getImagePath()
+	 * @return imagePaths - the image paths, each once, in order of the first island selling it.
+	 */
+	public Set<String> getUpgradeImagePaths()
+	{
+		Set<String> imagePaths = new LinkedHashSet<String>();
+		for (Upgrade upgrade : upgrades)
+		{
+			imagePaths.add(upgrade.getImagePath());
+		}
+		return imagePaths;
+	}
+
+	/**
+	 * Gets a fingerprint of this world, a hash of everything its games are built from. Worlds
+	 * parsed from the same world file, or made by {@link WorldGenerator}s with the same settings,
+	 * have the same fingerprint, so saved games can tell whether they are loaded into the world
+	 * they were played in. It is worked out the first time it is asked for.
+	 *
+	 * @return fingerprint - the 64 bit hash of this world.
+	 */
+	public long getFingerprint()
+	{
+		long hash = fingerprint;
+		if (hash == 0)
+		{
+			hash = hashWorld();
+			fingerprint = hash;
+		}
+		return hash;
+	}
+
+	/**
+	 * Hashes the contents of this world with 64 bit FNV-1a over each value.
+	 *
+	 * @return hash - the hash of this world.
+	 */
+	private long hashWorld()
+	{
+		Fingerprint hash = new Fingerprint();
+		for (Item item : items)
+		{
+			hash.add(item.getName()).add(item.getWeight()).add(item.getDefaultPrice());
+		}
+		for (int id = 0; id < islandNames.length; id++)
+		{
+			hash.add(islandNames[id]).add(supplies[id]).add(demands[id]).add(storeNames[id]);
+			hash.add(upgrades[id].getName()).add(upgrades[id].getCost()).add(upgrades[id].getBuildTime());
+		}
+		for (int i = 0; i < prices.length; i++)
+		{
+			hash.add(prices[i]).add(stock[i]);
+		}
+		for (int route = 0; route < distances.getRouteCount(); route++)
+		{
+			hash.add(distances.getDestination(route)).add(distances.getRouteDistance(route));
+		}
+		for (int island = 0; island < distances.getIslandCount(); island++)
+		{
+			hash.add(distances.getFirstRoute(island));
+		}
+		hash.add(priceCurve.getElasticity()).add(priceCurve.getRecovery()).add(production).add(consumption);
+		return hash.value == 0 ? 1 : hash.value;
+	}
+
+	/**
+	 * A 64 bit FNV-1a hash built up one value at a time.
+	 */
+	private static class Fingerprint
+	{
+		private long value = 0xCBF29CE484222325L;
+
+		/**
+		 * Adds a number to the hash, one byte at a time.
+		 *
+		 * @param number - the number.
+		 * @return fingerprint - this Fingerprint.
+		 */
+		private Fingerprint add(long number)
+		{
+			for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE)
+			{
+				value = (value ^ ((number >>> shift) & 0xFF)) * 0x100000001B3L;
+			}
+			return this;
+		}
+
+		/**
+		 * Adds a number to the hash.
+		 *
+		 * @param number - the number.
+		 * @return fingerprint - this Fingerprint.
+		 */
+		private Fingerprint add(double number)
+		{
+			return add(Double.doubleToLongBits(number));
+		}
+
+		/**
+		 * Adds a string to the hash, its length first so the strings of a world can not run
+		 * into each other.
+		 *
+		 * @param text - the string.
+		 * @return fingerprint - this Fingerprint.
+		 */
+		private Fingerprint add(String text)
+		{
+			add(text.length());
+			for (int i = 0; i < text.length(); i++)
+			{
+				add((long) text.charAt(i));
+			}
+			return this;
+		}
+	}
+
+	/**
+	 * Gets the number of islands in this world.
+	 *
+	 * @return islandCount - the number of islands.
+	 */
+	public int getIslandCount()
+	{
+		return islandNames.length;
+	}
+
+	/**
+	 * Reads the records of a world file, checking each one as it is read.
+	 */
+	private static class Parser
+	{
+		private final List<Item> items = new ArrayList<Item>();
+		private final Map<String, Item> itemsByName = new HashMap<String, Item>();
+		private final List<String> islandNames = new ArrayList<String>();
+		private final Map<String, Integer> islandIds = new HashMap<String, Integer>();
+		private final List<String> supplies = new ArrayList<String>();
+		private final List<String> demands = new ArrayList<String>();
+		private final List<String> storeNames = new ArrayList<String>();
+		private final List<Upgrade> upgrades = new ArrayList<Upgrade>();
+		private final Map<Long, Integer> prices = new HashMap<Long, Integer>();
+		private final Map<Long, Integer> stock = new HashMap<Long, Integer>();
+		private final Map<Long, Integer> routes = new HashMap<Long, Integer>();
+		private PriceCurve priceCurve;
+		private double[] restock;
+
+		/**
+		 * Reads one record.
+		 *
+		 * @param fields - the fields of the record.
+		 * @throws IllegalArgumentException if the record is not valid.
+		 */
+		void parseLine(String[] fields)
+		{
+			switch (fields[0])
+			{
+			case "item":
+				expectFields(fields, 4);
+				String itemName = name(fields[1]);
+				if (itemsByName.containsKey(itemName))
+				{
+					throw new IllegalArgumentException("The item " + itemName + " is listed twice");
+				}
+				Item item = new Item(items.size(), itemName, positive(fields[2]), positive(fields[3]));
+				items.add(item);
+				itemsByName.put(itemName, item);
+				break;
+			case "island":
+				expectFields(fields, 5);
+				String islandName = name(fields[1]);
+				if (islandIds.containsKey(islandName))
+				{
+					throw new IllegalArgumentException("The island " + islandName + " is listed twice");
+				}
+				islandIds.put(islandName, islandNames.size());
+				islandNames.add(islandName);
+				supplies.add(name(fields[2]));
+				demands.add(name(fields[3]));
+				storeNames.add(name(fields[4]));
+				upgrades.add(null);
+				break;
+			case "upgrade":
+				expectFields(fields, 7);
+				int island = island(fields[1]);
+				String upgradeName = name(fields[2]);
+				if (!Ship.UPGRADE_NAMES.contains(upgradeName))
+				{
+					throw new IllegalArgumentException("Ships can not be fitted with " + upgradeName
+							+ ", the upgrades are " + Ship.UPGRADE_NAMES);
+				}
+				if (upgrades.get(island) != null)
+				{
+					throw new IllegalArgumentException(fields[1] + " already sells an upgrade");
+				}
+				upgrades.set(island, new Upgrade(upgradeName, positive(fields[3]), positive(fields[4]),
+						fields[6].strip(), name(fields[5])));
+				break;
+			case "price":
+				expectFields(fields, 4);
+				putOnce(prices, key(island(fields[1]), item(fields[2]).getId()), positive(fields[3]), "price");
+				break;
+			case "stock":
+				expectFields(fields, 4);
+				putOnce(stock, key(island(fields[1]), item(fields[2]).getId()), notNegative(fields[3]), "stock");
+				break;
+			case "route":
+				expectFields(fields, 4);
+				int from = island(fields[1]);
+				int to = island(fields[2]);
+				if (from == to)
+				{
+					throw new IllegalArgumentException("A route must join two different islands");
+				}
+				putOnce(routes, key(Math.min(from, to), Math.max(from, to)), positive(fields[3]), "route");
+				break;
+			case "market":
+				expectFields(fields, 3);
+				if (priceCurve != null)
+				{
+					throw new IllegalArgumentException("The market is listed twice");
+				}
+				priceCurve = new PriceCurve(share(fields[1]), share(fields[2]));
+				break;
+			case "restock":
+				expectFields(fields, 3);
+				if (restock != null)
+				{
+					throw new IllegalArgumentException("The restock is listed twice");
+				}
+				restock = new double[] {share(fields[1]), share(fields[2])};
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown record " + fields[0]);
+			}
+		}
+
+		/**
+		 * Checks the world is complete once every record has been read. Islands need not all be
+		 * joined to each other, but every island must be reachable from every other through the
+		 * routes.
+		 *
+		 * @throws IllegalArgumentException if the world is missing items, islands, upgrades or routes.
+		 */
+		void check()
+		{
+			if (items.isEmpty())
+			{
+				throw new IllegalArgumentException("The world has no items");
+			}
+			if (islandNames.size() < 2)
+			{
+				throw new IllegalArgumentException("The world needs at least two islands");
+			}
+			for (int island = 0; island < islandNames.size(); island++)
+			{
+				if (upgrades.get(island) == null)
+				{
+					throw new IllegalArgumentException(islandNames.get(island) + " does not sell an upgrade");
+				}
+			}
+			int[] groups = new int[islandNames.size()];
+			for (int island = 0; island < groups.length; island++)
+			{
+				groups[island] = island;
+			}
+			for (long route : routes.keySet())
+			{
+				groups[group(groups, (int) (route >>> Integer.SIZE))] = group(groups, (int) route);
+			}
+			for (int island = 1; island < groups.length; island++)
+			{
+				if (group(groups, island) != group(groups, 0))
+				{
+					throw new IllegalArgumentException("There is no way to sail between " + islandNames.get(0)
+							+ " and " + islandNames.get(island));
+				}
+			}
+		}
+
+		/**
+		 * Finds the island standing for the group of islands joined to an island, shortening the
+		 * path to it on the way.
+		 *
+		 * @param groups - the island each island was last joined to, itself if none.
+		 * @param island - the id of the island.
+		 * @return group - the id of the island standing for its group.
+		 */
+		private static int group(int[] groups, int island)
+		{
+			while (groups[island] != island)
+			{
+				groups[island] = groups[groups[island]];
+				island = groups[island];
+			}
+			return island;
+		}
+
+		/**
+		 * Builds the template of the world that was read.
+		 *
+		 * @return world - the world.
+		 */
+		WorldTemplate build()
+		{
+			int islandCount = islandNames.size();
+			int itemCount = items.size();
+			int[] priceTable = new int[islandCount * itemCount];
+			int[] stockTable = new int[islandCount * itemCount];
+			for (int island = 0; island < islandCount; island++)
+			{
+				for (Item item : items)
+				{
+					priceTable[island * itemCount + item.getId()] = prices.getOrDefault(key(island, item.getId()),
+							item.getDefaultPrice());
+					stockTable[island * itemCount + item.getId()] = stock.getOrDefault(key(island, item.getId()), 0);
+				}
+			}
+
+			int[] from = new int[routes.size()];
+			int[] to = new int[routes.size()];
+			int[] km = new int[routes.size()];
+			int route = 0;
+			for (Map.Entry<Long, Integer> entry : routes.entrySet())
+			{
+				from[route] = (int) (entry.getKey() >>> Integer.SIZE);
+				to[route] = (int) (long) entry.getKey();
+				km[route++] = entry.getValue();
+			}
+			return new WorldTemplate(items, islandNames.toArray(new String[islandCount]),
+					supplies.toArray(new String[islandCount]), demands.toArray(new String[islandCount]),
+					storeNames.toArray(new String[islandCount]), upgrades.toArray(new Upgrade[islandCount]),
+					priceTable, stockTable, DistanceMatrix.of(islandCount, from, to, km, route),
+					priceCurve == null ? PriceCurve.FIXED : priceCurve, restock == null ? 1 : restock[0],
+					restock == null ? 1 : restock[1]);
+		}
+
+		/**
+		 * Gets the id of a listed island.
+		 *
+		 * @param name - the name of the island.
+		 * @return id - the island's id.
+		 * @throws IllegalArgumentException if the island has not been listed.
+		 */
+		private int island(String name)
+		{
+			Integer id = islandIds.get(name.strip());
+			if (id == null)
+			{
+				throw new IllegalArgumentException("Unknown island " + name.strip());
+			}
+			return id;
+		}
+
+		/**
+		 * Gets a listed item.
+		 *
+		 * @param name - the name of the item.
+		 * @return item - the item.
+		 * @throws IllegalArgumentException if the item has not been listed.
+		 */
+		private Item item(String name)
+		{
+			Item item = itemsByName.get(name.strip());
+			if (item == null)
+			{
+				throw new IllegalArgumentException("Unknown item " + name.strip());
+			}
+			return item;
+		}
+
+		/**
+		 * Combines two ids into one key.
+		 *
+		 * @param first - the first id.
+		 * @param second - the second id.
+		 * @return key - the key of the pair.
+		 */
+		private static long key(int first, int second)
+		{
+			return ((long) first << Integer.SIZE) | second;
+		}
+
+		/**
+		 * Adds a value to a map, checking the key was not already listed.
+		 *
+		 * @param map - the map to add to.
+		 * @param key - the key of the value.
+		 * @param value - the value.
+		 * @param record - the name of the record, for error messages.
+		 * @throws IllegalArgumentException if the key was already listed.
+		 */
+		private static void putOnce(Map<Long, Integer> map, long key, int value, String record)
+		{
+			if (map.putIfAbsent(key, value) != null)
+			{
+				throw new IllegalArgumentException("The " + record + " is listed twice");
+			}
+		}
+
+		/**
+		 * Checks a record has the right number of fields.
+		 *
+		 * @param fields - the fields of the record.
+		 * @param count - the number of fields the record must have.
+		 * @throws IllegalArgumentException if it has a different number.
+		 */
+		private static void expectFields(String[] fields, int count)
+		{
+			if (fields.length != count)
+			{
+				throw new IllegalArgumentException("A " + fields[0] + " record has " + count + " fields, not "
+						+ fields.length + ": " + String.join("|", Arrays.asList(fields)));
+			}
+		}
+
+		/**
+		 * Reads a name field.
+		 *
+		 * @param field - the field.
+		 * @return name - the name, without surrounding spaces.
+		 * @throws IllegalArgumentException if the name is blank.
+		 */
+		private static String name(String field)
+		{
+			if (field.isBlank())
+			{
+				throw new IllegalArgumentException("A name can not be blank");
+			}
+			return field.strip();
+		}
+
+		/**
+		 * Reads a number field that must be more than zero.
+		 *
+		 * @param field - the field.
+		 * @return number - the number.
+		 * @throws IllegalArgumentException if the field is not a number more than zero.
+		 */
+		private static int positive(String field)
+		{
+			int number = notNegative(field);
+			if (number == 0)
+			{
+				throw new IllegalArgumentException("The number " + field.strip() + " must be more than zero");
+			}
+			return number;
+		}
+
+		/**
+		 * Reads a number field that can not be negative.
+		 *
+		 * @param field - the field.
+		 * @return number - the number.
+		 * @throws IllegalArgumentException if the field is not a number of zero or more.
+		 */
+		private static int notNegative(String field)
+		{
+			int number;
+			try
+			{
+				number = Integer.parseInt(field.strip());
+			}
+			catch (NumberFormatException exception)
+			{
+				throw new IllegalArgumentException(field.strip() + " is not a number");
+			}
+			if (number < 0)
+			{
+				throw new IllegalArgumentException("The number " + number + " can not be negative");
+			}
+			return number;
+		}
+
+		/**
+		 * Reads a decimal field that must be a share from 0 to 1.
+		 *
+		 * @param field - the field.
+		 * @return share - the share.
+		 * @throws IllegalArgumentException if the field is not a number from 0 to 1.
+		 */
+		private static double share(String field)
+		{
+			double share;
+			try
+			{
+				share = Double.parseDouble(field.strip());
+			}
+			catch (NumberFormatException exception)
+			{
+				throw new IllegalArgumentException(field.strip() + " is not a number");
+			}
+			if (!(share >= 0 && share <= 1))
+			{
+				throw new IllegalArgumentException("The share " + field.strip() + " must be from 0 to 1");
+			}
+			return share;
+		}
+	}
+}
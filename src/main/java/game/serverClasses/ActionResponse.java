@@ -0,0 +1,16 @@
+package game.serverClasses;
+
+/**
+ * The response to an action on a hosted game.
+ *
+ * @param result - the name of the {@link game.controllerClasses.ActionResult} of the action, or
+ * PIRATES_PENDING, GAME_OVER or NO_PIRATES if the action could not be tried.
+ * @param message - the message to show the player.
+ * @param game - the state of the game after the action.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public record ActionResponse(String result, String message, GameView game)
+{
+}
@@ -0,0 +1,394 @@
+package game.serverClasses;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import game.controllerClasses.ActionResult;
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.exceptions.IllegalNameException;
+import game.exceptions.ServerFullException;
+import game.primaryClasses.Island;
+import game.primaryClasses.Item;
+import game.shipClasses.RoutePlanner;
+import game.shipClasses.Voyage;
+
+/**
+ * The HTTP api of the island trader server.
+ * <br>
+ * Each game is a session at /games/{id}. Actions are carried out with the try methods of
+ * {@link GameEnvironment} while holding the session's lock, and answer 200 when the action
+ * succeeds or 409 with the reason when it is rejected. After a voyage with a pirates event
+ * the pirates must be dealt with at /games/{id}/pirates before anything else.
+ *
+ * @see GameSessionRegistry
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@RestController
+@RequestMapping("/games")
+public class GameServerController
+{
+	private final GameSessionRegistry registry;
+	private final ServerLeaderboard leaderboard;
+	
+	/**
+	 * Creates the controller for the games in a registry.
+	 * 
+	 * @param registry - the registry of hosted games.
+	 * @param leaderboard - the leaderboard finished games are recorded on.
+	 */
+	public GameServerController(GameSessionRegistry registry, ServerLeaderboard leaderboard)
+	{
+		this.registry = registry;
+		this.leaderboard = leaderboard;
+	}
+	
+	/**
+	 * The body of a request to start a game.
+	 * 
+	 * @param name - the players name.
+	 * @param ship - the name of the ship to captain.
+	 * @param days - the length of the game in days.
+	 * @param seed - the seed of the random events, or null for a random seed.
+	 */
+	public record NewGameRequest(String name, String ship, int days, Long seed)
+	{
+	}
+	
+	/**
+	 * The body of a request to buy or sell.
+	 * 
+	 * @param item - the id of the item.
+	 * @param quantity - the number of units to trade.
+	 */
+	public record TradeRequest(int item, int quantity)
+	{
+	}
+	
+	/**
+	 * The body of a request to sail.
+	 * 
+	 * @param island - the id of the island to sail to.
+	 */
+	public record SailRequest(int island)
+	{
+	}
+	
+	/**
+	 * A voyage planned from the current island, see {@link RoutePlanner}.
+	 * 
+	 * @param islands - the ids of the islands of the voyage, starting with the current island.
+	 * @param km - the distance of the voyage in km.
+	 * @param daysTravel - the number of days the voyage takes.
+	 * @param costToSail - the cost of the voyage in dollars.
+	 */
+	public record RouteResponse(List<Integer> islands, int km, int daysTravel, int costToSail)
+	{
+	}
+	
+	/**
+	 * Starts a new game.
+	 * 
+	 * @param request - the players name, ship and game length.
+	 * @return response - 201 with the new game.
+	 * @throws IllegalNameException if the name is not valid.
+	 * @throws ServerFullException if the server can not host another game.
+	 */
+	@PostMapping
+	public ResponseEntity<GameView> create(@RequestBody NewGameRequest request)
+			throws IllegalNameException, ServerFullException
+	{
+		GameSession session = registry.create(request.name(), request.ship(), request.days(), request.seed());
+		return ResponseEntity.status(HttpStatus.CREATED).body(session.withLock(GameView::of));
+	}
+	
+	/**
+	 * Gets the state of a game.
+	 * 
+	 * @param id - the id of the game.
+	 * @return game - the state of the game.
+	 */
+	@GetMapping("/{id}")
+	public GameView get(@PathVariable String id)
+	{
+		return registry.get(id).withLock(GameView::of);
+	}
+	
+	/**
+	 * Ends a game.
+	 * 
+	 * @param id - the id of the game.
+	 * @return response - 204, or 404 if there is no game with the id.
+	 */
+	@DeleteMapping("/{id}")
+	public ResponseEntity<Void> delete(@PathVariable String id)
+	{
+		return registry.remove(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+	}
+	
+	/**
+	 * Buys units of an item at the current island.
+	 * 
+	 * @param id - the id of the game.
+	 * @param request - the item and the number of units.
+	 * @return response - the result of the purchase.
+	 */
+	@PostMapping("/{id}/buy")
+	public ResponseEntity<ActionResponse> buy(@PathVariable String id, @RequestBody TradeRequest request)
+	{
+		return act(id, session -> {
+			GameEnvironment gameController = session.getGameController();
+			Item item = item(gameController, request.item());
+			ActionResult result = gameController.tryBuyItem(item, request.quantity());
+			String message = result == ActionResult.OUT_OF_STOCK
+					? result.getMessage(session.getGameModel().getCurrentIsland().getStore().getName(), item.getName())
+					: result.getMessage(item.getName());
+			return response(session, result, result.isSuccess()
+					? "Bought " + gameController.getLastTradeQuantity() + " " + item.getName() : message);
+		});
+	}
+	
+	/**
+	 * Sells units of an item at the current island.
+	 * 
+	 * @param id - the id of the game.
+	 * @param request - the item and the number of units.
+	 * @return response - the result of the sale.
+	 */
+	@PostMapping("/{id}/sell")
+	public ResponseEntity<ActionResponse> sell(@PathVariable String id, @RequestBody TradeRequest request)
+	{
+		return act(id, session -> {
+			GameEnvironment gameController = session.getGameController();
+			Item item = item(gameController, request.item());
+			ActionResult result = gameController.trySellItem(item, request.quantity());
+			return response(session, result, result.isSuccess()
+					? "Sold " + gameController.getLastTradeQuantity() + " " + item.getName()
+					: result.getMessage(item.getName()));
+		});
+	}
+	
+	/**
+	 * Repairs the players ship.
+	 * 
+	 * @param id - the id of the game.
+	 * @return response - the result of the repair.
+	 */
+	@PostMapping("/{id}/repair")
+	public ResponseEntity<ActionResponse> repair(@PathVariable String id)
+	{
+		return act(id, session -> {
+			ActionResult result = session.getGameController().tryRepairShip();
+			return response(session, result, result.getMessage(session.getGameModel().getShip().getName()));
+		});
+	}
+	
+	/**
+	 * Buys the upgrade sold at the current island.
+	 * 
+	 * @param id - the id of the game.
+	 * @return response - the result of the upgrade.
+	 */
+	@PostMapping("/{id}/upgrade")
+	public ResponseEntity<ActionResponse> upgrade(@PathVariable String id)
+	{
+		return act(id, session -> {
+			ActionResult result = session.getGameController().tryUpgradeShip(
+					session.getGameModel().getCurrentIsland().getStore().getUpgrade());
+			return response(session, result, result.getMessage());
+		});
+	}
+	
+	/**
+	 * Sails to an island.
+	 * 
+	 * @param id - the id of the game.
+	 * @param request - the island to sail to.
+	 * @return response - the result of the voyage.
+	 */
+	@PostMapping("/{id}/sail")
+	public ResponseEntity<ActionResponse> sail(@PathVariable String id, @RequestBody SailRequest request)
+	{
+		return act(id, session -> {
+			GameEnvironment gameController = session.getGameController();
+			gameController.setViewedIsland(island(session, request.island()));
+			ActionResult result = gameController.trySail();
+			return response(session, result, result.getMessage());
+		});
+	}
+	
+	/**
+	 * Plans a voyage from the current island to an island, through other islands if no route
+	 * joins them. The voyage is sailed one island at a time.
+	 * 
+	 * @param id - the id of the game.
+	 * @param island - the id of the island to sail to.
+	 * @param goal - SHORTEST or CHEAPEST.
+	 * @return route - the planned voyage, or 404 if no voyage reaches the island.
+	 */
+	@GetMapping("/{id}/route")
+	public RouteResponse route(@PathVariable String id, @RequestParam int island,
+			@RequestParam(defaultValue = "CHEAPEST") RoutePlanner.Goal goal)
+	{
+		return registry.get(id).withLock(session -> {
+			GameState gameModel = session.getGameModel();
+			Voyage voyage = gameModel.getShip().getTravelTable(gameModel.getIslandsList()).getRoutePlanner()
+					.plan(gameModel.getCurrentIsland(), island(session, island), goal);
+			if (voyage == null)
+			{
+				throw new NoSuchElementException("There is no route to island " + island);
+			}
+			List<Integer> islands = voyage.stops().stream().map(Island::getId).toList();
+			return new RouteResponse(islands, voyage.km(), voyage.daysTravel(), voyage.costToSail());
+		});
+	}
+	
+	/**
+	 * Rolls the dice against the pirates after a voyage with a pirates event.
+	 * 
+	 * @param id - the id of the game.
+	 * @return response - the results of the fight, or 409 if no pirates are waiting.
+	 */
+	@PostMapping("/{id}/pirates")
+	public ResponseEntity<ActionResponse> pirates(@PathVariable String id)
+	{
+		return registry.get(id).withLock(session -> {
+			if (!session.getListener().isPiratesPending())
+			{
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(
+						new ActionResponse("NO_PIRATES", "There are no pirates to fight", GameView.of(session)));
+			}
+			session.getListener().resolvePirates(session.getGameController());
+			leaderboard.recordIfOver(session);
+			return ResponseEntity.ok(new ActionResponse(ActionResult.SUCCESS.name(),
+					session.getListener().getPiratesResults(), GameView.of(session)));
+		});
+	}
+	
+	/**
+	 * Runs an action on a game unless the game is over or pirates must be dealt with first.
+	 * If the action ends the game it is recorded on the leaderboard.
+	 * 
+	 * @param id - the id of the game.
+	 * @param action - the action, run while holding the session's lock.
+	 * @return response - the response of the action.
+	 */
+	private ResponseEntity<ActionResponse> act(String id, Function<GameSession, ResponseEntity<ActionResponse>> action)
+	{
+		return registry.get(id).withLock(session -> {
+			if (session.getListener().isGameOver())
+			{
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(
+						new ActionResponse("GAME_OVER", "The game is over", GameView.of(session)));
+			}
+			if (session.getListener().isPiratesPending())
+			{
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(
+						new ActionResponse("PIRATES_PENDING", "Pirates must be dealt with first", GameView.of(session)));
+			}
+			ResponseEntity<ActionResponse> response = action.apply(session);
+			leaderboard.recordIfOver(session);
+			return response;
+		});
+	}
+	
+	/**
+	 * Creates the response to an action, 200 if it succeeded or 409 if it was rejected.
+	 * 
+	 * @param session - the session of the game.
+	 * @param result - the result of the action.
+	 * @param message - the message to show the player.
+	 * @return response - the response of the action.
+	 */
+	private static ResponseEntity<ActionResponse> response(GameSession session, ActionResult result, String message)
+	{
+		HttpStatus status = result.isSuccess() ? HttpStatus.OK : HttpStatus.CONFLICT;
+		return ResponseEntity.status(status).body(new ActionResponse(result.name(), message, GameView.of(session)));
+	}
+	
+	/**
+	 * Gets an item by id.
+	 * 
+	 * @param gameController - the GameEnvironment of the game.
+	 * @param id - the id of the item.
+	 * @return item - the item with the id.
+	 * @throws IllegalArgumentException if there is no item with the id.
+	 */
+	private static Item item(GameEnvironment gameController, int id)
+	{
+		if (id < 0 || id >= gameController.getItemsList().size())
+		{
+			throw new IllegalArgumentException("There is no item " + id);
+		}
+		return gameController.getItemsList().get(id);
+	}
+	
+	/**
+	 * Gets an island by id.
+	 * 
+	 * @param session - the session of the game.
+	 * @param id - the id of the island.
+	 * @return island - the island with the id.
+	 * @throws IllegalArgumentException if there is no island with the id.
+	 */
+	private static Island island(GameSession session, int id)
+	{
+		if (id < 0 || id >= session.getGameModel().getIslandsList().size())
+		{
+			throw new IllegalArgumentException("There is no island " + id);
+		}
+		return session.getGameModel().getIslandsList().get(id);
+	}
+	
+	/**
+	 * Answers 400 for invalid names, items, islands, ships and quantities.
+	 * 
+	 * @param exception - the exception thrown by the request.
+	 * @return response - 400 with the reason.
+	 */
+	@ExceptionHandler({IllegalArgumentException.class, IllegalNameException.class})
+	public ResponseEntity<Map<String, String>> badRequest(Exception exception)
+	{
+		return ResponseEntity.badRequest().body(Map.of("error", exception.getMessage()));
+	}
+	
+	/**
+	 * Answers 404 for games that do not exist and islands that can not be reached.
+	 * 
+	 * @param exception - the exception thrown by the request.
+	 * @return response - 404 with the reason.
+	 */
+	@ExceptionHandler(NoSuchElementException.class)
+	public ResponseEntity<Map<String, String>> notFound(NoSuchElementException exception)
+	{
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", exception.getMessage()));
+	}
+	
+	/**
+	 * Answers 503 when the server can not host another game.
+	 * 
+	 * @param exception - the exception thrown by the request.
+	 * @return response - 503 with the reason.
+	 */
+	@ExceptionHandler(ServerFullException.class)
+	public ResponseEntity<Map<String, String>> unavailable(ServerFullException exception)
+	{
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", exception.getMessage()));
+	}
+}
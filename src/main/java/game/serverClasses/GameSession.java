@@ -0,0 +1,153 @@
+package game.serverClasses;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameMetrics;
+import game.controllerClasses.GameState;
+import game.controllerClasses.HeadlessGameListener;
+import game.primaryClasses.WorldTemplate;
+import game.shipClasses.Ship;
+
+/**
+ * One game hosted by the island trader server, with its own {@link GameEnvironment},
+ * {@link GameState} and {@link HeadlessGameListener}.
+ * <br>
+ * A game is not thread safe, so every request for a session runs inside {@link #withLock(Function)}.
+ * The lock is a ReentrantLock rather than a synchronized block so a virtual thread waiting for
+ * it does not pin its carrier thread.
+ *
+ * @see GameSessionRegistry
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class GameSession
+{
+	private final String id;
+	private final HeadlessGameListener listener;
+	private final GameEnvironment gameController;
+	private final GameState gameModel;
+	private final ReentrantLock lock;
+	private volatile long lastUsedNanos;
+	private boolean recorded;
+	
+	/**
+	 * Starts a new game for a session.
+	 * 
+	 * @param id - the id of the session.
+	 * @param playerName - the players name, already checked by {@link GameEnvironment#checkValidName(String)}.
+	 * @param ship - the ship the player captains.
+	 * @param gameLength - the length of the game in days.
+	 * @param seed - the seed of the games random events.
+	 * @param world - the world the game is played in.
+	 * @param metrics - the metrics the game reports its actions to.
+	 */
+	public GameSession(String id, String playerName, Ship ship, int gameLength, long seed, WorldTemplate world,
+			GameMetrics metrics)
+	{
+		this.id = id;
+		listener = new HeadlessGameListener();
+		gameController = new GameEnvironment(listener, seed, world);
+		gameController.setMetrics(metrics);
+		gameModel = new GameState(gameController);
+		gameController.setGameState(gameModel);
+		gameModel.setPlayerInfo(playerName, gameLength, ship);
+		gameController.setViewedIsland(gameModel.getCurrentIsland());
+		lock = new ReentrantLock();
+		lastUsedNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Runs an action on this session's game while holding its lock, so requests for the
+	 * same game run one at a time while requests for other games run in parallel.
+	 * 
+	 * @param <T> - the type of the action's result.
+	 * @param action - the action to run.
+	 * @return result - the result of the action.
+	 */
+	public <T> T withLock(Function<GameSession, T> action)
+	{
+		lock.lock();
+		try
+		{
+			lastUsedNanos = System.nanoTime();
+			return action.apply(this);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Gets the id of this session.
+	 * 
+	 * @return id - the id of this session.
+	 */
+	public String getId()
+	{
+		return id;
+	}
+	
+	/**
+	 * Gets the GameEnvironment running this session's game. Only use it inside {@link #withLock(Function)}.
+	 * 
+	 * @return gameController - the GameEnvironment of this session.
+	 */
+	public GameEnvironment getGameController()
+	{
+		return gameController;
+	}
+	
+	/**
+	 * Gets the GameState of this session's game. Only use it inside {@link #withLock(Function)}.
+	 * 
+	 * @return gameModel - the GameState of this session.
+	 */
+	public GameState getGameModel()
+	{
+		return gameModel;
+	}
+	
+	/**
+	 * Gets the listener this session's game reports to. Only use it inside {@link #withLock(Function)}.
+	 * 
+	 * @return listener - the HeadlessGameListener of this session.
+	 */
+	public HeadlessGameListener getListener()
+	{
+		return listener;
+	}
+	
+	/**
+	 * Gets the time this session was last used, from {@link System#nanoTime()}.
+	 * 
+	 * @return lastUsedNanos - the time of the last request for this session.
+	 */
+	public long getLastUsedNanos()
+	{
+		return lastUsedNanos;
+	}
+	
+	/**
+	 * Checks if this session's game has been recorded on the leaderboard. Only use it inside
+	 * {@link #withLock(Function)}.
+	 * 
+	 * @return boolean - true if the game has been recorded, false otherwise.
+	 */
+	public boolean isRecorded()
+	{
+		return recorded;
+	}
+	
+	/**
+	 * Marks this session's game as recorded on the leaderboard. Only use it inside
+	 * {@link #withLock(Function)}.
+	 */
+	public void setRecorded()
+	{
+		recorded = true;
+	}
+}
@@ -0,0 +1,208 @@
+package game.serverClasses;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameMetrics;
+import game.exceptions.IllegalNameException;
+import game.exceptions.ServerFullException;
+import game.primaryClasses.WorldTemplate;
+import game.shipClasses.Ship;
+
+/**
+ * The registry of every game hosted by the island trader server.
+ * <br>
+ * Sessions are kept in a ConcurrentHashMap by id, so looking up, creating and ending games
+ * never blocks requests for other games. When the server is full, sessions that have not been
+ * used for the idle timeout are ended to make room.
+ * <br>
+ * A new game reserves its place with a compare and set on the count of sessions before it is
+ * made, so games started at the same time can never take the registry past its most sessions.
+ * The place is given back when the session is removed or evicted.
+ *
+ * @see GameSession
+ * @see GameServerController
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@Component
+public class GameSessionRegistry
+{
+	/**
+	 * The shortest game a player can choose.
+	 */
+	public static final int MIN_GAME_LENGTH = 20;
+	
+	/**
+	 * The longest game a player can choose.
+	 */
+	public static final int MAX_GAME_LENGTH = 50;
+	
+	private final ConcurrentHashMap<String, GameSession> sessions;
+	private final AtomicInteger sessionCount;
+	private final int maxSessions;
+	private final long idleTimeoutNanos;
+	private final WorldTemplate world;
+	private final GameMetrics metrics;
+	
+	/**
+	 * Creates an empty registry.
+	 * 
+	 * @param maxSessions - the most games hosted at once.
+	 * @param idleTimeout - how long a game can go unused before it may be ended to make room.
+	 * @param worldFile - the world file every game is played in, or blank for the default world.
+	 * @param metrics - the metrics every game reports its actions to.
+	 * @throws IOException if the world file can not be read.
+	 */
+	public GameSessionRegistry(@Value("${game.server.max-sessions:10000}") int maxSessions,
+			@Value("${game.server.idle-timeout:30m}") Duration idleTimeout,
+			@Value("${game.server.world-file:}") String worldFile, GameMetrics metrics) throws IOException
+	{
+		this.metrics = metrics;
+		world = worldFile.isBlank() ? WorldTemplate.getDefault() : WorldTemplate.load(Path.of(worldFile));
+		sessions = new ConcurrentHashMap<String, GameSession>();
+		sessionCount = new AtomicInteger();
+		this.maxSessions = maxSessions;
+		this.idleTimeoutNanos = idleTimeout.toNanos();
+	}
+	
+	/**
+	 * Starts a new game.
+	 * 
+	 * @param playerName - the players name.
+	 * @param shipName - the name of the ship the player captains, see {@link Ship#forName(String)}.
+	 * @param gameLength - the length of the game in days, 20 - 50.
+	 * @param seed - the seed of the games random events, or null for a random seed.
+	 * @return session - the session of the new game.
+	 * @throws IllegalNameException if the players name is not valid.
+	 * @throws IllegalArgumentException if the ship or game length is not valid.
+	 * @throws ServerFullException if the server is hosting as many games as it can.
+	 */
+	public GameSession create(String playerName, String shipName, int gameLength, Long seed)
+			throws IllegalNameException, ServerFullException
+	{
+		GameEnvironment.checkValidName(playerName == null ? "" : playerName);
+		Ship ship = Ship.forName(shipName == null ? "" : shipName);
+		if (gameLength < MIN_GAME_LENGTH || gameLength > MAX_GAME_LENGTH)
+		{
+			throw new IllegalArgumentException("The game length must be between " + MIN_GAME_LENGTH
+					+ " and " + MAX_GAME_LENGTH + " days");
+		}
+		if (!reserveSession())
+		{
+			evictIdle();
+			if (!reserveSession())
+			{
+				throw new ServerFullException("The server is hosting as many games as it can");
+			}
+		}
+		try
+		{
+			long gameSeed = seed == null ? new SplittableRandom().nextLong() : seed;
+			GameSession session = new GameSession(UUID.randomUUID().toString(), playerName, ship, gameLength,
+					gameSeed, world, metrics);
+			sessions.put(session.getId(), session);
+			return session;
+		}
+		catch (RuntimeException exception)
+		{
+			sessionCount.decrementAndGet();
+			throw exception;
+		}
+	}
+	
+	/**
+	 * Reserves a place for a new session if the registry is not full.
+	 * 
+	 * @return boolean - true if a place was reserved, false if the registry is full.
+	 */
+	private boolean reserveSession()
+	{
+		while (true)
+		{
+			int count = sessionCount.get();
+			if (count >= maxSessions)
+			{
+				return false;
+			}
+			if (sessionCount.compareAndSet(count, count + 1))
+			{
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the session of a game.
+	 * 
+	 * @param id - the id of the session.
+	 * @return session - the session with the id.
+	 * @throws NoSuchElementException if there is no game with the id.
+	 */
+	public GameSession get(String id)
+	{
+		GameSession session = sessions.get(id);
+		if (session == null)
+		{
+			throw new NoSuchElementException("There is no game " + id);
+		}
+		return session;
+	}
+	
+	/**
+	 * Ends a game, removing its session.
+	 * 
+	 * @param id - the id of the session.
+	 * @return boolean - true if the game was ended, false if there was no game with the id.
+	 */
+	public boolean remove(String id)
+	{
+		if (sessions.remove(id) == null)
+		{
+			return false;
+		}
+		sessionCount.decrementAndGet();
+		return true;
+	}
+	
+	/**
+	 * Gets the number of games being hosted.
+	 * 
+	 * @return size - the number of sessions.
+	 */
+	public int size()
+	{
+		return sessions.size();
+	}
+	
+	/**
+	 * Ends every game that has not been used for the idle timeout.
+	 * 
+	 * @return ended - the number of games ended.
+	 */
+	public int evictIdle()
+	{
+		long now = System.nanoTime();
+		int ended = 0;
+		for (GameSession session : sessions.values())
+		{
+			if (now - session.getLastUsedNanos() > idleTimeoutNanos && sessions.remove(session.getId(), session))
+			{
+				sessionCount.decrementAndGet();
+				ended++;
+			}
+		}
+		return ended;
+	}
+}
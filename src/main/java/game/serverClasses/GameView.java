@@ -0,0 +1,64 @@
+package game.serverClasses;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game.controllerClasses.GameState;
+import game.primaryClasses.Item;
+import game.primaryClasses.Upgrade;
+import game.shipClasses.Ship;
+
+/**
+ * The state of a hosted game as it is sent to clients of the island trader server.
+ *
+ * @param id - the id of the game's session.
+ * @param playerName - the players name.
+ * @param ship - the name of the players ship.
+ * @param day - the current day.
+ * @param gameLength - the length of the game in days.
+ * @param money - the players money ($).
+ * @param islandId - the id of the island the player is on.
+ * @param island - the name of the island the player is on.
+ * @param health - the ship's current health (HP).
+ * @param maxHealth - the ship's maximum health (HP).
+ * @param cargoWeight - the weight of the ship's cargo (kg).
+ * @param maxWeight - the ship's capacity (kg).
+ * @param upgrades - the names of the ship's upgrades.
+ * @param inventory - the number owned of each item, by item name.
+ * @param piratesPending - true if pirates must be dealt with before anything else.
+ * @param gameOver - true if the game has ended.
+ * @param score - the players score, see {@link GameState#calculateScore()}.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public record GameView(String id, String playerName, String ship, int day, int gameLength, int money,
+		int islandId, String island, int health, int maxHealth, int cargoWeight, int maxWeight,
+		List<String> upgrades, Map<String, Integer> inventory, boolean piratesPending, boolean gameOver,
+		int score)
+{
+	/**
+	 * Creates the view of a session's game. Must be called while holding the session's lock.
+	 * 
+	 * @param session - the session of the game.
+	 * @return view - the view of the game.
+	 */
+	public static GameView of(GameSession session)
+	{
+		GameState gameModel = session.getGameModel();
+		Ship ship = gameModel.getShip();
+		Map<String, Integer> inventory = new LinkedHashMap<String, Integer>();
+		for (Item item : gameModel.getInventory().getItems())
+		{
+			inventory.put(item.getName(), gameModel.getInventory().get(item));
+		}
+		List<String> upgrades = ship.getUpgrades().stream().map(Upgrade::getName).toList();
+		return new GameView(session.getId(), gameModel.getPlayerName(), ship.getName(),
+				gameModel.getCurrentDay(), gameModel.getGameLength(), gameModel.getMoney(),
+				gameModel.getCurrentIsland().getId(), gameModel.getCurrentIsland().getName(),
+				ship.getCurrentHealth(), ship.getMaxHealth(), ship.getCurrentWeight(), ship.getMaxWeight(),
+				upgrades, inventory, session.getListener().isPiratesPending(),
+				session.getListener().isGameOver(), gameModel.calculateScore());
+	}
+}
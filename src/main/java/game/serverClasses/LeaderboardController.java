@@ -0,0 +1,95 @@
+package game.serverClasses;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import game.leaderboardClasses.Leaderboard;
+import game.leaderboardClasses.LeaderboardEntry;
+
+/**
+ * The HTTP api of the island trader server's leaderboard at /leaderboard.
+ *
+ * @see ServerLeaderboard
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@RestController
+@RequestMapping("/leaderboard")
+public class LeaderboardController
+{
+	/**
+	 * The most entries one request can get.
+	 */
+	public static final int MAX_COUNT = 1000;
+
+	private final Leaderboard leaderboard;
+
+	/**
+	 * Creates the controller for the server's leaderboard.
+	 *
+	 * @param serverLeaderboard - the leaderboard of hosted games.
+	 */
+	public LeaderboardController(ServerLeaderboard serverLeaderboard)
+	{
+		leaderboard = serverLeaderboard.getLeaderboard();
+	}
+
+	/**
+	 * The rank a score would have on the leaderboard.
+	 *
+	 * @param score - the score.
+	 * @param rank - the rank of the score, 1 for the best.
+	 * @param games - the number of games on the leaderboard.
+	 */
+	public record RankResponse(int score, long rank, long games)
+	{
+	}
+
+	/**
+	 * Gets the best games recorded.
+	 *
+	 * @param count - the most entries to get, up to {@value #MAX_COUNT}.
+	 * @return top - the best entries, best first.
+	 */
+	@GetMapping
+	public List<LeaderboardEntry> top(@RequestParam(defaultValue = "10") int count)
+	{
+		if (count < 1 || count > MAX_COUNT)
+		{
+			throw new IllegalArgumentException("The count must be between 1 and " + MAX_COUNT);
+		}
+		return leaderboard.top(count);
+	}
+
+	/**
+	 * Gets the rank a score would have on the leaderboard.
+	 *
+	 * @param score - the score.
+	 * @return rank - the rank of the score.
+	 */
+	@GetMapping("/rank")
+	public RankResponse rank(@RequestParam int score)
+	{
+		return new RankResponse(score, leaderboard.rankOf(score), leaderboard.size());
+	}
+
+	/**
+	 * Answers 400 for invalid counts.
+	 *
+	 * @param exception - the exception thrown by the request.
+	 * @return response - 400 with the reason.
+	 */
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException exception)
+	{
+		return ResponseEntity.badRequest().body(Map.of("error", exception.getMessage()));
+	}
+}
@@ -0,0 +1,206 @@
+package game.serverClasses;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the action latency of a running island trader server.
+ * <br>
+ * Each simulated player runs on its own virtual thread, starts a game and then repeatedly buys
+ * and sells one unit of wood and fetches the game. The latency of every action is recorded and
+ * the percentiles are printed against {@link #TARGET_P99_MILLIS}. An action the server does not
+ * answer with a 2xx status is counted as failed rather than timed, and the run fails if any
+ * action failed, so rejected or missing games can not flatter the latencies.
+ * <br>
+ * Usage: LoadGenerator [baseUrl] [games] [actionsPerGame]
+ *
+ * @see GameServerController
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class LoadGenerator
+{
+	/**
+	 * The target for the 99th percentile latency of an action, with 5000 concurrent games on a
+	 * 4 core machine.
+	 */
+	public static final double TARGET_P99_MILLIS = 10.0;
+	
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+	
+	/**
+	 * The latency recorded for an action the server did not answer with a 2xx status.
+	 */
+	private static final long FAILED = -1;
+	
+	/**
+	 * Runs the load against a server.
+	 * 
+	 * @param args - the base url of the server, the number of games and the actions per game.
+	 * @throws Exception if the server can not be reached.
+	 * @throws IllegalStateException if the server failed any action.
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+		int actionsPerGame = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+		
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		long start = System.nanoTime();
+		List<Future<long[]>> players = new ArrayList<Future<long[]>>(games);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			for (int game = 0; game < games; game++)
+			{
+				long seed = game;
+				players.add(executor.submit(() -> play(client, baseUrl, seed, actionsPerGame)));
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		
+		long[] latencies = new long[games * actionsPerGame];
+		int count = 0;
+		int failed = 0;
+		for (Future<long[]> player : players)
+		{
+			for (long latency : player.get())
+			{
+				if (latency == FAILED)
+				{
+					failed++;
+				}
+				else
+				{
+					latencies[count++] = latency;
+				}
+			}
+		}
+		if (count == 0)
+		{
+			throw new IllegalStateException("The server failed all " + failed + " actions");
+		}
+		Arrays.sort(latencies, 0, count);
+		double p99 = percentile(latencies, count, 0.99);
+		System.out.printf("%d actions from %d games in %.1fs: %.0f actions/s%n", count, games, seconds, count / seconds);
+		System.out.printf("p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+				percentile(latencies, count, 0.5), percentile(latencies, count, 0.9), p99,
+				percentile(latencies, count, 0.999), latencies[count - 1] / 1e6);
+		System.out.printf("p99 target %.1fms: %s%n", TARGET_P99_MILLIS, p99 <= TARGET_P99_MILLIS ? "met" : "missed");
+		if (failed > 0)
+		{
+			throw new IllegalStateException("The server failed " + failed + " of " + (count + failed) + " actions");
+		}
+	}
+	
+	/**
+	 * Plays one game, recording the latency of each action.
+	 * 
+	 * @param client - the http client.
+	 * @param baseUrl - the base url of the server.
+	 * @param seed - the seed of the game.
+	 * @param actions - the number of actions to take.
+	 * @return latencies - the latency of each action in nanoseconds, or {@link #FAILED} for
+	 * each action the server did not answer with a 2xx status.
+	 * @throws Exception if the server can not be reached.
+	 * @throws IllegalStateException if the server did not start the game.
+	 */
+	private static long[] play(HttpClient client, String baseUrl, long seed, int actions) throws Exception
+	{
+		HttpResponse<String> created = send(client, post(baseUrl + "/games",
+				"{\"name\":\"Load Tester\",\"ship\":\"Carol\",\"days\":50,\"seed\":" + seed + "}"));
+		Matcher matcher = ID.matcher(created.body());
+		if (!isSuccess(created) || !matcher.find())
+		{
+			throw new IllegalStateException("The server did not start a game: " + created.statusCode() + " "
+					+ created.body());
+		}
+		String game = baseUrl + "/games/" + matcher.group(1);
+		
+		long[] latencies = new long[actions];
+		for (int action = 0; action < actions; action++)
+		{
+			HttpRequest request;
+			switch (action % 3)
+			{
+			case 0:
+				request = post(game + "/buy", "{\"item\":0,\"quantity\":1}");
+				break;
+			case 1:
+				request = post(game + "/sell", "{\"item\":0,\"quantity\":1}");
+				break;
+			default:
+				request = HttpRequest.newBuilder(URI.create(game)).GET().build();
+				break;
+			}
+			long start = System.nanoTime();
+			HttpResponse<String> response = send(client, request);
+			latencies[action] = isSuccess(response) ? System.nanoTime() - start : FAILED;
+		}
+		send(client, HttpRequest.newBuilder(URI.create(game)).DELETE().build());
+		return latencies;
+	}
+	
+	/**
+	 * Creates a POST request with a JSON body.
+	 * 
+	 * @param url - the url to post to.
+	 * @param json - the body of the request.
+	 * @return request - the request.
+	 */
+	private static HttpRequest post(String url, String json)
+	{
+		return HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json)).build();
+	}
+	
+	/**
+	 * Sends a request and returns the response.
+	 * 
+	 * @param client - the http client.
+	 * @param request - the request to send.
+	 * @return response - the response, with its body as a string.
+	 * @throws Exception if the server can not be reached.
+	 */
+	private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception
+	{
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+	
+	/**
+	 * Checks if the server carried out a request.
+	 * 
+	 * @param response - the response to the request.
+	 * @return boolean - true if the response has a 2xx status.
+	 */
+	private static boolean isSuccess(HttpResponse<String> response)
+	{
+		return response.statusCode() >= 200 && response.statusCode() < 300;
+	}
+	
+	/**
+	 * Gets a percentile of sorted latencies in milliseconds.
+	 * 
+	 * @param sorted - the sorted latencies in nanoseconds.
+	 * @param count - the number of latencies.
+	 * @param fraction - the percentile as a fraction, such as 0.99.
+	 * @return latency - the latency at the percentile in milliseconds.
+	 */
+	private static double percentile(long[] sorted, int count, double fraction)
+	{
+		int index = Math.min(count - 1, (int) Math.ceil(fraction * count) - 1);
+		return sorted[Math.max(0, index)] / 1e6;
+	}
+}
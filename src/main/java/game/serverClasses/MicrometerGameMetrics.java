@@ -0,0 +1,211 @@
+package game.serverClasses;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import game.controllerClasses.ActionResult;
+import game.controllerClasses.GameMetrics;
+import game.controllerClasses.RandomEvent;
+import game.primaryClasses.Item;
+
+/**
+ * The {@link GameMetrics} of every game hosted by the island trader server, recorded with
+ * Micrometer and exported by Spring Boot Actuator on the management port.
+ * <br>
+ * Every action is timed by the island.action timer, tagged with the action and its result, so
+ * the rate and latency of each action and the reasons actions are rejected can be watched. The
+ * days and cost of voyages, the units and money of trades, the money paid for repairs and
+ * upgrades and each random event rolled are recorded by their own meters. The meters are for
+ * every hosted game together rather than one session each, since a tag for each session would
+ * make a new series for every game played.
+ * <br>
+ * Timers are made the first time an action has a result and kept in an array by result, so
+ * recording an action does not look the timer up in the registry.
+ *
+ * @see GameSessionRegistry
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@Component
+public class MicrometerGameMetrics implements GameMetrics
+{
+	private final MeterRegistry registry;
+	private final AtomicReferenceArray<Timer> sailTimers;
+	private final AtomicReferenceArray<Timer> buyTimers;
+	private final AtomicReferenceArray<Timer> sellTimers;
+	private final AtomicReferenceArray<Timer> repairTimers;
+	private final AtomicReferenceArray<Timer> upgradeTimers;
+	private final DistributionSummary sailDays;
+	private final DistributionSummary sailCost;
+	private final DistributionSummary buyUnits;
+	private final DistributionSummary buyMoney;
+	private final DistributionSummary sellUnits;
+	private final DistributionSummary sellMoney;
+	private final DistributionSummary repairCost;
+	private final DistributionSummary upgradeCost;
+	private final Counter pirates;
+	private final Counter shipwreckedSailors;
+	private final Counter badWeather;
+	private final Counter calmSeas;
+
+	/**
+	 * Creates the meters of the server's games.
+	 *
+	 * @param registry - the registry the meters are exported from.
+	 */
+	public MicrometerGameMetrics(MeterRegistry registry)
+	{
+		this.registry = registry;
+		int results = ActionResult.values().length;
+		sailTimers = new AtomicReferenceArray<Timer>(results);
+		buyTimers = new AtomicReferenceArray<Timer>(results);
+		sellTimers = new AtomicReferenceArray<Timer>(results);
+		repairTimers = new AtomicReferenceArray<Timer>(results);
+		upgradeTimers = new AtomicReferenceArray<Timer>(results);
+		sailDays = summary("island.sail.days", "days", "sail");
+		sailCost = summary("island.sail.cost", "dollars", "sail");
+		buyUnits = summary("island.trade.units", "units", "buy");
+		buyMoney = summary("island.trade.money", "dollars", "buy");
+		sellUnits = summary("island.trade.units", "units", "sell");
+		sellMoney = summary("island.trade.money", "dollars", "sell");
+		repairCost = summary("island.repair.cost", "dollars", "repair");
+		upgradeCost = summary("island.upgrade.cost", "dollars", "upgrade");
+		pirates = event("pirates");
+		shipwreckedSailors = event("shipwrecked_sailors");
+		badWeather = event("bad_weather");
+		calmSeas = event("none");
+	}
+
+	@Override
+	public void sailed(ActionResult result, int daysTravel, int costToSail, long nanos)
+	{
+		timer(sailTimers, "sail", result).record(nanos, TimeUnit.NANOSECONDS);
+		if (result.isSuccess())
+		{
+			sailDays.record(daysTravel);
+			sailCost.record(costToSail);
+		}
+	}
+
+	@Override
+	public void bought(Item item, ActionResult result, int units, int money, long nanos)
+	{
+		timer(buyTimers, "buy", result).record(nanos, TimeUnit.NANOSECONDS);
+		if (result.isSuccess())
+		{
+			buyUnits.record(units);
+			buyMoney.record(money);
+		}
+	}
+
+	@Override
+	public void sold(Item item, ActionResult result, int units, int money, long nanos)
+	{
+		timer(sellTimers, "sell", result).record(nanos, TimeUnit.NANOSECONDS);
+		if (result.isSuccess())
+		{
+			sellUnits.record(units);
+			sellMoney.record(money);
+		}
+	}
+
+	@Override
+	public void repaired(ActionResult result, int cost, long nanos)
+	{
+		timer(repairTimers, "repair", result).record(nanos, TimeUnit.NANOSECONDS);
+		if (result.isSuccess())
+		{
+			repairCost.record(cost);
+		}
+	}
+
+	@Override
+	public void upgraded(ActionResult result, int cost, long nanos)
+	{
+		timer(upgradeTimers, "upgrade", result).record(nanos, TimeUnit.NANOSECONDS);
+		if (result.isSuccess())
+		{
+			upgradeCost.record(cost);
+		}
+	}
+
+	@Override
+	public void randomEvent(int event)
+	{
+		switch (event)
+		{
+		case RandomEvent.PIRATES:
+			pirates.increment();
+			break;
+		case RandomEvent.SHIPWRECKED_SAILORS:
+			shipwreckedSailors.increment();
+			break;
+		case RandomEvent.BAD_WEATHER:
+			badWeather.increment();
+			break;
+		default:
+			calmSeas.increment();
+			break;
+		}
+	}
+
+	/**
+	 * Gets the timer of an action with a result, making it the first time it is used.
+	 *
+	 * @param timers - the timers of the action, by result.
+	 * @param action - the name of the action.
+	 * @param result - the result of the action.
+	 * @return timer - the timer of the action and result.
+	 */
+	private Timer timer(AtomicReferenceArray<Timer> timers, String action, ActionResult result)
+	{
+		Timer timer = timers.get(result.ordinal());
+		if (timer == null)
+		{
+			// The registry gives back the same timer if two threads make it at once
+			timer = Timer.builder("island.action")
+					.description("The time taken by the player's actions")
+					.tag("action", action)
+					.tag("result", result.name().toLowerCase(Locale.ROOT))
+					.publishPercentileHistogram()
+					.register(registry);
+			timers.set(result.ordinal(), timer);
+		}
+		return timer;
+	}
+
+	/**
+	 * Makes a summary of the amounts of an action.
+	 *
+	 * @param name - the name of the summary.
+	 * @param unit - the unit of the amounts.
+	 * @param action - the name of the action.
+	 * @return summary - the registered summary.
+	 */
+	private DistributionSummary summary(String name, String unit, String action)
+	{
+		return DistributionSummary.builder(name).baseUnit(unit).tag("action", action).register(registry);
+	}
+
+	/**
+	 * Makes the counter of a random event.
+	 *
+	 * @param event - the name of the event.
+	 * @return counter - the registered counter.
+	 */
+	private Counter event(String event)
+	{
+		return Counter.builder("island.random.events")
+				.description("The random events rolled on voyages")
+				.tag("event", event)
+				.register(registry);
+	}
+}
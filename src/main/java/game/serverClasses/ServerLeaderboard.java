@@ -0,0 +1,83 @@
+package game.serverClasses;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import game.leaderboardClasses.Leaderboard;
+
+/**
+ * The {@link Leaderboard} shared by every game hosted by the island trader server.
+ * <br>
+ * The leaderboard file is opened when the server starts and closed when it stops. Each
+ * hosted game is recorded once, by the request that ends it.
+ *
+ * @see LeaderboardController
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+@Component
+public class ServerLeaderboard implements Closeable
+{
+	private final Leaderboard leaderboard;
+
+	/**
+	 * Opens the server's leaderboard file.
+	 *
+	 * @param file - the path of the leaderboard file.
+	 * @throws IOException if the file can not be read or written.
+	 */
+	public ServerLeaderboard(@Value("${game.server.leaderboard-file:leaderboard.dat}") String file) throws IOException
+	{
+		leaderboard = Leaderboard.open(Path.of(file));
+	}
+
+	/**
+	 * Records a session's game on the leaderboard if it is over and has not been recorded yet.
+	 * Must be called while holding the session's lock.
+	 *
+	 * @param session - the session of the game.
+	 * @throws UncheckedIOException if the game can not be written to the leaderboard file.
+	 */
+	public void recordIfOver(GameSession session)
+	{
+		if (!session.getListener().isGameOver() || session.isRecorded())
+		{
+			return;
+		}
+		try
+		{
+			leaderboard.record(session.getGameModel());
+			session.setRecorded();
+		}
+		catch (IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Gets the leaderboard.
+	 *
+	 * @return leaderboard - the leaderboard of hosted games.
+	 */
+	public Leaderboard getLeaderboard()
+	{
+		return leaderboard;
+	}
+
+	/**
+	 * Closes the leaderboard file when the server stops.
+	 *
+	 * @throws IOException if the file can not be closed.
+	 */
+	public void close() throws IOException
+	{
+		leaderboard.close();
+	}
+}
@@ -0,0 +1,308 @@
+package game.shipClasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game.primaryClasses.DistanceMatrix;
+import game.primaryClasses.Island;
+
+/**
+ * Plans voyages of more than one route between {@link Island}s for a {@link Ship}.
+ * <br>
+ * A voyage between two islands can be planned to be the {@link Goal#SHORTEST shortest} or the
+ * {@link Goal#CHEAPEST cheapest}. Planning searches outwards from the island sailed from with
+ * Dijkstra's algorithm until every island has been reached, keeping the tree of best voyages
+ * from that island to all others. Bots and the map panel ask for voyages from the current
+ * island to many islands in a row, so the trees of the last {@value #CACHED_TREES} islands
+ * planned from are kept and later voyages from them are read back without searching again.
+ * <br>
+ * The days and cost of each route come from the ships {@link TravelTable}, so a RoutePlanner
+ * belongs to one table and is made by {@link TravelTable#getRoutePlanner()}. An upgrade that
+ * changes the ships kmPerDay or costPerDay discards the table and its planner with it, so
+ * planned voyages always match the ships current speed and cost.
+ *
+ * @see TravelTable
+ * @see Voyage
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class RoutePlanner
+{
+	/**
+	 * What a planned voyage should use the least of.
+	 */
+	public enum Goal
+	{
+		/**
+		 * The fewest km, with ties broken by the fewest days.
+		 */
+		SHORTEST,
+		/**
+		 * The fewest dollars, with ties broken by the fewest days. Since each route costs its
+		 * days multiplied by the ships costPerDay, this is also the fastest voyage.
+		 */
+		CHEAPEST
+	}
+
+	/**
+	 * The number of islands whose trees of voyages are kept.
+	 */
+	public static final int CACHED_TREES = 8;
+
+	private final List<Island> islands;
+	private final DistanceMatrix distances;
+	private final TravelTable travelTable;
+	private final Map<Integer, Tree> trees;
+	private int lastKey;
+	private Tree lastTree;
+
+	private long[] best;
+	private long[] heapKeys;
+	private int[] heapIslands;
+
+	/**
+	 * The best voyages from one island to every other island.
+	 *
+	 * @param previous - the island each voyage reaches its last island from, -1 for the island
+	 * sailed from and for islands that can not be reached.
+	 * @param km - the distance of the voyage to each island.
+	 * @param days - the days of the voyage to each island.
+	 * @param cost - the cost of the voyage to each island.
+	 */
+	private record Tree(int[] previous, int[] km, int[] days, int[] cost)
+	{
+	}
+
+	/**
+	 * Creates the planner for the routes of a travel table.
+	 *
+	 * @param islands - the islands of the game, in order of their id.
+	 * @param travelTable - the table of the days and cost of each route.
+	 */
+	RoutePlanner(List<Island> islands, TravelTable travelTable)
+	{
+		this.islands = islands;
+		this.travelTable = travelTable;
+		distances = islands.get(0).getDistanceMatrix();
+		trees = new LinkedHashMap<Integer, Tree>(CACHED_TREES * 2, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Tree> eldest)
+			{
+				return size() > CACHED_TREES;
+			}
+		};
+	}
+
+	/**
+	 * Plans a voyage between two islands.
+	 *
+	 * @param from - the island sailed from.
+	 * @param to - the island sailed to.
+	 * @param goal - what the voyage should use the least of.
+	 * @return voyage - the best voyage, or null if no voyage joins the islands.
+	 */
+	public Voyage plan(Island from, Island to, Goal goal)
+	{
+		Tree tree = tree(from.getId(), goal);
+		int island = to.getId();
+		if (island != from.getId() && tree.previous()[island] < 0)
+		{
+			return null;
+		}
+		List<Island> stops = new ArrayList<Island>();
+		for (int stop = island; stop >= 0; stop = tree.previous()[stop])
+		{
+			stops.add(islands.get(stop));
+		}
+		Collections.reverse(stops);
+		return new Voyage(Collections.unmodifiableList(stops), tree.km()[island], tree.days()[island],
+				tree.cost()[island]);
+	}
+
+	/**
+	 * Gets the days of the best voyage between two islands without building the voyage.
+	 *
+	 * @param from - the island sailed from.
+	 * @param to - the island sailed to.
+	 * @param goal - what the voyage should use the least of.
+	 * @return daysTravel - the number of days the voyage takes, or {@link DistanceMatrix#NO_ROUTE}
+	 * if no voyage joins the islands.
+	 */
+	public int getDaysTravel(Island from, Island to, Goal goal)
+	{
+		return tree(from.getId(), goal).days()[to.getId()];
+	}
+
+	/**
+	 * Gets the cost of the best voyage between two islands without building the voyage.
+	 *
+	 * @param from - the island sailed from.
+	 * @param to - the island sailed to.
+	 * @param goal - what the voyage should use the least of.
+	 * @return costToSail - the cost of the voyage in dollars, or {@link DistanceMatrix#NO_ROUTE}
+	 * if no voyage joins the islands.
+	 */
+	public int getCostToSail(Island from, Island to, Goal goal)
+	{
+		return tree(from.getId(), goal).cost()[to.getId()];
+	}
+
+	/**
+	 * Gets the tree of best voyages from an island, searching for it if it is not kept. The
+	 * tree used last is checked first, since most questions are asked from the same island.
+	 *
+	 * @param from - the id of the island sailed from.
+	 * @param goal - what the voyages should use the least of.
+	 * @return tree - the best voyages from the island.
+	 */
+	private Tree tree(int from, Goal goal)
+	{
+		int key = 2 * from + goal.ordinal();
+		if (lastTree != null && lastKey == key)
+		{
+			return lastTree;
+		}
+		Tree tree = trees.get(key);
+		if (tree == null)
+		{
+			tree = search(from, goal);
+			trees.put(key, tree);
+		}
+		lastKey = key;
+		lastTree = tree;
+		return tree;
+	}
+
+	/**
+	 * Finds the best voyages from an island to every other island with Dijkstra's algorithm.
+	 * <br>
+	 * Each island is weighed by a long holding the km or cost of its voyage in the high bits
+	 * and the days in the low bits, so ties are broken by the fewest days. Islands waiting to
+	 * be reached are kept in a binary heap of these weights, and an island is added again
+	 * instead of moved when a better voyage to it is found, skipping its older entries.
+	 *
+	 * @param from - the id of the island sailed from.
+	 * @param goal - what the voyages should use the least of.
+	 * @return tree - the best voyages from the island.
+	 */
+	private Tree search(int from, Goal goal)
+	{
+		int islandCount = distances.getIslandCount();
+		if (best == null)
+		{
+			best = new long[islandCount];
+			heapKeys = new long[distances.getRouteCount() + 1];
+			heapIslands = new int[distances.getRouteCount() + 1];
+		}
+		int[] previous = new int[islandCount];
+		int[] km = new int[islandCount];
+		int[] days = new int[islandCount];
+		int[] cost = new int[islandCount];
+		Arrays.fill(previous, -1);
+		Arrays.fill(km, DistanceMatrix.NO_ROUTE);
+		Arrays.fill(days, DistanceMatrix.NO_ROUTE);
+		Arrays.fill(cost, DistanceMatrix.NO_ROUTE);
+		Arrays.fill(best, Long.MAX_VALUE);
+
+		km[from] = 0;
+		days[from] = 0;
+		cost[from] = 0;
+		best[from] = 0;
+		int heapSize = push(0, 0, from);
+		while (heapSize > 0)
+		{
+			long weight = heapKeys[0];
+			int island = heapIslands[0];
+			heapSize = pop(heapSize);
+			if (weight > best[island])
+			{
+				continue;
+			}
+			for (int route = distances.getFirstRoute(island); route < distances.getFirstRoute(island + 1); route++)
+			{
+				int next = distances.getDestination(route);
+				int nextKm = km[island] + distances.getRouteDistance(route);
+				int nextDays = days[island] + travelTable.getRouteDaysTravel(route);
+				int nextCost = cost[island] + travelTable.getRouteCostToSail(route);
+				long nextWeight = ((long) (goal == Goal.SHORTEST ? nextKm : nextCost) << Integer.SIZE) | nextDays;
+				if (nextWeight < best[next])
+				{
+					best[next] = nextWeight;
+					previous[next] = island;
+					km[next] = nextKm;
+					days[next] = nextDays;
+					cost[next] = nextCost;
+					heapSize = push(heapSize, nextWeight, next);
+				}
+			}
+		}
+		return new Tree(previous, km, days, cost);
+	}
+
+	/**
+	 * Adds an island to the heap.
+	 *
+	 * @param heapSize - the number of entries in the heap.
+	 * @param weight - the weight of the island's voyage.
+	 * @param island - the id of the island.
+	 * @return heapSize - the number of entries after adding the island.
+	 */
+	private int push(int heapSize, long weight, int island)
+	{
+		if (heapSize == heapKeys.length)
+		{
+			heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+			heapIslands = Arrays.copyOf(heapIslands, heapSize * 2);
+		}
+		int index = heapSize;
+		while (index > 0 && heapKeys[(index - 1) / 2] > weight)
+		{
+			heapKeys[index] = heapKeys[(index - 1) / 2];
+			heapIslands[index] = heapIslands[(index - 1) / 2];
+			index = (index - 1) / 2;
+		}
+		heapKeys[index] = weight;
+		heapIslands[index] = island;
+		return heapSize + 1;
+	}
+
+	/**
+	 * Removes the entry of least weight from the heap.
+	 *
+	 * @param heapSize - the number of entries in the heap.
+	 * @return heapSize - the number of entries after removing one.
+	 */
+	private int pop(int heapSize)
+	{
+		heapSize--;
+		long weight = heapKeys[heapSize];
+		int island = heapIslands[heapSize];
+		int index = 0;
+		while (2 * index + 1 < heapSize)
+		{
+			int child = 2 * index + 1;
+			if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child])
+			{
+				child++;
+			}
+			if (heapKeys[child] >= weight)
+			{
+				break;
+			}
+			heapKeys[index] = heapKeys[child];
+			heapIslands[index] = heapIslands[child];
+			index = child;
+		}
+		heapKeys[index] = weight;
+		heapIslands[index] = island;
+		return heapSize;
+	}
+}
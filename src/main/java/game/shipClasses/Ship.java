@@ -1,9 +1,12 @@
 package game.shipClasses;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import game.controllerClasses.GameEnvironment;
 import game.controllerClasses.GameState;
+import game.primaryClasses.Island;
 import game.primaryClasses.Item;
 import game.primaryClasses.Upgrade;
 /**
@@ -13,15 +16,25 @@ import game.primaryClasses.Upgrade;
  * There are 4 subclasses of Ship for each of the 4 choices of ship the player
  * has. These include {@link Carol}, {@link FlyingScotsman}, {@link JollyRodrick}
  * and {@link WhitePearl}. 
+ * <br>
+ * Every change to a ship is published to its change listener, which the {@link GameState}
+ * sailing it uses to mark the ship as changed for the display.
  * 
  * @author Sam Clark
  * @author Wil Johnston
  */
 public class Ship 
 {
+	/**
+	 * The names of the upgrades a ship can be fitted with, see {@link #upgradeShip(Upgrade)}.
+	 */
+	public static final Set<String> UPGRADE_NAMES = Set.of("Bigger Sails", "Feast Table", "Forged Tools",
+			"Cannons", "Storage Boxes");
+	
 	private String name;
 	private int crewSize;
 	private int maxWeight;
+	private int baseMaxWeight;
 	private int maxHealth;
 	
 	private int costPerDay;
@@ -31,10 +44,14 @@ public class Ship
 	private int currentWeight;
 	
 	private ArrayList<Upgrade> upgrades;
+	private TravelTable travelTable;
 	
 	private int repairMultiplier;
 	private boolean hasCannons;
 	
+	private Runnable changeListener;
+	private Runnable cargoListener;
+	
 	
 	/**
 	 * Constructs an instance of this Ship Class for use in the island trader Game
@@ -48,14 +65,125 @@ public class Ship
 	{
 		this.name = name;
 		this.crewSize = crewSize;
-		this.maxWeight = maxWeight;
+		this.baseMaxWeight = maxWeight;
 		this.maxHealth = maxHealth;
 		this.currentHealth = this.maxHealth;
+		currentWeight = 0;
+		upgrades = new ArrayList<Upgrade>();
+		resetStats();
+	}
+	
+	/**
+	 * Sets the stats that upgrades change back to the values of this ship without any upgrades.
+	 */
+	private void resetStats()
+	{
+		this.maxWeight = baseMaxWeight;
 		this.repairMultiplier = 4;
+		this.hasCannons = false;
 		this.costPerDay = (this.crewSize * this.maxHealth / 10);
 		this.kmPerDay = (this.crewSize * 50 / this.maxWeight);
-		currentWeight = 0;
-		upgrades = new ArrayList<Upgrade>();
+		travelTable = null;
+	}
+	
+	/**
+	 * Sets the listener run each time this ship's health or upgrades change.
+	 * 
+	 * @see GameState#getChanges()
+	 * @param changeListener - the listener, or null for none.
+	 */
+	public void setChangeListener(Runnable changeListener)
+	{
+		this.changeListener = changeListener;
+	}
+	
+	/**
+	 * Sets the listener run each time the weight of this ship's cargo changes, kept apart
+	 * from the change listener as the cargo changes with every trade.
+	 * 
+	 * @see GameState#getChanges()
+	 * @param cargoListener - the listener, or null for none.
+	 */
+	public void setCargoListener(Runnable cargoListener)
+	{
+		this.cargoListener = cargoListener;
+	}
+	
+	/**
+	 * Runs the change listener, if this ship has one.
+	 */
+	private void changed()
+	{
+		if (changeListener != null)
+		{
+			changeListener.run();
+		}
+	}
+	
+	/**
+	 * Runs the cargo listener, if this ship has one.
+	 */
+	private void cargoChanged()
+	{
+		if (cargoListener != null)
+		{
+			cargoListener.run();
+		}
+	}
+	
+	/**
+	 * Restores this ship to a saved health, cargo weight and set of upgrades.
+	 * <br>
+	 * If the upgrades differ from the ship's current upgrades the ship is reset to its stats
+	 * without any upgrades and each upgrade is added again in order, so the stats match a ship
+	 * that bought them.
+	 * 
+	 * @see GameState#restore(game.controllerClasses.GameSnapshot)
+	 * @param currentHealth - the health to restore (HP).
+	 * @param currentWeight - the weight of the cargo to restore (kg).
+	 * @param upgrades - the upgrades the ship had, in the order they were added.
+	 */
+	public void restore(int currentHealth, int currentWeight, List<Upgrade> upgrades)
+	{
+		if (!this.upgrades.equals(upgrades))
+		{
+			ArrayList<Upgrade> restoredUpgrades = new ArrayList<Upgrade>(upgrades);
+			this.upgrades.clear();
+			resetStats();
+			for (Upgrade upgrade : restoredUpgrades)
+			{
+				upgradeShip(upgrade);
+			}
+		}
+		this.currentHealth = currentHealth;
+		this.currentWeight = currentWeight;
+		changed();
+		cargoChanged();
+	}
+	
+	/**
+	 * Creates a new ship of the type with the given name, used to rebuild the players ship
+	 * when a saved or recorded game is loaded.
+	 * 
+	 * @param name - the name of one of the 4 ships, see {@link #getName()}.
+	 * @return ship - a new ship of that type without any upgrades.
+	 * @throws IllegalArgumentException if no ship has the name.
+	 */
+	public static Ship forName(String name)
+	{
+		switch (name)
+		{
+		case "The White Pearl":
+			return new WhitePearl();
+		case "The Flying Scotsman":
+			return new FlyingScotsman();
+		case "The Jolly Rodrick":
+			return new JollyRodrick();
+		case "Carol":
+			return new Carol();
+		default:
+			throw new IllegalArgumentException("There is no ship named " + name);
+		}
 	}
 	
 	/**
@@ -71,6 +199,8 @@ public class Ship
 	
 	/**
 	 * Adds an upgrade to the ship. Upgrades are instances of the class Upgrade.
+	 * Upgrades that change kmPerDay or costPerDay discard the ships {@link TravelTable} and the
+	 * voyages its {@link RoutePlanner} has planned.
 	 * 
 	 * @see Upgrade
 	 * @param upgrade - the upgrade to add to the ship 
@@ -82,10 +212,12 @@ public class Ship
 		{
 		case "Bigger Sails":
 			kmPerDay *= 1.75;
+			travelTable = null;
 			upgrades.add(upgrade);
 			break;
 		case "Feast Table":
 			costPerDay /= 2;
+			travelTable = null;
 			upgrades.add(upgrade);
 			break;
 		case "Forged Tools":
@@ -103,6 +235,7 @@ public class Ship
 		default:
 			throw new NullPointerException("This Upgrade Doesnt Exist");
 		}
+		changed();
 	}
 	
 	/**
@@ -183,6 +316,25 @@ public class Ship
 		return kmPerDay;
 	}
 	
+	/**
+	 * Gets the table of the days and cost for this ship to sail between each of the islands.
+	 * <br>
+	 * The table is made the first time it is needed and kept until an upgrade changes the
+	 * ships kmPerDay or costPerDay.
+	 * 
+	 * @see TravelTable
+	 * @param islands - the islands of the game, in order of their id.
+	 * @return travelTable - the TravelTable for this ship's current speed and cost.
+	 */
+	public TravelTable getTravelTable(List<Island> islands)
+	{
+		if (travelTable == null || !travelTable.isFor(islands))
+		{
+			travelTable = new TravelTable(islands, kmPerDay, costPerDay);
+		}
+		return travelTable;
+	}
+	
 	/**
 	 * Gets the current Health of this ship.
 	 * 
@@ -213,6 +365,7 @@ public class Ship
 	public void damageTaken(int damage)
 	{
 		currentHealth -= damage;
+		changed();
 	}
 	
 	/**
@@ -235,6 +388,7 @@ public class Ship
 	public void repair()
 	{
 		currentHealth = maxHealth;
+		changed();
 	}
 	
 	/**
@@ -273,6 +427,7 @@ public class Ship
 	public void increaseWeight(int weight) 
 	{
 		currentWeight += weight;
+		cargoChanged();
 	}
 
 	/**
@@ -286,7 +441,8 @@ public class Ship
 	 */
 	public void decreaseWeight(int weight) 
 	{
-		currentWeight -= weight;		
+		currentWeight -= weight;
+		cargoChanged();
 	}
 	
 	/**
@@ -0,0 +1,164 @@
+package game.shipClasses;
+
+import java.util.List;
+
+import game.controllerClasses.GameEnvironment;
+import game.primaryClasses.DistanceMatrix;
+import game.primaryClasses.Island;
+
+/**
+ * A table of the days and cost to sail each route between {@link Island}s for a {@link Ship}.
+ * <br>
+ * The days to sail a route is its distance divided by the ships kmPerDay, and the cost is
+ * the days multiplied by the ships costPerDay. These are worked out once for every route
+ * of the games {@link DistanceMatrix} when the table is made and kept in the same order as
+ * its routes, so the table grows with the number of routes rather than the square of the
+ * number of islands. The table is made by {@link Ship#getTravelTable(List)} and made again only
+ * when an {@link game.primaryClasses.Upgrade} changes the ships speed or cost per day.
+ * <br>
+ * Voyages through other islands, between islands with no route joining them, are planned
+ * by the table's {@link RoutePlanner}.
+ * 
+ * @see Ship#getTravelTable(List)
+ * @see GameEnvironment#sail()
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class TravelTable 
+{
+	private List<Island> islands;
+	private DistanceMatrix distances;
+	private int[] daysTravel;
+	private int[] costToSail;
+	private RoutePlanner routePlanner;
+	
+	/**
+	 * Creates the travel table for a ship's current speed and cost per day.
+	 * 
+	 * @param islands - the islands of the game, in order of their id.
+	 * @param kmPerDay - the number of km the ship can travel in a day.
+	 * @param costPerDay - the cost per day to sail the ship in dollars.
+	 */
+	public TravelTable(List<Island> islands, int kmPerDay, int costPerDay)
+	{
+		this.islands = islands;
+		distances = islands.get(0).getDistanceMatrix();
+		daysTravel = new int[distances.getRouteCount()];
+		costToSail = new int[distances.getRouteCount()];
+		for (int route = 0; route < daysTravel.length; route++)
+		{
+			daysTravel[route] = distances.getRouteDistance(route) / kmPerDay;
+			costToSail[route] = daysTravel[route] * costPerDay;
+		}
+	}
+	
+	/**
+	 * Checks whether this table was made for the given islands.
+	 * 
+	 * @param islands - the islands of a game.
+	 * @return boolean - true if this table holds the travel between these islands.
+	 */
+	public boolean isFor(List<Island> islands)
+	{
+		return this.islands == islands;
+	}
+	
+	/**
+	 * Gets the days it takes to sail between two islands.
+	 * 
+	 * @param from - the id of the island sailed from.
+	 * @param to - the id of the island sailed to.
+	 * @return daysTravel - the number of days the voyage takes, zero if from and to are the same
+	 * island or {@link DistanceMatrix#NO_ROUTE} if they are not joined by a route.
+	 */
+	public int getDaysTravel(int from, int to)
+	{
+		int route = distances.indexOf(from, to);
+		if (route < 0)
+		{
+			return from == to ? 0 : DistanceMatrix.NO_ROUTE;
+		}
+		return daysTravel[route];
+	}
+	
+	/**
+	 * Gets the days it takes to sail between two islands.
+	 * 
+	 * @param from - the island sailed from.
+	 * @param to - the island sailed to.
+	 * @return daysTravel - the number of days the voyage takes.
+	 */
+	public int getDaysTravel(Island from, Island to)
+	{
+		return getDaysTravel(from.getId(), to.getId());
+	}
+	
+	/**
+	 * Gets the cost to sail between two islands.
+	 * 
+	 * @param from - the id of the island sailed from.
+	 * @param to - the id of the island sailed to.
+	 * @return costToSail - the cost of the voyage in dollars, zero if from and to are the same
+	 * island or {@link DistanceMatrix#NO_ROUTE} if they are not joined by a route.
+	 */
+	public int getCostToSail(int from, int to)
+	{
+		int route = distances.indexOf(from, to);
+		if (route < 0)
+		{
+			return from == to ? 0 : DistanceMatrix.NO_ROUTE;
+		}
+		return costToSail[route];
+	}
+	
+	/**
+	 * Gets the days it takes to sail a route.
+	 * 
+	 * @param route - the index of the route in the games {@link DistanceMatrix}.
+	 * @return daysTravel - the number of days the voyage takes.
+	 */
+	public int getRouteDaysTravel(int route)
+	{
+		return daysTravel[route];
+	}
+	
+	/**
+	 * Gets the cost to sail a route.
+	 * 
+	 * @param route - the index of the route in the games {@link DistanceMatrix}.
+	 * @return costToSail - the cost of the voyage in dollars.
+	 */
+	public int getRouteCostToSail(int route)
+	{
+		return costToSail[route];
+	}
+	
+	/**
+	 * Gets the cost to sail between two islands.
+	 * 
+	 * @param from - the island sailed from.
+	 * @param to - the island sailed to.
+	 * @return costToSail - the cost of the voyage in dollars.
+	 */
+	public int getCostToSail(Island from, Island to)
+	{
+		return getCostToSail(from.getId(), to.getId());
+	}
+	
+	/**
+	 * Gets the planner of voyages through other islands for the days and cost in this table.
+	 * The planner is made the first time it is needed and is discarded with the table.
+	 * 
+	 * @see RoutePlanner
+	 * @return routePlanner - the RoutePlanner for this table.
+	 */
+	public RoutePlanner getRoutePlanner()
+	{
+		if (routePlanner == null)
+		{
+			routePlanner = new RoutePlanner(islands, this);
+		}
+		return routePlanner;
+	}
+}
@@ -0,0 +1,42 @@
+package game.shipClasses;
+
+import java.util.List;
+
+import game.primaryClasses.Island;
+
+/**
+ * A voyage planned by a {@link RoutePlanner} from one {@link Island} to another, sailing one
+ * route at a time through the islands between them.
+ *
+ * @param stops - the islands of the voyage in the order they are reached, starting with the
+ * island sailed from and ending with the island sailed to.
+ * @param km - the distance of the voyage in km.
+ * @param daysTravel - the number of days the voyage takes, the sum of the days of each route.
+ * @param costToSail - the cost of the voyage in dollars, the sum of the cost of each route.
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public record Voyage(List<Island> stops, int km, int daysTravel, int costToSail)
+{
+	/**
+	 * Gets the island to sail to first, the end of the first route of the voyage.
+	 *
+	 * @return island - the first island after the one sailed from, or the island sailed from
+	 * if the voyage does not go anywhere.
+	 */
+	public Island nextStop()
+	{
+		return stops.get(Math.min(1, stops.size() - 1));
+	}
+
+	/**
+	 * Gets the number of routes sailed on the voyage.
+	 *
+	 * @return hops - the number of routes, one less than the number of stops.
+	 */
+	public int hops()
+	{
+		return stops.size() - 1;
+	}
+}
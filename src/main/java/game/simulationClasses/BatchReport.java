@@ -0,0 +1,96 @@
+package game.simulationClasses;
+
+import java.util.List;
+
+/**
+ * The results of a batch of games played by the {@link BatchSimulator}.
+ * <br>
+ * Holds a {@link ScoreDistribution} for each ship and for all ships together, and the
+ * time the batch took so that its throughput can be reported.
+ * 
+ * @see BatchSimulator
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class BatchReport 
+{
+	private List<ScoreDistribution> distributions;
+	private int games;
+	private long elapsedNanos;
+	private int parallelism;
+	
+	/**
+	 * Creates a BatchReport.
+	 * 
+	 * @param distributions - the score distributions, one per ship followed by one for all ships.
+	 * @param games - the total number of games played.
+	 * @param elapsedNanos - the wall clock time the batch took in nanoseconds.
+	 * @param parallelism - the number of cores the batch was played on.
+	 */
+	public BatchReport(List<ScoreDistribution> distributions, int games, long elapsedNanos, int parallelism)
+	{
+		this.distributions = distributions;
+		this.games = games;
+		this.elapsedNanos = elapsedNanos;
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Gets the score distributions of the batch.
+	 * 
+	 * @return distributions - one distribution per ship followed by one for all ships.
+	 */
+	public List<ScoreDistribution> getDistributions()
+	{
+		return distributions;
+	}
+	
+	/**
+	 * Gets the number of games played.
+	 * 
+	 * @return games - the total number of games in the batch.
+	 */
+	public int getGames()
+	{
+		return games;
+	}
+	
+	/**
+	 * Gets the number of games played per second over all cores.
+	 * 
+	 * @return gamesPerSecond - the throughput of the batch.
+	 */
+	public double getGamesPerSecond()
+	{
+		return games / (elapsedNanos / 1e9);
+	}
+	
+	/**
+	 * Gets the number of games played per second on each core.
+	 * 
+	 * @return gamesPerSecondPerCore - the throughput of the batch divided by the cores used.
+	 */
+	public double getGamesPerSecondPerCore()
+	{
+		return getGamesPerSecond() / parallelism;
+	}
+	
+	/**
+	 * Creates a string representation of the report, one line per distribution followed
+	 * by the throughput.
+	 * 
+	 * @return the report as a string.
+	 */
+	public String toString()
+	{
+		StringBuilder report = new StringBuilder();
+		for (ScoreDistribution distribution : distributions)
+		{
+			report.append(distribution).append('\n');
+		}
+		report.append(String.format("%d games in %.2fs on %d cores: %.0f games/s, %.0f games/s/core",
+				games, elapsedNanos / 1e9, parallelism, getGamesPerSecond(), getGamesPerSecondPerCore()));
+		return report.toString();
+	}
+}
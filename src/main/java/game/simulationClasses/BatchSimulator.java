@@ -0,0 +1,202 @@
+package game.simulationClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+import game.controllerClasses.GameState;
+import game.shipClasses.Carol;
+import game.shipClasses.FlyingScotsman;
+import game.shipClasses.JollyRodrick;
+import game.shipClasses.Ship;
+import game.shipClasses.WhitePearl;
+
+/**
+ * Plays batches of complete Island Trader Games across every core using a {@link ForkJoinPool}.
+ * <br>
+ * A batch plays the same number of games for every {@link Ship} the player can choose and every
+ * game length the player can choose (20 - 50 days). The final scores from 
+ * {@link GameState#calculateScore()} are summarised per ship in a {@link BatchReport}, along with
+ * the throughput of the batch in games per second per core.
+ * <br>
+ * Every game gets its own seed, drawn in order from a master seed before any game is played, 
+ * so a batch run again with the same master seed gives the same scores however the games are
+ * spread over the cores.
+ * <br>
+ * Run from the command line with the number of games per ship and game length, and optionally
+ * the number of cores to use.
+ * 
+ * @see GameSimulation
+ * @see BatchReport
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class BatchSimulator 
+{
+	/**
+	 * The shortest game length the player can choose.
+	 */
+	public static final int MIN_GAME_LENGTH = 20;
+	
+	/**
+	 * The longest game length the player can choose.
+	 */
+	public static final int MAX_GAME_LENGTH = 50;
+	
+	/**
+	 * The number of games each fork join task plays without splitting.
+	 */
+	private static final int GAMES_PER_TASK = 64;
+	
+	/**
+	 * Supplies each of the ships the player can choose from.
+	 */
+	static final List<Supplier<Ship>> SHIPS = List.of(WhitePearl::new, FlyingScotsman::new, 
+			JollyRodrick::new, Carol::new);
+	
+	private int parallelism;
+	private Supplier<? extends TradingStrategy> strategy;
+	
+	/**
+	 * Creates a BatchSimulator using every available core.
+	 * 
+	 * @param strategy - supplies the {@link TradingStrategy} used to play each game.
+	 */
+	public BatchSimulator(Supplier<? extends TradingStrategy> strategy)
+	{
+		this(strategy, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a BatchSimulator using the given number of cores.
+	 * 
+	 * @param strategy - supplies the {@link TradingStrategy} used to play each game.
+	 * @param parallelism - the number of cores to play games on.
+	 */
+	public BatchSimulator(Supplier<? extends TradingStrategy> strategy, int parallelism)
+	{
+		this.strategy = strategy;
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Plays a batch of games and summarises their scores.
+	 * 
+	 * @param gamesPerConfiguration - the number of games to play for each ship and game length.
+	 * @param masterSeed - the seed every games seed is derived from.
+	 * @return report - the score distributions and throughput of the batch.
+	 */
+	public BatchReport run(int gamesPerConfiguration, long masterSeed)
+	{
+		int lengths = MAX_GAME_LENGTH - MIN_GAME_LENGTH + 1;
+		int gamesPerShip = lengths * gamesPerConfiguration;
+		int[] scores = new int[SHIPS.size() * gamesPerShip];
+		
+		long[] seeds = new long[scores.length];
+		SplittableRandom masterRandom = new SplittableRandom(masterSeed);
+		for (int index = 0; index < seeds.length; index++)
+		{
+			seeds[index] = masterRandom.nextLong();
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		long start = System.nanoTime();
+		try
+		{
+			pool.invoke(new PlayGamesTask(scores, seeds, 0, scores.length, gamesPerConfiguration));
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		
+		List<ScoreDistribution> distributions = new ArrayList<ScoreDistribution>();
+		for (int shipIndex = 0; shipIndex < SHIPS.size(); shipIndex++)
+		{
+			int[] shipScores = new int[gamesPerShip];
+			System.arraycopy(scores, shipIndex * gamesPerShip, shipScores, 0, gamesPerShip);
+			distributions.add(new ScoreDistribution(SHIPS.get(shipIndex).get().getName(), shipScores));
+		}
+		distributions.add(new ScoreDistribution("All Ships", scores.clone()));
+		return new BatchReport(distributions, scores.length, elapsedNanos, parallelism);
+	}
+	
+	/**
+	 * Plays the game at the given index of the batch. Games are ordered by ship, then by game
+	 * length, then by repetition.
+	 * 
+	 * @param index - the index of the game in the batch.
+	 * @param seed - the seed of the game.
+	 * @param gamesPerConfiguration - the number of games for each ship and game length.
+	 * @return score - the final score of the game.
+	 */
+	private int playGame(int index, long seed, int gamesPerConfiguration)
+	{
+		int lengths = MAX_GAME_LENGTH - MIN_GAME_LENGTH + 1;
+		int shipIndex = index / (lengths * gamesPerConfiguration);
+		int gameLength = MIN_GAME_LENGTH + (index / gamesPerConfiguration) % lengths;
+		GameSimulation game = new GameSimulation(SHIPS.get(shipIndex), gameLength, seed);
+		return game.play(strategy.get());
+	}
+	
+	/**
+	 * A fork join task playing a range of the games in a batch, splitting the range in half
+	 * until it is small enough to play directly.
+	 */
+	private class PlayGamesTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private int[] scores;
+		private long[] seeds;
+		private int start;
+		private int end;
+		private int gamesPerConfiguration;
+		
+		PlayGamesTask(int[] scores, long[] seeds, int start, int end, int gamesPerConfiguration)
+		{
+			this.scores = scores;
+			this.seeds = seeds;
+			this.start = start;
+			this.end = end;
+			this.gamesPerConfiguration = gamesPerConfiguration;
+		}
+		
+		protected void compute()
+		{
+			if (end - start <= GAMES_PER_TASK)
+			{
+				for (int index = start; index < end; index++)
+				{
+					scores[index] = playGame(index, seeds[index], gamesPerConfiguration);
+				}
+			}
+			else
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new PlayGamesTask(scores, seeds, start, middle, gamesPerConfiguration),
+						new PlayGamesTask(scores, seeds, middle, end, gamesPerConfiguration));
+			}
+		}
+	}
+	
+	/**
+	 * Runs a batch from the command line and prints the report.
+	 * 
+	 * @param args - the number of games per ship and game length (default 100), optionally
+	 * the number of cores to use (default all of them) and the master seed (default 0).
+	 */
+	public static void main(String[] args)
+	{
+		int gamesPerConfiguration = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long masterSeed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+		BatchSimulator simulator = new BatchSimulator(GreedyTrader::new, parallelism);
+		System.out.println(simulator.run(gamesPerConfiguration, masterSeed));
+	}
+}
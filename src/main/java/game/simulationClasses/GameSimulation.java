@@ -0,0 +1,119 @@
+package game.simulationClasses;
+
+import java.util.function.Supplier;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.controllerClasses.HeadlessGameListener;
+import game.primaryClasses.WorldTemplate;
+import game.shipClasses.Ship;
+
+/**
+ * Plays a single complete Island Trader Game headless with a {@link TradingStrategy}.
+ * <br>
+ * The game is set up the same way the GUI sets it up once the player has chosen their
+ * name, ship and game length, and is then played turn by turn until the game is over.
+ * Pirates events are resolved straight away, as the player must roll the dice before
+ * doing anything else.
+ * 
+ * @see BatchSimulator
+ * @see HeadlessGameListener
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class GameSimulation 
+{
+	/**
+	 * A limit on turns so a strategy that sails for zero days can not run forever.
+	 */
+	private static final int MAX_TURNS = 10000;
+	
+	private HeadlessGameListener listener;
+	private GameEnvironment gameController;
+	private GameState gameModel;
+	
+	/**
+	 * Creates a new headless game ready to be played.
+	 * 
+	 * @param ship - supplies the {@link Ship} to captain in this game.
+	 * @param gameLength - the length of the game in days.
+	 * @param seed - the seed the games random events are derived from.
+	 */
+	public GameSimulation(Supplier<? extends Ship> ship, int gameLength, long seed)
+	{
+		this(ship, gameLength, seed, WorldTemplate.getDefault());
+	}
+	
+	/**
+	 * Creates a new headless game in the given world ready to be played.
+	 * 
+	 * @param ship - supplies the {@link Ship} to captain in this game.
+	 * @param gameLength - the length of the game in days.
+	 * @param seed - the seed the games random events are derived from.
+	 * @param world - the world the game is played in, such as one made by a {@link game.primaryClasses.WorldGenerator}.
+	 */
+	public GameSimulation(Supplier<? extends Ship> ship, int gameLength, long seed, WorldTemplate world)
+	{
+		listener = new HeadlessGameListener();
+		gameController = new GameEnvironment(listener, seed, world);
+		gameModel = new GameState(gameController);
+		gameController.setGameState(gameModel);
+		gameModel.setPlayerInfo("Simulated", gameLength, ship.get());
+		gameController.setViewedIsland(gameModel.getCurrentIsland());
+	}
+	
+	/**
+	 * Plays the game to the end with the given strategy.
+	 * 
+	 * @param strategy - the TradingStrategy deciding each turn.
+	 * @return score - the final score of the game from {@link GameState#calculateScore()}.
+	 */
+	public int play(TradingStrategy strategy)
+	{
+		int turns = 0;
+		while (!listener.isGameOver() && turns < MAX_TURNS)
+		{
+			if (!strategy.playTurn(gameController, gameModel))
+			{
+				break;
+			}
+			if (listener.isPiratesPending())
+			{
+				listener.resolvePirates(gameController);
+			}
+			turns++;
+		}
+		return gameModel.calculateScore();
+	}
+	
+	/**
+	 * Gets the GameEnvironment running this game.
+	 * 
+	 * @return gameController - the GameEnvironment running this game.
+	 */
+	public GameEnvironment getGameController()
+	{
+		return gameController;
+	}
+	
+	/**
+	 * Gets the GameState of this game.
+	 * 
+	 * @return gameModel - the GameState of this game.
+	 */
+	public GameState getGameModel()
+	{
+		return gameModel;
+	}
+	
+	/**
+	 * Gets the listener recording the events of this game.
+	 * 
+	 * @return listener - the HeadlessGameListener for this game.
+	 */
+	public HeadlessGameListener getListener()
+	{
+		return listener;
+	}
+}
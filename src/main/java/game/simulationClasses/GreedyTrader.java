@@ -0,0 +1,246 @@
+package game.simulationClasses;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.primaryClasses.DistanceMatrix;
+import game.primaryClasses.Island;
+import game.primaryClasses.Item;
+import game.primaryClasses.Store;
+import game.shipClasses.TravelTable;
+
+/**
+ * A simple {@link TradingStrategy} that plays the Island Trader Game one voyage at a time.
+ * <br>
+ * Each turn the GreedyTrader... <br>
+ * (1) Sells all of its cargo at the current island. <br>
+ * (2) Repairs the ship if a bad weather event could sink it. <br>
+ * (3) Picks the island it can reach before the game ends with the best profit per day,
+ * buying the most profitable items per kg for that island. <br>
+ * (4) Sails there, or to the cheapest island once no voyage makes a profit, ending the game.
+ * 
+ * @see TradingStrategy
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class GreedyTrader implements TradingStrategy 
+{
+	/**
+	 * The most damage a bad weather event can do, see {@link game.controllerClasses.RandomEvent#takeDamage()}.
+	 */
+	private static final int MAX_WEATHER_DAMAGE = 34;
+	
+	/**
+	 * Plays one turn of the game, trading at the current island and then sailing.
+	 * 
+	 * @param gameController - the GameEnvironment running the game.
+	 * @param gameModel - the GameState of the game being played.
+	 * @return boolean - true if the ship sailed, false if no island could be sailed to.
+	 */
+	public boolean playTurn(GameEnvironment gameController, GameState gameModel)
+	{
+		sellCargo(gameController, gameModel);
+		repairIfAtRisk(gameController, gameModel);
+		
+		Island destination = chooseDestination(gameController, gameModel);
+		if (destination == null)
+		{
+			return false;
+		}
+		if (gameModel.getShip().getRemainingCapacity() > 0)
+		{
+			buyCargo(gameController, gameModel, destination);
+		}
+		gameController.setViewedIsland(destination);
+		return gameController.trySail().isSuccess();
+	}
+	
+	/**
+	 * Sells every item in the players inventory at the current island.
+	 * 
+	 * @param gameController - the GameEnvironment running the game.
+	 * @param gameModel - the GameState of the game being played.
+	 */
+	private void sellCargo(GameEnvironment gameController, GameState gameModel)
+	{
+		for (Item item : gameController.getItemsList())
+		{
+			int owned = gameModel.getInventory().get(item);
+			if (owned > 0)
+			{
+				gameController.trySellItem(item, owned);
+			}
+		}
+	}
+	
+	/**
+	 * Repairs the ship if its health is low enough that a bad weather event could sink it.
+	 * 
+	 * @param gameController - the GameEnvironment running the game.
+	 * @param gameModel - the GameState of the game being played.
+	 */
+	private void repairIfAtRisk(GameEnvironment gameController, GameState gameModel)
+	{
+		if (gameModel.getShip().getCurrentHealth() <= MAX_WEATHER_DAMAGE)
+		{
+			// If the repair can not be afforded, sail on regardless
+			gameController.tryRepairShip();
+		}
+	}
+	
+	/**
+	 * Chooses the island to sail to next, from the islands joined to the current island by a route.
+	 * <br>
+	 * Voyages that arrive before the end of the game are scored by the profit of the cargo
+	 * that could be carried there, less the cost to sail, per day of travel. If none of them
+	 * makes a profit the cheapest island to sail to is chosen, since reaching the end of the
+	 * game multiplies the players money by the full game length.
+	 * 
+	 * @param gameController - the GameEnvironment running the game.
+	 * @param gameModel - the GameState of the game being played.
+	 * @return destination - the island to sail to, or null if no island can be afforded.
+	 */
+	private Island chooseDestination(GameEnvironment gameController, GameState gameModel)
+	{
+		TravelTable travelTable = gameModel.getShip().getTravelTable(gameModel.getIslandsList());
+		Island currentIsland = gameModel.getCurrentIsland();
+		Island bestIsland = null;
+		double bestProfitPerDay = 0;
+		Island cheapestIsland = null;
+		int cheapestCost = Integer.MAX_VALUE;
+		
+		DistanceMatrix distances = currentIsland.getDistanceMatrix();
+		for (int route = distances.getFirstRoute(currentIsland.getId());
+				route < distances.getFirstRoute(currentIsland.getId() + 1); route++)
+		{
+			Island island = gameModel.getIslandsList().get(distances.getDestination(route));
+			int daysTravel = travelTable.getRouteDaysTravel(route);
+			int costToSail = travelTable.getRouteCostToSail(route);
+			if (costToSail > gameModel.getMoney())
+			{
+				continue;
+			}
+			if (costToSail < cheapestCost)
+			{
+				cheapestCost = costToSail;
+				cheapestIsland = island;
+			}
+			if (daysTravel < gameModel.getDaysRemaining())
+			{
+				int profit = cargoProfit(gameController, gameModel, island, costToSail, false) - costToSail;
+				double profitPerDay = (double) profit / Math.max(daysTravel, 1);
+				if (profitPerDay > bestProfitPerDay)
+				{
+					bestProfitPerDay = profitPerDay;
+					bestIsland = island;
+				}
+			}
+		}
+		return bestIsland != null ? bestIsland : cheapestIsland;
+	}
+	
+	/**
+	 * Buys the most profitable cargo to sell at the destination island.
+	 * 
+	 * @param gameController - the GameEnvironment running the game.
+	 * @param gameModel - the GameState of the game being played.
+	 * @param destination - the island the cargo will be sold at.
+	 */
+	private void buyCargo(GameEnvironment gameController, GameState gameModel, Island destination)
+	{
+		TravelTable travelTable = gameModel.getShip().getTravelTable(gameModel.getIslandsList());
+		int costToSail = travelTable.getCostToSail(gameModel.getCurrentIsland(), destination);
+		cargoProfit(gameController, gameModel, destination, costToSail, true);
+	}
+	
+	/**
+	 * Works out the profit of carrying cargo from the current island to the destination,
+	 * filling the ship with the items of highest profit per kg first.
+	 * <br>
+	 * Buying raises an item's price at the current island and selling lowers it at the
+	 * destination, so only the units that still make a profit are carried.
+	 * 
+	 * @param gameController - the GameEnvironment running the game.
+	 * @param gameModel - the GameState of the game being played.
+	 * @param destination - the island the cargo would be sold at.
+	 * @param costToSail - money that must be kept back to pay for the voyage.
+	 * @param buy - true to buy the cargo, false to only work out the profit.
+	 * @return profit - the money made selling the cargo at the destination less the cost to buy it,
+	 * before the sail cost.
+	 */
+	private int cargoProfit(GameEnvironment gameController, GameState gameModel, Island destination,
+			int costToSail, boolean buy)
+	{
+		Store here = gameModel.getCurrentIsland().getStore();
+		Store there = destination.getStore();
+		int budget = gameModel.getMoney() - costToSail;
+		int capacity = gameModel.getShip().getRemainingCapacity();
+		int profit = 0;
+		
+		int itemCount = gameController.getItemsList().size();
+		boolean[] used = new boolean[itemCount];
+		while (budget > 0 && capacity > 0)
+		{
+			int bestIndex = -1;
+			double bestMarginPerKg = 0;
+			for (int i = 0; i < itemCount; i++)
+			{
+				Item item = gameController.getItemsList().get(i);
+				int margin = there.getPrices().get(item) - here.getPrices().get(item);
+				double marginPerKg = (double) margin / item.getWeight();
+				if (!used[i] && margin > 0 && here.getStock().get(item) > 0 && marginPerKg > bestMarginPerKg)
+				{
+					bestMarginPerKg = marginPerKg;
+					bestIndex = i;
+				}
+			}
+			if (bestIndex < 0)
+			{
+				break;
+			}
+			used[bestIndex] = true;
+			
+			Item item = gameController.getItemsList().get(bestIndex);
+			int quantity = Math.min(here.getStock().get(item),
+					Math.min(here.getAffordable(item, budget), capacity / item.getWeight()));
+			quantity = profitableUnits(here, there, item, quantity);
+			int cost = (int) here.getBuyCost(item, quantity);
+			int value = (int) there.getSaleValue(item, quantity);
+			if (buy && quantity > 0)
+			{
+				gameController.tryBuyItem(item, quantity);
+			}
+			budget -= cost;
+			capacity -= quantity * item.getWeight();
+			profit += value - cost;
+		}
+		return profit;
+	}
+	
+	/**
+	 * Works out how many units of an item are worth carrying, dropping the last units while
+	 * they cost more to buy than they sell for once prices have moved.
+	 * 
+	 * @param here - the store the item is bought at.
+	 * @param there - the store the item is sold at.
+	 * @param item - the item.
+	 * @param most - the most units that could be carried.
+	 * @return units - the units worth carrying.
+	 */
+	private static int profitableUnits(Store here, Store there, Item item, int most)
+	{
+		int units = most;
+		long profit = there.getSaleValue(item, units) - here.getBuyCost(item, units);
+		while (units > 0)
+		{
+			long fewerProfit = there.getSaleValue(item, units - 1) - here.getBuyCost(item, units - 1);
+			if (fewerProfit < profit)
+			{
+				break;
+			}
+			units--;
+			profit = fewerProfit;
+		}
+		return units;
+	}
+}
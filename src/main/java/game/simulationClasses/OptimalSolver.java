@@ -0,0 +1,691 @@
+package game.simulationClasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Supplier;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.controllerClasses.HeadlessGameListener;
+import game.controllerClasses.RandomEvent;
+import game.primaryClasses.Island;
+import game.primaryClasses.Item;
+import game.primaryClasses.Store;
+import game.primaryClasses.Upgrade;
+import game.primaryClasses.WorldTemplate;
+import game.shipClasses.Ship;
+
+/**
+ * Finds the best possible score of an Island Trader Game when its random events are fixed by a seed.
+ * <br>
+ * The solver plays a world with a fixed market, see {@link WorldTemplate#withFixedMarket()}, with
+ * the given {@link Ship} one voyage at a time. At each island the player sells all of their cargo, may buy the store's
+ * {@link Upgrade}, may repair their ship, buys cargo to sell at the next island and sails there,
+ * or ends the game. Since the seed fixes what happens on every voyage the solver knows the outcome
+ * of every sail in advance, including how much money the pirates will demand.
+ * <br>
+ * Every choice is searched depth first with branch and bound. Two things keep the search small: <br>
+ * (1) A port is memoised by its island, day, voyage, upgrades and ship health. Arriving at the
+ * same port with no more money than before can never do better, so it is not searched again. <br>
+ * (2) A port is not searched if even the best trade route in the world, sailed every day until
+ * the end of the game, could not beat the best score found so far.
+ * <br>
+ * The cargo for each voyage is the exact best cargo for the money and capacity available,
+ * found with its own branch and bound. The result is a ceiling for any {@link TradingStrategy}
+ * that trades from island to island in the same way.
+ * <br>
+ * The search takes every item to cost its base price and every store to hold its full stock
+ * on every visit, which is only true when prices never move and stores restock each day. The
+ * solver therefore refuses worlds whose market moves, and a strategy is compared with it by
+ * playing the same fixed market world, such as the default world's
+ * {@code WorldTemplate.getDefault().withFixedMarket()}.
+ *
+ * @see SolverResult
+ * @see RandomEvent#voyageSeeds(long, int)
+ *
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class OptimalSolver
+{
+	private int gameLength;
+	private long[] voyageSeeds;
+
+	private int islandCount;
+	private int itemCount;
+	private String[] islandNames;
+	private String[] itemNames;
+	private int[][] distances;
+	private int[][] prices;
+	private int[][] stock;
+	private int[] weights;
+	private int[] upgradeCosts;
+	private int[] upgradeBuildTimes;
+	private String[] upgradeNames;
+
+	private int startMoney;
+	private int maxHealth;
+	private int[] kmPerDay;
+	private int[] costPerDay;
+	private int[] maxWeight;
+	private int[] repairMultiplier;
+	private boolean[] hasCannons;
+
+	private int[][] orderedItems;
+	private HashMap<Long, int[]> cargoCache = new HashMap<Long, int[]>();
+	private HashMap<Long, Integer> bestMoneyAtPort = new HashMap<Long, Integer>();
+	private double maxGainPerDay;
+
+	private long bestScore = -1;
+	private List<String> bestPlan = new ArrayList<String>();
+	private ArrayList<Step> plan = new ArrayList<Step>();
+	private long portsSearched;
+	private boolean pruned = true;
+
+	private int[] cargo;
+	private int[] bestCargo;
+	private int bestCargoProfit;
+
+	/**
+	 * Creates a solver for a game in the default world with a fixed market, with the given ship,
+	 * length and seed.
+	 *
+	 * @param ship - supplies the {@link Ship} to captain. Called once per combination of upgrades.
+	 * @param gameLength - the length of the game in days.
+	 * @param seed - the seed fixing the random events of the game.
+	 */
+	public OptimalSolver(Supplier<? extends Ship> ship, int gameLength, long seed)
+	{
+		this(ship, gameLength, seed, WorldTemplate.getDefault().withFixedMarket());
+	}
+
+	/**
+	 * Creates a solver for a game with the given ship, length, seed and world.
+	 *
+	 * @param ship - supplies the {@link Ship} to captain. Called once per combination of upgrades.
+	 * @param gameLength - the length of the game in days.
+	 * @param seed - the seed fixing the random events of the game.
+	 * @param world - the world the game is played in, which must have a fixed market.
+	 * @throws IllegalArgumentException if the world's prices move or its stores do not restock each day.
+	 */
+	public OptimalSolver(Supplier<? extends Ship> ship, int gameLength, long seed, WorldTemplate world)
+	{
+		if (!world.hasFixedMarket())
+		{
+			throw new IllegalArgumentException("The solver can only solve worlds with a fixed market");
+		}
+		this.gameLength = gameLength;
+		GameEnvironment gameController = new GameEnvironment(new HeadlessGameListener(), seed, world);
+		GameState gameModel = new GameState(gameController);
+		gameController.setGameState(gameModel);
+		readWorld(gameController, gameModel);
+		readShips(ship);
+		voyageSeeds = RandomEvent.voyageSeeds(seed, gameLength + 1);
+		maxGainPerDay = maxGainPerDay();
+	}
+
+	/**
+	 * Copies the world of the game into arrays indexed by island and item, so the search never
+	 * touches the game objects.
+	 *
+	 * @param gameController - the GameEnvironment that formed the world.
+	 * @param gameModel - the new GameState holding the world.
+	 */
+	private void readWorld(GameEnvironment gameController, GameState gameModel)
+	{
+		ArrayList<Island> islands = gameModel.getIslandsList();
+		ArrayList<Item> items = gameController.getItemsList();
+		islandCount = islands.size();
+		itemCount = items.size();
+		startMoney = gameModel.getMoney();
+
+		islandNames = new String[islandCount];
+		itemNames = new String[itemCount];
+		distances = new int[islandCount][islandCount];
+		prices = new int[islandCount][itemCount];
+		stock = new int[islandCount][itemCount];
+		weights = new int[itemCount];
+		upgradeCosts = new int[islandCount];
+		upgradeBuildTimes = new int[islandCount];
+		upgradeNames = new String[islandCount];
+
+		for (int item = 0; item < itemCount; item++)
+		{
+			itemNames[item] = items.get(item).getName();
+			weights[item] = items.get(item).getWeight();
+		}
+		for (int from = 0; from < islandCount; from++)
+		{
+			Island island = islands.get(from);
+			Store store = island.getStore();
+			islandNames[from] = island.getName();
+			for (int to = 0; to < islandCount; to++)
+			{
+				distances[from][to] = island.getDistanceTo(islands.get(to));
+			}
+			for (int item = 0; item < itemCount; item++)
+			{
+				prices[from][item] = store.getBasePrices().get(items.get(item));
+				stock[from][item] = store.getStock().get(items.get(item));
+			}
+			upgradeCosts[from] = store.getUpgrade().getCost();
+			upgradeBuildTimes[from] = store.getUpgrade().getBuildTime();
+			upgradeNames[from] = store.getUpgrade().getName();
+		}
+
+		cargo = new int[itemCount];
+		bestCargo = new int[itemCount];
+	}
+
+	/**
+	 * Works out the ships statistics for every combination of upgrades by upgrading a new ship
+	 * with {@link Ship#upgradeShip(Upgrade)}. Bit i of a combination is the upgrade sold on island i.
+	 *
+	 * @param ship - supplies the {@link Ship} to captain.
+	 */
+	private void readShips(Supplier<? extends Ship> ship)
+	{
+		int combinations = 1 << islandCount;
+		kmPerDay = new int[combinations];
+		costPerDay = new int[combinations];
+		maxWeight = new int[combinations];
+		repairMultiplier = new int[combinations];
+		hasCannons = new boolean[combinations];
+		for (int upgrades = 0; upgrades < combinations; upgrades++)
+		{
+			Ship upgradedShip = ship.get();
+			for (int island = 0; island < islandCount; island++)
+			{
+				if ((upgrades & (1 << island)) != 0)
+				{
+					upgradedShip.upgradeShip(new Upgrade(upgradeNames[island], 0, 0, "", ""));
+				}
+			}
+			kmPerDay[upgrades] = upgradedShip.getKmPerDay();
+			costPerDay[upgrades] = upgradedShip.getCostPerDay();
+			maxWeight[upgrades] = upgradedShip.getMaxWeight();
+			hasCannons[upgrades] = upgradedShip.getHasCannons();
+			maxHealth = upgradedShip.getMaxHealth();
+			// costToRepair is the multiplier times the damage taken
+			upgradedShip.damageTaken(1);
+			repairMultiplier[upgrades] = upgradedShip.costToRepair();
+		}
+	}
+
+	/**
+	 * Works out the most money that could possibly be gained per day, from the best trade route
+	 * with the fastest and largest ship, plus the most the shipwrecked sailors could pay every
+	 * voyage. Used to bound the search.
+	 *
+	 * @return maxGainPerDay - an upper bound on money gained per day.
+	 */
+	private double maxGainPerDay()
+	{
+		int allUpgrades = (1 << islandCount) - 1;
+		double best = 0;
+		int minDays = Integer.MAX_VALUE;
+		for (int from = 0; from < islandCount; from++)
+		{
+			for (int to = 0; to < islandCount; to++)
+			{
+				if (from == to)
+				{
+					continue;
+				}
+				int days = Math.max(1, fastestDays(from, to));
+				minDays = Math.min(minDays, days);
+				int[] routeCargo = cargoFor(from, to, maxWeight[allUpgrades], Integer.MAX_VALUE);
+				best = Math.max(best, (double) routeCargo[0] / days);
+			}
+		}
+		// randomMoney is at most 599
+		return best + 599.0 / Math.max(1, minDays);
+	}
+
+	/**
+	 * Gets the fewest days a voyage between two islands can take with any upgrades.
+	 */
+	private int fastestDays(int from, int to)
+	{
+		int fewest = Integer.MAX_VALUE;
+		for (int upgrades = 0; upgrades < kmPerDay.length; upgrades++)
+		{
+			fewest = Math.min(fewest, distances[from][to] / kmPerDay[upgrades]);
+		}
+		return fewest;
+	}
+
+	/**
+	 * Solves the game.
+	 *
+	 * @return result - the best score, the plan that achieves it and how many ports were searched.
+	 */
+	public SolverResult solve()
+	{
+		long start = System.nanoTime();
+		explore(0, 0, 0, 0, maxHealth, startMoney);
+		return new SolverResult(bestScore, bestPlan, portsSearched, System.nanoTime() - start);
+	}
+
+	/**
+	 * Solves the game without memoising ports or bounding the search, so every choice is searched.
+	 * This takes time exponential in the number of voyages and is only used to check
+	 * {@link #solve()} on short games.
+	 *
+	 * @return result - the best score, the plan that achieves it and how many ports were searched.
+	 */
+	SolverResult solveExhaustively()
+	{
+		pruned = false;
+		try
+		{
+			return solve();
+		}
+		finally
+		{
+			pruned = true;
+		}
+	}
+
+	/**
+	 * Searches every choice the player can make at a port, having sold all of their cargo.
+	 *
+	 * @param island - the island the ship is at.
+	 * @param day - the current day.
+	 * @param voyage - the number of voyages that have had random events.
+	 * @param upgrades - the upgrades bought, bit i being the upgrade sold on island i.
+	 * @param health - the ships current health.
+	 * @param money - the players money.
+	 */
+	private void explore(int island, int day, int voyage, int upgrades, int health, int money)
+	{
+		portsSearched++;
+		finish(money, day, new Step(Step.END, island, 0, null));
+
+		if (voyage >= voyageSeeds.length)
+		{
+			return;
+		}
+		if (pruned)
+		{
+			if ((money + (gameLength - day) * maxGainPerDay) * gameLength <= bestScore)
+			{
+				return;
+			}
+			long port = (((((long) island * (gameLength + 1) + day) * voyageSeeds.length + voyage)
+					* kmPerDay.length + upgrades) << 16) | health;
+			Integer bestMoney = bestMoneyAtPort.get(port);
+			if (bestMoney != null && bestMoney >= money)
+			{
+				return;
+			}
+			bestMoneyAtPort.put(port, money);
+		}
+
+		int islandBit = 1 << island;
+		boolean canUpgrade = (upgrades & islandBit) == 0 && upgradeCosts[island] <= money;
+		for (int upgrade = 0; upgrade <= (canUpgrade ? 1 : 0); upgrade++)
+		{
+			int upgradedMoney = money;
+			int upgradedDay = day;
+			int upgraded = upgrades;
+			if (upgrade == 1)
+			{
+				upgradedMoney -= upgradeCosts[island];
+				upgradedDay += upgradeBuildTimes[island];
+				upgraded |= islandBit;
+				plan.add(new Step(Step.UPGRADE, island, upgradeCosts[island], null));
+				if (upgradedDay >= gameLength)
+				{
+					finish(upgradedMoney, gameLength, new Step(Step.BUILD_END, island, 0, null));
+					plan.remove(plan.size() - 1);
+					continue;
+				}
+			}
+
+			int repairCost = repairMultiplier[upgraded] * (maxHealth - health);
+			boolean canRepair = repairCost > 0 && repairCost <= upgradedMoney;
+			for (int repair = 0; repair <= (canRepair ? 1 : 0); repair++)
+			{
+				int repairedMoney = upgradedMoney - repair * repairCost;
+				int repairedHealth = repair == 1 ? maxHealth : health;
+				if (repair == 1)
+				{
+					plan.add(new Step(Step.REPAIR, island, repairCost, null));
+				}
+				for (int destination = 0; destination < islandCount; destination++)
+				{
+					if (destination != island)
+					{
+						sail(island, destination, upgradedDay, voyage, upgraded, repairedHealth, repairedMoney);
+					}
+				}
+				if (repair == 1)
+				{
+					plan.remove(plan.size() - 1);
+				}
+			}
+			if (upgrade == 1)
+			{
+				plan.remove(plan.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Searches a voyage from one island to another, buying the best cargo the voyage's random
+	 * event allows.
+	 */
+	private void sail(int from, int to, int day, int voyage, int upgrades, int health, int money)
+	{
+		int daysTravel = distances[from][to] / kmPerDay[upgrades];
+		int costToSail = daysTravel * costPerDay[upgrades];
+		if (costToSail > money)
+		{
+			return;
+		}
+		int arrivalDay = day + daysTravel;
+		if (arrivalDay >= gameLength)
+		{
+			finish(money - costToSail, gameLength, new Step(Step.SAIL_END, to, costToSail, null));
+			return;
+		}
+
+		int budget = money - costToSail;
+		int moneyGained = 0;
+		int healthAfter = health;
+		boolean gameOver = false;
+		Step eventStep = null;
+
+		RandomEvent random = RandomEvent.forVoyage(voyageSeeds[voyage]);
+		switch (random.rollEvent())
+		{
+		case RandomEvent.PIRATES:
+			int playersRoll = random.diceRoll() + (hasCannons[upgrades] ? 2 : 0);
+			int piratesRoll = random.diceRoll();
+			if (piratesRoll > playersRoll)
+			{
+				int moneyTaken = random.randomMoney();
+				if (moneyTaken > budget)
+				{
+					// Walking the plank leaves no money, so no cargo is worth buying
+					finish(0, arrivalDay, new Step(Step.PLANK, to, costToSail, null));
+					return;
+				}
+				// Keep back enough money to pay the pirates
+				budget -= moneyTaken;
+				moneyGained = -moneyTaken;
+				eventStep = new Step(Step.PIRATES, to, moneyTaken, null);
+			}
+			break;
+		case RandomEvent.SHIPWRECKED_SAILORS:
+			moneyGained = random.randomMoney();
+			eventStep = new Step(Step.SAILORS, to, moneyGained, null);
+			break;
+		case RandomEvent.BAD_WEATHER:
+			int damageTaken = random.takeDamage();
+			if (damageTaken >= health)
+			{
+				gameOver = true;
+			}
+			else
+			{
+				healthAfter -= damageTaken;
+				eventStep = new Step(Step.WEATHER, to, damageTaken, null);
+			}
+			break;
+		default:
+			break;
+		}
+		if (gameOver)
+		{
+			// Sinking loses the cargo, so none is bought
+			finish(money - costToSail, arrivalDay, new Step(Step.SINK, to, costToSail, null));
+			return;
+		}
+
+		int[] voyageCargo = cargoFor(from, to, maxWeight[upgrades], budget);
+		int profit = voyageCargo[0];
+		plan.add(new Step(Step.SAIL, to, costToSail, voyageCargo));
+		if (eventStep != null)
+		{
+			plan.add(eventStep);
+		}
+		int arrivalMoney = money - costToSail + moneyGained + profit;
+		explore(to, arrivalDay, voyage + 1, upgrades, healthAfter, arrivalMoney);
+		if (eventStep != null)
+		{
+			plan.remove(plan.size() - 1);
+		}
+		plan.remove(plan.size() - 1);
+	}
+
+	/**
+	 * Records the final score of a game if it beats the best found so far.
+	 */
+	private void finish(int money, int day, Step lastStep)
+	{
+		long score = (long) money * day;
+		if (score > bestScore)
+		{
+			bestScore = score;
+			bestPlan = new ArrayList<String>();
+			for (Step step : plan)
+			{
+				bestPlan.add(step.describe());
+			}
+			bestPlan.add(lastStep.describe());
+		}
+	}
+
+	/**
+	 * Finds the cargo with the most profit to carry from one island to another, within the ships
+	 * capacity, the stores stock and the money available.
+	 * <br>
+	 * The result for the ships full capacity and unlimited money is cached per route and capacity,
+	 * and used whenever it can be afforded. Otherwise the cargo is found with a branch and bound
+	 * over the items, best profit per kg first, bounded by filling the rest of the hold by weight.
+	 *
+	 * @return cargo - the profit at index 0 followed by the quantity of each item.
+	 */
+	private int[] cargoFor(int from, int to, int capacity, int budget)
+	{
+		long key = ((long) from * islandCount + to) << 32 | capacity;
+		int[] cached = cargoCache.get(key);
+		if (cached == null)
+		{
+			cached = searchCargo(from, to, capacity, Integer.MAX_VALUE);
+			cargoCache.put(key, cached);
+		}
+		if (cargoCost(from, cached) <= budget)
+		{
+			return cached;
+		}
+		return searchCargo(from, to, capacity, budget);
+	}
+
+	private int cargoCost(int from, int[] result)
+	{
+		int cost = 0;
+		for (int item = 0; item < itemCount; item++)
+		{
+			cost += result[item + 1] * prices[from][item];
+		}
+		return cost;
+	}
+
+	private int[] searchCargo(int from, int to, int capacity, int budget)
+	{
+		int[] order = orderedItems(from, to);
+		bestCargoProfit = 0;
+		Arrays.fill(bestCargo, 0);
+		Arrays.fill(cargo, 0);
+		searchCargo(from, to, order, 0, capacity, budget, 0);
+		int[] result = new int[itemCount + 1];
+		result[0] = bestCargoProfit;
+		System.arraycopy(bestCargo, 0, result, 1, itemCount);
+		return result;
+	}
+
+	private void searchCargo(int from, int to, int[] order, int index, int capacity, int budget, int profit)
+	{
+		if (profit > bestCargoProfit)
+		{
+			bestCargoProfit = profit;
+			System.arraycopy(cargo, 0, bestCargo, 0, itemCount);
+		}
+		if (index == order.length || profit + cargoBound(from, to, order, index, capacity) <= bestCargoProfit)
+		{
+			return;
+		}
+		int item = order[index];
+		int price = prices[from][item];
+		int margin = prices[to][item] - price;
+		int most = Math.min(stock[from][item], Math.min(capacity / weights[item], budget / price));
+		for (int quantity = most; quantity >= 0; quantity--)
+		{
+			cargo[item] = quantity;
+			searchCargo(from, to, order, index + 1, capacity - quantity * weights[item],
+					budget - quantity * price, profit + quantity * margin);
+		}
+		cargo[item] = 0;
+	}
+
+	/**
+	 * Bounds the profit of the remaining items by filling the hold best profit per kg first,
+	 * allowing part of an item, ignoring the money available.
+	 */
+	private double cargoBound(int from, int to, int[] order, int index, int capacity)
+	{
+		double bound = 0;
+		for (int i = index; i < order.length && capacity > 0; i++)
+		{
+			int item = order[i];
+			int margin = prices[to][item] - prices[from][item];
+			int quantity = Math.min(stock[from][item], capacity / weights[item]);
+			bound += quantity * margin;
+			capacity -= quantity * weights[item];
+			if (quantity < stock[from][item])
+			{
+				bound += (double) margin * capacity / weights[item];
+				break;
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * Gets the items worth carrying between two islands, best profit per kg first.
+	 */
+	private int[] orderedItems(int from, int to)
+	{
+		if (orderedItems == null)
+		{
+			orderedItems = new int[islandCount * islandCount][];
+		}
+		int route = from * islandCount + to;
+		if (orderedItems[route] == null)
+		{
+			ArrayList<Integer> worthCarrying = new ArrayList<Integer>();
+			for (int item = 0; item < itemCount; item++)
+			{
+				if (prices[to][item] > prices[from][item] && stock[from][item] > 0)
+				{
+					worthCarrying.add(item);
+				}
+			}
+			worthCarrying.sort((a, b) -> Double.compare(
+					(double) (prices[to][b] - prices[from][b]) / weights[b],
+					(double) (prices[to][a] - prices[from][a]) / weights[a]));
+			orderedItems[route] = worthCarrying.stream().mapToInt(Integer::intValue).toArray();
+		}
+		return orderedItems[route];
+	}
+
+	/**
+	 * Solves a game for every ship from the command line and prints each result.
+	 * 
+	 * @param args - the game length (default 50) and the seed (default 0).
+	 */
+	public static void main(String[] args)
+	{
+		int gameLength = args.length > 0 ? Integer.parseInt(args[0]) : BatchSimulator.MAX_GAME_LENGTH;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+		for (Supplier<Ship> ship : BatchSimulator.SHIPS)
+		{
+			System.out.println(ship.get().getName());
+			System.out.println(new OptimalSolver(ship, gameLength, seed).solve());
+		}
+	}
+
+	/**
+	 * One step of a plan, only described in words when it becomes part of the best plan.
+	 */
+	private class Step
+	{
+		static final int END = 0;
+		static final int UPGRADE = 1;
+		static final int BUILD_END = 2;
+		static final int REPAIR = 3;
+		static final int SAIL = 4;
+		static final int SAIL_END = 5;
+		static final int PLANK = 6;
+		static final int SINK = 7;
+		static final int PIRATES = 8;
+		static final int SAILORS = 9;
+		static final int WEATHER = 10;
+
+		private int kind;
+		private int island;
+		private int amount;
+		private int[] voyageCargo;
+
+		Step(int kind, int island, int amount, int[] voyageCargo)
+		{
+			this.kind = kind;
+			this.island = island;
+			this.amount = amount;
+			this.voyageCargo = voyageCargo;
+		}
+
+		String describe()
+		{
+			switch (kind)
+			{
+			case END:
+				return "End the game at " + islandNames[island];
+			case UPGRADE:
+				return "Buy " + upgradeNames[island] + " for $" + amount;
+			case BUILD_END:
+				return "The game ends while building " + upgradeNames[island];
+			case REPAIR:
+				return "Repair the ship for $" + amount;
+			case SAIL:
+				StringBuilder description = new StringBuilder();
+				for (int item = 0; item < itemCount; item++)
+				{
+					if (voyageCargo[item + 1] > 0)
+					{
+						description.append("Buy ").append(voyageCargo[item + 1]).append(' ')
+								.append(itemNames[item]).append(", ");
+					}
+				}
+				return description + "Sail to " + islandNames[island] + " for $" + amount;
+			case SAIL_END:
+				return "Sail to " + islandNames[island] + " for $" + amount + ", ending the game";
+			case PLANK:
+				return "Sail to " + islandNames[island] + " for $" + amount + " and walk the plank";
+			case SINK:
+				return "Sail to " + islandNames[island] + " for $" + amount + " and sink";
+			case PIRATES:
+				return "Pay the pirates $" + amount;
+			case SAILORS:
+				return "Rescue shipwrecked sailors for $" + amount;
+			default:
+				return "Take " + amount + " damage in bad weather";
+			}
+		}
+	}
+}
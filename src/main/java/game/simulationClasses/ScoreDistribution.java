@@ -0,0 +1,145 @@
+package game.simulationClasses;
+
+import java.util.Arrays;
+
+/**
+ * A summary of the distribution of final scores over a batch of simulated games.
+ * <br>
+ * Holds the number of games, the mean score and the minimum, 10th, 50th and 90th
+ * percentile and maximum scores.
+ * 
+ * @see BatchSimulator
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class ScoreDistribution 
+{
+	private String label;
+	private int games;
+	private double mean;
+	private int min;
+	private int p10;
+	private int median;
+	private int p90;
+	private int max;
+	
+	/**
+	 * Creates the distribution of the given scores. The scores array is sorted in place.
+	 * 
+	 * @param label - what the scores are for, such as the name of a ship.
+	 * @param scores - the final scores of each game.
+	 */
+	public ScoreDistribution(String label, int[] scores)
+	{
+		this.label = label;
+		games = scores.length;
+		if (games == 0)
+		{
+			return;
+		}
+		Arrays.sort(scores);
+		long total = 0;
+		for (int score : scores)
+		{
+			total += score;
+		}
+		mean = (double) total / games;
+		min = scores[0];
+		p10 = scores[(games - 1) / 10];
+		median = scores[(games - 1) / 2];
+		p90 = scores[(games - 1) * 9 / 10];
+		max = scores[games - 1];
+	}
+	
+	/**
+	 * Gets the label of this distribution.
+	 * 
+	 * @return label - what these scores are for.
+	 */
+	public String getLabel()
+	{
+		return label;
+	}
+	
+	/**
+	 * Gets the number of games in this distribution.
+	 * 
+	 * @return games - the number of games.
+	 */
+	public int getGames()
+	{
+		return games;
+	}
+	
+	/**
+	 * Gets the mean score.
+	 * 
+	 * @return mean - the mean final score.
+	 */
+	public double getMean()
+	{
+		return mean;
+	}
+	
+	/**
+	 * Gets the lowest score.
+	 * 
+	 * @return min - the lowest final score.
+	 */
+	public int getMin()
+	{
+		return min;
+	}
+	
+	/**
+	 * Gets the 10th percentile score.
+	 * 
+	 * @return p10 - the 10th percentile final score.
+	 */
+	public int getP10()
+	{
+		return p10;
+	}
+	
+	/**
+	 * Gets the median score.
+	 * 
+	 * @return median - the median final score.
+	 */
+	public int getMedian()
+	{
+		return median;
+	}
+	
+	/**
+	 * Gets the 90th percentile score.
+	 * 
+	 * @return p90 - the 90th percentile final score.
+	 */
+	public int getP90()
+	{
+		return p90;
+	}
+	
+	/**
+	 * Gets the highest score.
+	 * 
+	 * @return max - the highest final score.
+	 */
+	public int getMax()
+	{
+		return max;
+	}
+	
+	/**
+	 * Creates a one line string representation of this distribution.
+	 * 
+	 * @return the label followed by each statistic.
+	 */
+	public String toString()
+	{
+		return String.format("%-20s games=%-8d mean=%-10.1f min=%-8d p10=%-8d median=%-8d p90=%-8d max=%d",
+				label, games, mean, min, p10, median, p90, max);
+	}
+}
@@ -0,0 +1,96 @@
+package game.simulationClasses;
+
+import java.util.List;
+
+/**
+ * The result of solving a game with the {@link OptimalSolver}.
+ * <br>
+ * Holds the best final score, the plan of actions that achieves it and how much work
+ * the solver did to find it.
+ * 
+ * @see OptimalSolver
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public class SolverResult 
+{
+	private long score;
+	private List<String> plan;
+	private long portsSearched;
+	private long elapsedNanos;
+	
+	/**
+	 * Creates a SolverResult.
+	 * 
+	 * @param score - the best final score.
+	 * @param plan - the actions achieving the best score, in order.
+	 * @param portsSearched - the number of ports the solver searched.
+	 * @param elapsedNanos - the time the solver took in nanoseconds.
+	 */
+	public SolverResult(long score, List<String> plan, long portsSearched, long elapsedNanos)
+	{
+		this.score = score;
+		this.plan = plan;
+		this.portsSearched = portsSearched;
+		this.elapsedNanos = elapsedNanos;
+	}
+	
+	/**
+	 * Gets the best final score.
+	 * 
+	 * @return score - the best score possible for the game.
+	 */
+	public long getScore()
+	{
+		return score;
+	}
+	
+	/**
+	 * Gets the plan achieving the best score.
+	 * 
+	 * @return plan - each action of the best game, in order.
+	 */
+	public List<String> getPlan()
+	{
+		return plan;
+	}
+	
+	/**
+	 * Gets the number of ports the solver searched.
+	 * 
+	 * @return portsSearched - the number of ports searched.
+	 */
+	public long getPortsSearched()
+	{
+		return portsSearched;
+	}
+	
+	/**
+	 * Gets the time the solver took.
+	 * 
+	 * @return elapsedNanos - the time taken in nanoseconds.
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+	
+	/**
+	 * Creates a string representation of this result, with the score, the work done and
+	 * the plan one action per line.
+	 * 
+	 * @return the result as a string.
+	 */
+	public String toString()
+	{
+		StringBuilder result = new StringBuilder();
+		result.append(String.format("Score: %d (%d ports searched in %.2fs)%n", score, portsSearched, 
+				elapsedNanos / 1e9));
+		for (String step : plan)
+		{
+			result.append(step).append(System.lineSeparator());
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,29 @@
+package game.simulationClasses;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+
+/**
+ * The TradingStrategy interface for playing the Island Trader Game without a player.
+ * <br>
+ * A TradingStrategy plays one turn at a time: it trades at the island the ship is at and
+ * then sails to another island through the {@link GameEnvironment}, the same way a player
+ * would through the GUI.
+ * 
+ * @see GreedyTrader
+ * @see GameSimulation
+ * 
+ * @author Sam Clark
+ * @author Wil Johnston
+ */
+public interface TradingStrategy 
+{
+	/**
+	 * Plays a single turn of the game, ending with a sail if the strategy wants to continue.
+	 * 
+	 * @param gameController - the GameEnvironment running the game.
+	 * @param gameModel - the GameState of the game being played.
+	 * @return boolean - true if the turn ended with a sail, false if the strategy wants to end the game.
+	 */
+	boolean playTurn(GameEnvironment gameController, GameState gameModel);
+}
@@ -1,13 +1,24 @@
 package game;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import game.serverClasses.GameServerController;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class IslandTraderGameApplicationTests {
 
+    @Autowired
+    private GameServerController controller;
+
     @Test
     void contextLoads() {
+        assertNotNull(controller);
     }
 
 }
@@ -0,0 +1,412 @@
+package game.controllerClasses;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import game.exceptions.ItemSaleException;
+import game.exceptions.SailIssueException;
+import game.primaryClasses.Island;
+import game.primaryClasses.Item;
+import game.primaryClasses.Market;
+import game.primaryClasses.Store;
+import game.primaryClasses.WorldGenerator;
+import game.primaryClasses.WorldTemplate;
+import game.shipClasses.Ship;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+class GameEnvironmentTests {
+
+    private HeadlessGameListener listener;
+    private GameEnvironment gameController;
+    private GameState gameModel;
+
+    @BeforeEach
+    void setUp() {
+        listener = new HeadlessGameListener();
+        gameController = new GameEnvironment(listener);
+        gameModel = new GameState(gameController);
+        gameController.setGameState(gameModel);
+        gameModel.setPlayerInfo("Tester", 20, new WhitePearl());
+        gameController.setViewedIsland(gameModel.getCurrentIsland());
+    }
+
+    @Test
+    void buyAndSellWithoutGui() throws ItemSaleException {
+        Item wood = gameController.getItemsList().get(0);
+        gameController.buyItem(wood);
+        assertEquals(1, gameModel.getInventory().get(wood));
+        assertEquals(990, gameModel.getMoney());
+
+        gameController.sellItem(wood);
+        assertEquals(0, gameModel.getInventory().get(wood));
+        assertEquals(1000, gameModel.getMoney());
+    }
+
+    @Test
+    void bulkBuyIsLimitedByStock() throws ItemSaleException {
+        Item wood = gameController.getItemsList().get(0);
+        int stock = gameModel.getCurrentIsland().getStore().getStock().get(wood);
+        assertEquals(stock, gameController.buyItem(wood, 100));
+        assertEquals(stock, gameModel.getInventory().get(wood));
+        assertEquals(stock * wood.getWeight(), gameModel.getShip().getCurrentWeight());
+        assertThrows(ItemSaleException.class, () -> gameController.buyItem(wood, 1));
+
+        assertEquals(stock, gameController.sellItem(wood, 100));
+        assertEquals(1000, gameModel.getMoney());
+    }
+
+    @Test
+    void buyMarksOnlyItsItemAsChanged() throws ItemSaleException {
+        Item wood = gameController.getItemsList().get(1);
+        GameChanges changes = gameModel.getChanges();
+        assertTrue(changes.has(GameChanges.PLAYER));
+        changes.clear();
+
+        gameController.buyItem(wood, 2);
+        gameController.buyItem(wood, 1);
+        assertTrue(changes.has(GameChanges.MONEY));
+        assertTrue(changes.has(GameChanges.CARGO));
+        assertFalse(changes.has(GameChanges.ISLAND | GameChanges.MARKET | GameChanges.DAY | GameChanges.SHIP));
+        assertEquals(1, changes.getItemCount());
+        assertEquals(wood.getId(), changes.getItemId(0));
+
+        changes.clear();
+        assertFalse(changes.has(GameChanges.ALL));
+        assertEquals(0, changes.getItemCount());
+    }
+
+    @Test
+    void pricesMoveWithTradesAndDriftBack() throws ItemSaleException {
+        Item wood = gameController.getItemsList().get(0);
+        Store store = gameModel.getCurrentIsland().getStore();
+        int basePrice = store.getPrices().get(wood);
+        int stock = store.getStock().get(wood);
+
+        long cost = store.getBuyCost(wood, stock);
+        assertTrue(cost > (long) basePrice * stock);
+        gameController.buyItem(wood, stock);
+        assertEquals(1000 - cost, gameModel.getMoney());
+        assertTrue(store.getPrices().get(wood) > basePrice);
+        GameSnapshot bought = gameModel.snapshot();
+
+        gameController.getMarket().tick(30);
+        assertEquals(basePrice, store.getPrices().get(wood));
+        assertEquals(stock, store.getStock().get(wood));
+        gameModel.restore(bought);
+        assertTrue(store.getPrices().get(wood) > basePrice);
+        assertEquals(0, store.getStock().get(wood));
+
+        gameController.sellItem(wood, stock);
+        assertEquals(1000, gameModel.getMoney());
+        assertEquals(basePrice, store.getPrices().get(wood));
+    }
+
+    @Test
+    void marketTicksEveryStoreEachDay() {
+        WorldTemplate world = new WorldGenerator(7L, 2000, 40, 3).generate();
+        Market market = world.createMarket();
+        List<Island> islands = world.createIslands(market);
+        Item item = world.getItems().get(0);
+        Store first = islands.get(0).getStore();
+        Store last = islands.get(islands.size() - 1).getStore();
+        int firstFull = first.getStock().get(item);
+        int lastFull = last.getStock().get(item);
+        int basePrice = last.getBasePrices().get(item);
+        first.incrementStock(item, 100);
+        last.incrementStock(item, 100);
+
+        market.tick(1);
+        int surplus = (int) (100 * (1 - world.getConsumption()));
+        assertEquals(firstFull + surplus, first.getStock().get(item));
+        assertEquals(lastFull + surplus, last.getStock().get(item));
+        int pressure = world.getPriceCurve().drift(-100, 1);
+        assertEquals(world.getPriceCurve().price(basePrice, pressure), last.getPrices().get(item));
+
+        last.decrementStock(item, lastFull + surplus);
+        market.tick(1);
+        assertEquals(lastFull - (int) (lastFull * (1 - world.getProduction())), last.getStock().get(item));
+    }
+
+    @Test
+    void actionsAreReportedToMetrics() {
+        Item wood = gameController.getItemsList().get(0);
+        List<String> reported = new ArrayList<>();
+        gameController.setMetrics(new GameMetrics() {
+            @Override
+            public void bought(Item item, ActionResult result, int units, int money, long nanos) {
+                reported.add("bought " + units + " for " + money);
+            }
+
+            @Override
+            public void sold(Item item, ActionResult result, int units, int money, long nanos) {
+                reported.add("sold " + result);
+            }
+
+            @Override
+            public void sailed(ActionResult result, int daysTravel, int costToSail, long nanos) {
+                reported.add("sailed " + result);
+            }
+
+            @Override
+            public void randomEvent(int event) {
+                reported.add("event");
+            }
+        });
+
+        long cost = gameModel.getCurrentIsland().getStore().getBuyCost(wood, 2);
+        gameController.tryBuyItem(wood, 2);
+        gameController.trySellItem(gameController.getItemsList().get(1), 1);
+        gameController.setViewedIsland(gameModel.getIslandsList().get(1));
+        gameController.trySail();
+        assertEquals(List.of("bought 2 for " + cost, "sold NOTHING_TO_SELL", "event", "sailed SUCCESS"), reported);
+    }
+
+    @Test
+    void tryMethodsReturnResultsInsteadOfThrowing() {
+        Item wood = gameController.getItemsList().get(0);
+        assertEquals(ActionResult.NOTHING_TO_SELL, gameController.trySellItem(wood, 1));
+        assertEquals(0, gameController.getLastTradeQuantity());
+        assertEquals("You do not have any Wood to sell",
+                ActionResult.NOTHING_TO_SELL.getMessage(wood.getName()));
+
+        assertEquals(ActionResult.SUCCESS, gameController.tryBuyItem(wood, 2));
+        assertEquals(2, gameController.getLastTradeQuantity());
+        assertEquals(ActionResult.ALREADY_AT_ISLAND, gameController.trySail());
+        assertEquals(ActionResult.ALREADY_REPAIRED, gameController.tryRepairShip());
+    }
+
+    @Test
+    void restoreReplaysTheSameGame() throws ItemSaleException, SailIssueException {
+        Item wood = gameController.getItemsList().get(0);
+        int stock = gameModel.getCurrentIsland().getStore().getStock().get(wood);
+        GameSnapshot start = gameModel.snapshot();
+
+        int[] money = new int[2];
+        for (int attempt = 0; attempt < 2; attempt++) {
+            gameController.buyItem(wood, 5);
+            gameController.setViewedIsland(gameModel.getIslandsList().get(2));
+            gameController.sail();
+            money[attempt] = gameModel.getMoney();
+
+            gameModel.restore(start);
+            assertEquals(1000, gameModel.getMoney());
+            assertEquals(0, gameModel.getCurrentDay());
+            assertEquals(0, gameModel.getInventory().get(wood));
+            assertEquals(0, gameModel.getShip().getCurrentWeight());
+            assertEquals(stock, gameModel.getCurrentIsland().getStore().getStock().get(wood));
+        }
+        assertEquals(money[0], money[1]);
+    }
+
+    @Test
+    void snapshotsOfLargeWorldsOnlyHoldTradedItems() throws ItemSaleException {
+        WorldTemplate world = new WorldGenerator(9L, 2000, 50, 3).generate();
+        GameSimulation game = new GameSimulation(WhitePearl::new, 50, 1L, world);
+        GameState largeModel = game.getGameModel();
+        Store store = largeModel.getCurrentIsland().getStore();
+        Item stocked = null;
+        for (Item item : game.getGameController().getItemsList()) {
+            if (store.getStock().get(item) > 1) {
+                stocked = item;
+                break;
+            }
+        }
+        game.getGameController().buyItem(stocked, 1);
+        int stock = store.getStock().get(stocked);
+        int price = store.getPrices().get(stocked);
+        GameSnapshot bought = largeModel.snapshot();
+        assertTrue(bought.encodedSize() < 1000, "snapshot of " + bought.encodedSize() + " bytes");
+
+        game.getGameController().buyItem(stocked, 1);
+        largeModel.restore(bought);
+        assertEquals(stock, store.getStock().get(stocked));
+        assertEquals(price, store.getPrices().get(stocked));
+        assertEquals(1, largeModel.getInventory().get(stocked));
+    }
+
+    @Test
+    void savedGamesLoadFromOneFile(@TempDir Path directory) throws IOException, ItemSaleException {
+        Path saves = directory.resolve("games.sav");
+        Item wood = gameController.getItemsList().get(0);
+        gameController.buyItem(wood, 3);
+        assertEquals(0, SaveFile.append(saves, gameController));
+        gameController.buyItem(wood, 2);
+        assertEquals(1, SaveFile.append(saves, gameController));
+
+        SaveFile saveFile = SaveFile.open(saves);
+        assertEquals(2, saveFile.size());
+        GameState loaded = saveFile.load(0, new HeadlessGameListener()).getGameState();
+        assertEquals("Tester", loaded.getPlayerName());
+        assertEquals(gameModel.getShip().getName(), loaded.getShip().getName());
+        assertEquals(3, loaded.getInventory().get(wood.getId()));
+        assertEquals(5, saveFile.load(1, new HeadlessGameListener()).getGameState().getInventory().get(wood.getId()));
+    }
+
+    @Test
+    void journalReplayRebuildsTheGame(@TempDir Path directory) throws IOException, ItemSaleException,
+            SailIssueException {
+        Path journalFile = directory.resolve("game.journal");
+        ActionJournal journal = ActionJournal.start(journalFile, gameController);
+        Item wood = gameController.getItemsList().get(0);
+        gameController.buyItem(wood, 4);
+        gameController.setViewedIsland(gameModel.getIslandsList().get(2));
+        gameController.sail();
+        if (listener.isPiratesPending()) {
+            listener.resolvePirates(gameController);
+        }
+        journal.close();
+
+        GameState replayed = ActionJournal.replay(journalFile, new HeadlessGameListener()).getGameState();
+        assertEquals(gameModel.getMoney(), replayed.getMoney());
+        assertEquals(gameModel.getCurrentDay(), replayed.getCurrentDay());
+        assertEquals(gameModel.getCurrentIsland().getId(), replayed.getCurrentIsland().getId());
+        assertEquals(4, replayed.getInventory().get(wood.getId()));
+    }
+
+    @Test
+    void gamesOnlyLoadIntoTheWorldTheyWerePlayedIn(@TempDir Path directory) throws IOException {
+        WorldTemplate world = new WorldGenerator(7L, 200, 30, 3).generate();
+        GameSimulation worldGame = new GameSimulation(WhitePearl::new, 50, 1L, world);
+        GameEnvironment worldController = worldGame.getGameController();
+        GameState worldModel = worldGame.getGameModel();
+        Path saves = directory.resolve("games.sav");
+        Path journalFile = directory.resolve("game.journal");
+        try (ActionJournal journal = ActionJournal.start(journalFile, worldController)) {
+            assertEquals(ActionResult.SUCCESS, worldController.tryBuyItem(worldController.getItemsList().get(0), 2));
+        }
+        SaveFile.append(saves, worldController);
+
+        WorldTemplate sameWorld = new WorldGenerator(7L, 200, 30, 3).generate();
+        assertEquals(world.getFingerprint(), sameWorld.getFingerprint());
+        SaveFile saveFile = SaveFile.open(saves);
+        assertEquals(worldModel.getInventory().get(0),
+                saveFile.load(0, new HeadlessGameListener(), sameWorld).getGameState().getInventory().get(0));
+        assertEquals(worldModel.getMoney(),
+                ActionJournal.replay(journalFile, new HeadlessGameListener(), sameWorld).getGameState().getMoney());
+
+        WorldTemplate otherWorld = new WorldGenerator(8L, 200, 30, 3).generate();
+        for (WorldTemplate wrongWorld : List.of(WorldTemplate.getDefault(), otherWorld)) {
+            IOException error = assertThrows(IOException.class,
+                    () -> saveFile.load(0, new HeadlessGameListener(), wrongWorld));
+            assertTrue(error.getMessage().contains("from a different world"), error.getMessage());
+            error = assertThrows(IOException.class,
+                    () -> ActionJournal.replay(journalFile, new HeadlessGameListener(), wrongWorld));
+            assertTrue(error.getMessage().contains("from a different world"), error.getMessage());
+        }
+        assertThrows(IOException.class, () -> saveFile.load(0, new HeadlessGameListener()));
+    }
+
+    @Test
+    void journalReplayRejectsDiceThatDoNotMatch(@TempDir Path directory) throws IOException, SailIssueException {
+        Path journalFile = directory.resolve("game.journal");
+        boolean pirates = false;
+        for (long seed = 1; seed <= 100 && !pirates; seed++) {
+            HeadlessGameListener seededListener = new HeadlessGameListener();
+            GameEnvironment seededController = new GameEnvironment(seededListener, seed);
+            GameState seededModel = new GameState(seededController);
+            seededController.setGameState(seededModel);
+            seededModel.setPlayerInfo("Tester", 50, new WhitePearl());
+            Files.deleteIfExists(journalFile);
+            try (ActionJournal journal = ActionJournal.start(journalFile, seededController)) {
+                seededController.setViewedIsland(seededModel.getIslandsList().get(1));
+                seededController.sail();
+                pirates = seededListener.isPiratesPending();
+                if (pirates) {
+                    seededListener.resolvePirates(seededController);
+                }
+            }
+        }
+        assertTrue(pirates);
+        assertEquals(ActionJournal.replay(journalFile, new HeadlessGameListener()).getLastPiratesRoll(),
+                ByteBuffer.wrap(Files.readAllBytes(journalFile)).getInt((int) Files.size(journalFile) - 4));
+
+        // The last entry is the pirates event, ending with the players roll and the pirates roll
+        byte[] bytes = Files.readAllBytes(journalFile);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 2 * Integer.BYTES, 7);
+        Files.write(journalFile, bytes);
+        IOException exception = assertThrows(IOException.class,
+                () -> ActionJournal.replay(journalFile, new HeadlessGameListener()));
+        assertTrue(exception.getMessage().contains("does not match the game"));
+    }
+
+    @Test
+    void sailToCurrentIslandIsRejected() {
+        assertThrows(SailIssueException.class, () -> gameController.sail());
+    }
+
+    @Test
+    void sailReportsToListener() throws SailIssueException {
+        Island destination = gameModel.getIslandsList().get(2);
+        gameController.setViewedIsland(destination);
+        gameController.sail();
+        if (listener.isPiratesPending()) {
+            listener.resolvePirates(gameController);
+        }
+        assertEquals(destination, gameModel.getCurrentIsland());
+        assertTrue(gameModel.getCurrentDay() > 0);
+        assertTrue(listener.getUpdates() > 0 || listener.isGameOver());
+    }
+
+    @Test
+    void sameSeedGivesSameRandomEvents() throws SailIssueException {
+        int[][] results = new int[2][];
+        for (int game = 0; game < 2; game++) {
+            HeadlessGameListener seededListener = new HeadlessGameListener();
+            GameEnvironment seededController = new GameEnvironment(seededListener, 1234L);
+            GameState seededModel = new GameState(seededController);
+            seededController.setGameState(seededModel);
+            seededModel.setPlayerInfo("Tester", 50, new WhitePearl());
+            int sailed = 0;
+            for (int voyage = 0; voyage < 6 && !seededListener.isGameOver(); voyage++) {
+                Island destination = affordableDestination(seededModel, voyage);
+                if (destination == null) {
+                    break;
+                }
+                seededController.setViewedIsland(destination);
+                seededController.sail();
+                sailed++;
+                if (seededListener.isPiratesPending()) {
+                    seededListener.resolvePirates(seededController);
+                }
+            }
+            results[game] = new int[] {sailed, seededModel.getMoney(), seededModel.getCurrentDay(),
+                    seededModel.getShip().getCurrentHealth(), seededListener.getPiratesEvents(),
+                    seededListener.getSailorsEvents(), seededListener.getWeatherEvents()};
+        }
+        assertTrue(results[0][0] > 0);
+        assertArrayEquals(results[0], results[1]);
+    }
+
+    /**
+     * Finds an island other than the current one the player can afford to sail to, trying the
+     * islands in turn from one that changes with each voyage.
+     */
+    private static Island affordableDestination(GameState model, int voyage) {
+        List<Island> islands = model.getIslandsList();
+        Ship ship = model.getShip();
+        for (int offset = 0; offset < islands.size(); offset++) {
+            Island island = islands.get((voyage + 1 + offset) % islands.size());
+            Integer distance = model.getCurrentIsland().getDistances().get(island);
+            if (island != model.getCurrentIsland() && distance != null
+                    && distance / ship.getKmPerDay() * ship.getCostPerDay() <= model.getMoney()) {
+                return island;
+            }
+        }
+        return null;
+    }
+}
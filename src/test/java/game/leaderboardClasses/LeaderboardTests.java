@@ -0,0 +1,41 @@
+package game.leaderboardClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import game.controllerClasses.GameState;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+class LeaderboardTests {
+
+    @Test
+    void leaderboardRanksScoresAndKeepsThem(@TempDir Path directory) throws IOException {
+        GameState gameModel = new GameSimulation(WhitePearl::new, 20, 1L).getGameModel();
+        Path leaderboardFile = directory.resolve("leaderboard.dat");
+        try (Leaderboard leaderboard = Leaderboard.open(leaderboardFile)) {
+            leaderboard.record("Alice", "Carol", 20, 5000);
+            leaderboard.record("Bob", "Carol", 30, 9000);
+            leaderboard.record(gameModel);
+            leaderboard.record("Dave", "Carol", 50, 9000);
+        }
+
+        try (Leaderboard leaderboard = Leaderboard.open(leaderboardFile)) {
+            assertEquals(4, leaderboard.size());
+            List<LeaderboardEntry> top = leaderboard.top(3);
+            assertEquals("Bob", top.get(0).playerName());
+            assertEquals("Dave", top.get(1).playerName());
+            assertEquals("Alice", top.get(2).playerName());
+            assertEquals(1, leaderboard.rankOf(9000));
+            assertEquals(3, leaderboard.rankOf(5000));
+            assertEquals(3, leaderboard.rankOf(6000));
+            assertEquals(4, leaderboard.rankOf(gameModel.calculateScore()));
+        }
+    }
+}
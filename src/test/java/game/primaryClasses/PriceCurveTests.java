@@ -0,0 +1,42 @@
+package game.primaryClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PriceCurveTests {
+
+    @Test
+    void unitsAreNeverWorthLessThanOneDollar() {
+        PriceCurve curve = new PriceCurve(0.5, 0.1);
+
+        assertEquals(1, curve.price(10, -100));
+        assertEquals(3, curve.buyCost(10, -100, 3));
+        assertEquals(3, curve.saleValue(10, -97, 3));
+        assertEquals(5, curve.affordable(10, -100, 5));
+        for (int pressure = -12; pressure <= 0; pressure++) {
+            for (int units = 1; units <= 15; units++) {
+                double sum = 0;
+                for (int unit = 0; unit < units; unit++) {
+                    sum += Math.max(1, 10 * Math.pow(1.5, pressure + unit));
+                }
+                assertTrue(Math.abs(sum - curve.buyCost(10, pressure, units)) <= 1,
+                        pressure + " " + units + ": " + sum + " " + curve.buyCost(10, pressure, units));
+                assertEquals(curve.buyCost(10, pressure, units), curve.saleValue(10, pressure + units, units));
+            }
+        }
+    }
+
+    @Test
+    void affordableIsTheMostUnitsTheMoneyBuys() {
+        PriceCurve curve = new PriceCurve(0.05, 0.1);
+        for (int pressure : new int[] {-2000, -100, -40, 0, 30}) {
+            for (int money : new int[] {0, 1, 7, 60, 1000}) {
+                int units = curve.affordable(20, pressure, money);
+                assertTrue(curve.buyCost(20, pressure, units) <= money, pressure + " " + money);
+                assertTrue(curve.buyCost(20, pressure, units + 1) > money, pressure + " " + money);
+            }
+        }
+    }
+}
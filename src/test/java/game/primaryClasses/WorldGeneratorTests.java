@@ -0,0 +1,43 @@
+package game.primaryClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import game.controllerClasses.ActionResult;
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+class WorldGeneratorTests {
+
+    @Test
+    void generatedWorldsOnlySailAlongRoutes() {
+        WorldTemplate world = new WorldGenerator(7L, 200, 30, 3).generate();
+        GameSimulation game = new GameSimulation(WhitePearl::new, 50, 1L, world);
+        GameEnvironment worldController = game.getGameController();
+        GameState worldModel = game.getGameModel();
+
+        Island start = worldModel.getCurrentIsland();
+        DistanceMatrix distances = start.getDistanceMatrix();
+        assertEquals(200, worldModel.getIslandsList().size());
+        assertTrue(distances.getRouteCount() < 200 * 10);
+        Island farIsland = null;
+        for (Island island : worldModel.getIslandsList()) {
+            if (island != start && !start.hasRouteTo(island)) {
+                farIsland = island;
+                break;
+            }
+        }
+        worldController.setViewedIsland(farIsland);
+        assertEquals(ActionResult.NO_ROUTE, worldController.trySail());
+
+        WorldTemplate sameWorld = new WorldGenerator(7L, 200, 30, 3).generate();
+        DistanceMatrix sameSeed = sameWorld.createIslands(sameWorld.createMarket()).get(0).getDistanceMatrix();
+        assertEquals(distances.getRouteCount(), sameSeed.getRouteCount());
+        assertEquals(distances.getDistance(0, distances.getDestination(0)),
+                sameSeed.getDistance(0, sameSeed.getDestination(0)));
+    }
+}
@@ -0,0 +1,67 @@
+package game.primaryClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import game.controllerClasses.GameEnvironment;
+import game.controllerClasses.GameState;
+import game.shipClasses.WhitePearl;
+import game.simulationClasses.GameSimulation;
+
+class WorldTemplateTests {
+
+    @Test
+    void worldFileDefinesTheIslands() throws IOException {
+        String world = String.join("\n",
+                "item|Rum|2|40",
+                "item|Salt|1|10",
+                "island|North Port|Rum|Salt|North Store",
+                "upgrade|North Port|Cannons|700|2|/Cannons.png|More cannons",
+                "price|North Port|Rum|25",
+                "stock|North Port|Rum|6",
+                "island|South Port|Salt|Rum|South Store",
+                "upgrade|South Port|Feast Table|600|3|/FeastTable.png|A feast",
+                "route|North Port|South Port|24");
+        WorldTemplate template = WorldTemplate.parse(new BufferedReader(new StringReader(world)), "test");
+        GameSimulation game = new GameSimulation(WhitePearl::new, 50, 1L, template);
+        GameEnvironment worldController = game.getGameController();
+        GameState worldModel = game.getGameModel();
+
+        Island north = worldModel.getIslandsList().get(0);
+        Item rum = worldController.getItemsList().get(0);
+        assertEquals(2, worldModel.getIslandsList().size());
+        assertEquals(25, north.getStore().getPrices().get(rum));
+        assertEquals(6, north.getStore().getStock().get(rum));
+        assertEquals(24, north.getDistanceTo(worldModel.getIslandsList().get(1)));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> WorldTemplate.parse(
+                new BufferedReader(new StringReader(world.replace("route|North Port|South Port|24", ""))), "test"));
+        assertEquals("test: There is no way to sail between North Port and South Port", error.getMessage());
+        error = assertThrows(IllegalArgumentException.class, () -> WorldTemplate.parse(
+                new BufferedReader(new StringReader(world.replace("Rum|25", "Grog|25"))), "test"));
+        assertEquals("test line 5: Unknown item Grog", error.getMessage());
+    }
+
+    @Test
+    void writtenWorldsLoadBackTheSame(@TempDir Path directory) throws IOException {
+        WorldTemplate generated = new WorldGenerator(3L, 300, 12, 2).generate();
+        Path file = directory.resolve("world.txt");
+        generated.write(file);
+        WorldTemplate loaded = WorldTemplate.load(file);
+
+        assertEquals(generated.getFingerprint(), loaded.getFingerprint());
+        assertEquals(300, loaded.getIslandCount());
+
+        Path defaultFile = directory.resolve("default.txt");
+        WorldTemplate.getDefault().write(defaultFile);
+        assertEquals(WorldTemplate.getDefault().getFingerprint(), WorldTemplate.load(defaultFile).getFingerprint());
+    }
+}
@@ -0,0 +1,178 @@
+package game.serverClasses;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.jayway.jsonpath.JsonPath;
+
+import game.controllerClasses.GameMetrics;
+
+@WebMvcTest(GameServerController.class)
+@ActiveProfiles("test")
+@Import({GameSessionRegistry.class, GameServerControllerTests.Metrics.class})
+class GameServerControllerTests {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        GameMetrics gameMetrics() {
+            return GameMetrics.NONE;
+        }
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private GameSessionRegistry registry;
+
+    @MockBean
+    private ServerLeaderboard leaderboard;
+
+    @Test
+    void createAnswersCreatedWithTheNewGame() throws Exception {
+        mvc.perform(post("/games").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Tester\",\"ship\":\"The White Pearl\",\"days\":20,\"seed\":1}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.playerName").value("Tester"))
+                .andExpect(jsonPath("$.day").value(0))
+                .andExpect(jsonPath("$.islandId").value(0))
+                .andExpect(jsonPath("$.gameOver").value(false));
+    }
+
+    @Test
+    void createRejectsAnUnknownShip() throws Exception {
+        mvc.perform(post("/games").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Tester\",\"ship\":\"No Such Ship\",\"days\":20}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void buyAndSailSucceed() throws Exception {
+        String id = createGame(1L);
+
+        action(id, "buy", "{\"item\":0,\"quantity\":1}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("SUCCESS"))
+                .andExpect(jsonPath("$.message").value(startsWith("Bought 1 ")));
+        action(id, "sail", "{\"island\":1}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("SUCCESS"))
+                .andExpect(jsonPath("$.game.islandId").value(1))
+                .andExpect(jsonPath("$.game.piratesPending").value(false));
+        mvc.perform(get("/games/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.islandId").value(1));
+    }
+
+    @Test
+    void rejectedActionsAnswerConflictWithTheReason() throws Exception {
+        String id = createGame(1L);
+
+        action(id, "sell", "{\"item\":1,\"quantity\":1}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("NOTHING_TO_SELL"));
+        action(id, "repair", null)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("ALREADY_REPAIRED"));
+        action(id, "sail", "{\"island\":0}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("ALREADY_AT_ISLAND"));
+    }
+
+    @Test
+    void piratesMustBeDealtWithBeforeAnythingElse() throws Exception {
+        String id = null;
+        for (long seed = 1; id == null; seed++) {
+            String candidate = createGame(seed);
+            String body = action(candidate, "sail", "{\"island\":1}")
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            if (JsonPath.<Boolean>read(body, "$.game.piratesPending")) {
+                id = candidate;
+            }
+        }
+
+        action(id, "buy", "{\"item\":0,\"quantity\":1}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("PIRATES_PENDING"));
+        action(id, "pirates", null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("SUCCESS"))
+                .andExpect(jsonPath("$.message").isNotEmpty())
+                .andExpect(jsonPath("$.game.piratesPending").value(false));
+        action(id, "pirates", null)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("NO_PIRATES"));
+    }
+
+    @Test
+    void actionsOnAFinishedGameAnswerGameOver() throws Exception {
+        String id = createGame(1L);
+        registry.get(id).withLock(session -> {
+            session.getListener().changeToResultsScreen();
+            return null;
+        });
+
+        action(id, "buy", "{\"item\":0,\"quantity\":1}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("GAME_OVER"))
+                .andExpect(jsonPath("$.game.gameOver").value(true));
+        action(id, "sail", "{\"island\":1}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("GAME_OVER"));
+    }
+
+    @Test
+    void unknownGamesAnswerNotFound() throws Exception {
+        mvc.perform(get("/games/no-such-game"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").exists());
+        action("no-such-game", "buy", "{\"item\":0,\"quantity\":1}")
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownItemsAndIslandsAnswerBadRequest() throws Exception {
+        String id = createGame(1L);
+
+        action(id, "buy", "{\"item\":99,\"quantity\":1}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("There is no item 99"));
+        action(id, "sail", "{\"island\":99}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("There is no island 99"));
+    }
+
+    private String createGame(long seed) throws Exception {
+        String body = mvc.perform(post("/games").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Tester\",\"ship\":\"The White Pearl\",\"days\":20,\"seed\":" + seed + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.id");
+    }
+
+    private ResultActions action(String id, String action, String body) throws Exception {
+        if (body == null) {
+            return mvc.perform(post("/games/" + id + "/" + action));
+        }
+        return mvc.perform(post("/games/" + id + "/" + action).contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+}
@@ -0,0 +1,152 @@
+package game.serverClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import game.controllerClasses.ActionResult;
+import game.controllerClasses.GameMetrics;
+import game.controllerClasses.GameState;
+import game.exceptions.ServerFullException;
+import game.primaryClasses.Island;
+import game.primaryClasses.WorldGenerator;
+import game.shipClasses.RoutePlanner;
+import game.shipClasses.Voyage;
+
+class GameSessionRegistryTests {
+
+    private static final String SHIP = "The White Pearl";
+
+    @Test
+    void evictIdleEndsSessionsPastTheIdleTimeout() throws Exception {
+        GameSessionRegistry registry = new GameSessionRegistry(10, Duration.ZERO, "", GameMetrics.NONE);
+        GameSession first = registry.create("Tester", SHIP, 20, 1L);
+        registry.create("Tester", SHIP, 20, 2L);
+        Thread.sleep(5);
+
+        assertEquals(2, registry.evictIdle());
+        assertEquals(0, registry.size());
+        assertThrows(NoSuchElementException.class, () -> registry.get(first.getId()));
+    }
+
+    @Test
+    void evictIdleKeepsSessionsInUse() throws Exception {
+        GameSessionRegistry registry = new GameSessionRegistry(10, Duration.ofHours(1), "", GameMetrics.NONE);
+        GameSession session = registry.create("Tester", SHIP, 20, 1L);
+
+        assertEquals(0, registry.evictIdle());
+        assertEquals(session, registry.get(session.getId()));
+    }
+
+    @Test
+    void fullRegistryEvictsIdleSessionsToMakeRoom() throws Exception {
+        GameSessionRegistry registry = new GameSessionRegistry(1, Duration.ZERO, "", GameMetrics.NONE);
+        GameSession idle = registry.create("Tester", SHIP, 20, 1L);
+        Thread.sleep(5);
+
+        GameSession session = registry.create("Tester", SHIP, 20, 2L);
+        assertEquals(1, registry.size());
+        assertEquals(session, registry.get(session.getId()));
+        assertThrows(NoSuchElementException.class, () -> registry.get(idle.getId()));
+    }
+
+    @Test
+    void fullRegistryRejectsNewGamesUntilOneEnds() throws Exception {
+        GameSessionRegistry registry = new GameSessionRegistry(2, Duration.ofHours(1), "", GameMetrics.NONE);
+        GameSession first = registry.create("Tester", SHIP, 20, 1L);
+        registry.create("Tester", SHIP, 20, 2L);
+
+        assertThrows(ServerFullException.class, () -> registry.create("Tester", SHIP, 20, 3L));
+        assertTrue(registry.remove(first.getId()));
+        registry.create("Tester", SHIP, 20, 3L);
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void rejectedGamesDoNotTakeAPlace() throws Exception {
+        GameSessionRegistry registry = new GameSessionRegistry(1, Duration.ofHours(1), "", GameMetrics.NONE);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.create("Tester", "No Such Ship", 20, 1L));
+        assertThrows(IllegalArgumentException.class, () -> registry.create("Tester", SHIP, 99, 1L));
+        registry.create("Tester", SHIP, 20, 1L);
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void concurrentCreatesNeverPassMaxSessions() throws Exception {
+        int maxSessions = 5;
+        GameSessionRegistry registry = new GameSessionRegistry(maxSessions, Duration.ofHours(1), "",
+                GameMetrics.NONE);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> creates = new ArrayList<>();
+        try {
+            for (int i = 0; i < 32; i++) {
+                long seed = i;
+                creates.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        registry.create("Tester", SHIP, 20, seed);
+                        return true;
+                    } catch (ServerFullException full) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<Boolean> create : creates) {
+                if (create.get()) {
+                    created++;
+                }
+            }
+            assertEquals(maxSessions, created);
+            assertEquals(maxSessions, registry.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void generatedWorldFilesHostGamesSailedThroughOtherIslands(@TempDir Path directory) throws Exception {
+        Path worldFile = directory.resolve("world.txt");
+        new WorldGenerator(5L, 400, 10, 2).generate().write(worldFile);
+        GameSessionRegistry registry = new GameSessionRegistry(10, Duration.ofHours(1), worldFile.toString(),
+                GameMetrics.NONE);
+        GameSession session = registry.create("Tester", SHIP, 50, 1L);
+
+        session.withLock(game -> {
+            GameState gameModel = game.getGameModel();
+            Island start = gameModel.getCurrentIsland();
+            assertEquals(400, gameModel.getIslandsList().size());
+            Voyage voyage = null;
+            for (Island island : gameModel.getIslandsList()) {
+                if (island != start && !start.hasRouteTo(island)) {
+                    voyage = gameModel.getShip().getTravelTable(gameModel.getIslandsList()).getRoutePlanner()
+                            .plan(start, island, RoutePlanner.Goal.SHORTEST);
+                    break;
+                }
+            }
+            assertTrue(voyage.stops().size() > 2);
+
+            Island firstStop = voyage.nextStop();
+            game.getGameController().setViewedIsland(firstStop);
+            assertEquals(ActionResult.SUCCESS, game.getGameController().trySail());
+            assertEquals(firstStop, gameModel.getCurrentIsland());
+            return null;
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package game.shipClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import game.controllerClasses.GameState;
+import game.primaryClasses.Island;
+import game.primaryClasses.Upgrade;
+import game.primaryClasses.WorldGenerator;
+import game.primaryClasses.WorldTemplate;
+import game.simulationClasses.GameSimulation;
+
+class RoutePlannerTests {
+
+    @Test
+    void routePlannerSailsThroughOtherIslands() {
+        WorldTemplate world = new WorldGenerator(7L, 200, 30, 3).generate();
+        GameState worldModel = new GameSimulation(WhitePearl::new, 50, 1L, world).getGameModel();
+        List<Island> islands = worldModel.getIslandsList();
+        Ship ship = worldModel.getShip();
+
+        Island from = worldModel.getCurrentIsland();
+        Island to = islands.get(islands.size() - 1);
+        TravelTable travelTable = ship.getTravelTable(islands);
+        Voyage voyage = travelTable.getRoutePlanner().plan(from, to, RoutePlanner.Goal.CHEAPEST);
+        assertTrue(voyage.hops() > 1);
+        int costToSail = 0;
+        for (int stop = 0; stop < voyage.hops(); stop++) {
+            assertTrue(voyage.stops().get(stop).hasRouteTo(voyage.stops().get(stop + 1)));
+            costToSail += travelTable.getCostToSail(voyage.stops().get(stop), voyage.stops().get(stop + 1));
+        }
+        assertEquals(costToSail, voyage.costToSail());
+        assertTrue(travelTable.getRoutePlanner().plan(from, to, RoutePlanner.Goal.SHORTEST).km() <= voyage.km());
+
+        ship.upgradeShip(new Upgrade("Bigger Sails", 0, 0, "", ""));
+        Voyage faster = ship.getTravelTable(islands).getRoutePlanner().plan(from, to, RoutePlanner.Goal.CHEAPEST);
+        assertTrue(faster.daysTravel() < voyage.daysTravel());
+    }
+}
@@ -0,0 +1,31 @@
+package game.simulationClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BatchSimulatorTests {
+
+    @Test
+    void sameMasterSeedGivesSameBatchOnAnyNumberOfCores() {
+        List<String> single = summarise(new BatchSimulator(GreedyTrader::new, 1).run(1, 42L));
+        assertEquals(single, summarise(new BatchSimulator(GreedyTrader::new, 1).run(1, 42L)));
+        assertEquals(single, summarise(new BatchSimulator(GreedyTrader::new, 4).run(1, 42L)));
+        assertEquals(single, summarise(new BatchSimulator(GreedyTrader::new, 3).run(1, 42L)));
+        assertNotEquals(single, summarise(new BatchSimulator(GreedyTrader::new, 4).run(1, 43L)));
+    }
+
+    private static List<String> summarise(BatchReport report) {
+        List<String> summary = new ArrayList<>();
+        for (ScoreDistribution distribution : report.getDistributions()) {
+            summary.add(distribution.getLabel() + " " + distribution.getGames() + " " + distribution.getMean()
+                    + " " + distribution.getMin() + " " + distribution.getP10() + " " + distribution.getMedian()
+                    + " " + distribution.getP90() + " " + distribution.getMax());
+        }
+        return summary;
+    }
+}
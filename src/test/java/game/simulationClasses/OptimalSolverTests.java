@@ -0,0 +1,40 @@
+package game.simulationClasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import game.primaryClasses.WorldTemplate;
+
+class OptimalSolverTests {
+
+    @Test
+    void prunedSearchFindsTheExhaustiveBest() {
+        for (long seed = 1; seed <= 2; seed++) {
+            for (int ship = 0; ship < BatchSimulator.SHIPS.size(); ship++) {
+                SolverResult pruned = new OptimalSolver(BatchSimulator.SHIPS.get(ship), 20, seed).solve();
+                SolverResult exhaustive = new OptimalSolver(BatchSimulator.SHIPS.get(ship), 20, seed)
+                        .solveExhaustively();
+                assertEquals(exhaustive.getScore(), pruned.getScore());
+                assertTrue(pruned.getPortsSearched() <= exhaustive.getPortsSearched());
+            }
+        }
+    }
+
+    @Test
+    void solverScoresAtLeastTheGreedyTrader() {
+        WorldTemplate world = WorldTemplate.getDefault().withFixedMarket();
+        for (long seed = 1; seed <= 5; seed++) {
+            for (int ship = 0; ship < BatchSimulator.SHIPS.size(); ship++) {
+                int greedy = new GameSimulation(BatchSimulator.SHIPS.get(ship), 30, seed, world)
+                        .play(new GreedyTrader());
+                SolverResult best = new OptimalSolver(BatchSimulator.SHIPS.get(ship), 30, seed, world).solve();
+                assertTrue(best.getScore() >= greedy, "seed " + seed + " ship " + ship);
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new OptimalSolver(BatchSimulator.SHIPS.get(0), 30, 1L, WorldTemplate.getDefault()));
+    }
+}